@@ -0,0 +1,145 @@
+package com.yamaha.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.util.FileSystemUtils;
+
+import com.yamaha.TaskManagementApplication;
+import com.yamaha.dto.BulkItemResultDTO;
+import com.yamaha.dto.BulkResultDTO;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.service.TaskBulkService;
+
+/**
+ * Boots the application against a fresh copy of a SQLite file seeded with a
+ * given number of tasks, so every trial starts from the same data however
+ * much the previous one wrote. The seeded template is kept in java.io.tmpdir
+ * and reused across runs so the 1M-row dataset is only built once; it is
+ * written through TaskBulkService, so rows carry real change sequences and
+ * lookup ids, and every in-memory index is built from them at startup.
+ */
+public final class BenchmarkApplication {
+    
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] DEPARTMENTS = {"Production", "IT", "Quality", "Maintenance", "Logistics"};
+    private static final String[] CATEGORIES = {"General", "Electrical", "IT", "Mechanical", "Safety"};
+    private static final String[] RESPONSIBLES = new String[26];
+    
+    static {
+        for (int i = 0; i < RESPONSIBLES.length; i++) {
+            RESPONSIBLES[i] = "Operator " + (char) ('A' + i);
+        }
+    }
+    
+    private BenchmarkApplication() {}
+    
+    /**
+     * Starts the application on a private copy of the seeded database (and a
+     * private memory-store directory); both are deleted when the context closes.
+     */
+    public static ConfigurableApplicationContext start(int taskCount, String... properties) {
+        try {
+            Path template = seeded(taskCount);
+            Path dir = Files.createTempDirectory("task-bench-" + taskCount + "-");
+            Path db = dir.resolve("tasks.db");
+            Files.copy(template, db);
+            ConfigurableApplicationContext context = run(db, dir.resolve("task-store"), properties);
+            context.addApplicationListener((ContextClosedEvent event) -> FileSystemUtils.deleteRecursively(dir.toFile()));
+            return context;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Path seeded(int taskCount) throws IOException {
+        Path template = Path.of(System.getProperty("java.io.tmpdir"), "task-bench-seed-" + taskCount + ".db");
+        if (Files.exists(template)) {
+            return template;
+        }
+        Path dir = Files.createTempDirectory("task-bench-seeding-");
+        Path db = dir.resolve("tasks.db");
+        // Closing the context checkpoints the WAL into the file
+        try (ConfigurableApplicationContext context = run(db, dir.resolve("task-store"))) {
+            seed(context.getBean(TaskBulkService.class), taskCount);
+        }
+        Files.move(db, template, StandardCopyOption.ATOMIC_MOVE);
+        FileSystemUtils.deleteRecursively(dir);
+        return template;
+    }
+    
+    private static ConfigurableApplicationContext run(Path db, Path storeDir, String... properties) {
+        return new SpringApplicationBuilder(TaskManagementApplication.class)
+                .run(arguments(properties,
+                        "spring.datasource.url=jdbc:sqlite:" + db.toAbsolutePath(),
+                        "tasks.store.memory.dir=" + storeDir.toAbsolutePath(),
+                        "server.port=0",
+                        "logging.level.com.yamaha=WARN",
+                        "logging.level.root=WARN",
+                        // All load comes from one client; per-client rate limits would cap it
+                        "tasks.admission.client.write-rate=0"));
+    }
+    
+    private static void seed(TaskBulkService bulkService, int taskCount) {
+        LocalDate baseDate = LocalDate.of(2024, 1, 1);
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        
+        for (int start = 0; start < taskCount; start += SEED_BATCH_SIZE) {
+            int size = Math.min(SEED_BATCH_SIZE, taskCount - start);
+            List<TaskDTO> batch = new ArrayList<>(size);
+            for (int n = start; n < start + size; n++) {
+                LocalDate startDate = baseDate.plusDays(n % 365);
+                TaskDTO task = new TaskDTO();
+                task.setTaskName("Task " + n);
+                task.setStartDate(startDate);
+                task.setEndDate(startDate.plusDays(7 + n % 30));
+                task.setResponsible(RESPONSIBLES[n % RESPONSIBLES.length]);
+                task.setStatus(statuses[n % statuses.length]);
+                task.setRemarks("Seeded benchmark task");
+                task.setPriority(priorities[n % priorities.length]);
+                task.setCategory(CATEGORIES[n % CATEGORIES.length]);
+                task.setEstimatedHours(8);
+                task.setActualHours(n % 10);
+                task.setCompletionPercentage((n * 7) % 101);
+                task.setDepartment(DEPARTMENTS[n % DEPARTMENTS.length]);
+                task.setIsCritical(n % 10 == 0);
+                batch.add(task);
+            }
+            BulkResultDTO result = bulkService.createTasks(batch);
+            if (result.getSucceeded() != size) {
+                throw new IllegalStateException("Seeding failed: " + result.getResults().stream()
+                        .filter(item -> !item.isSuccess()).findFirst().map(BulkItemResultDTO::getError).orElse(""));
+            }
+        }
+    }
+    
+    /**
+     * Defaults overlaid with the caller's properties, as command-line
+     * arguments: builder properties would rank below application.properties
+     * and lose to its datasource URL and port.
+     */
+    private static String[] arguments(String[] overrides, String... defaults) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String property : defaults) {
+            values.put(property.substring(0, property.indexOf('=')), property);
+        }
+        for (String property : overrides) {
+            values.put(property.substring(0, property.indexOf('=')), property);
+        }
+        return values.values().stream().map(property -> "--" + property).toArray(String[]::new);
+    }
+}
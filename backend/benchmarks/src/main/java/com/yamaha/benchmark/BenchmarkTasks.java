@@ -0,0 +1,59 @@
+package com.yamaha.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Shared fixtures for the service and MVC benchmarks.
+ */
+final class BenchmarkTasks {
+    
+    private final long minId;
+    private final long maxId;
+    
+    BenchmarkTasks(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        this.minId = jdbc.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+        this.maxId = jdbc.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+    }
+    
+    BenchmarkTasks(long minId, long maxId) {
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+    
+    long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+    
+    static TaskDTO newTask() {
+        TaskDTO dto = new TaskDTO();
+        dto.setTaskName("Benchmark task");
+        dto.setResponsible("Operator Z");
+        dto.setStartDate(LocalDate.of(2024, 6, 1));
+        dto.setEndDate(LocalDate.of(2024, 6, 30));
+        dto.setStatus(TaskStatus.NOT_STARTED);
+        dto.setPriority(TaskPriority.MEDIUM);
+        dto.setCategory("General");
+        dto.setDepartment("Production");
+        dto.setEstimatedHours(8);
+        dto.setCompletionPercentage(0);
+        dto.setIsCritical(false);
+        return dto;
+    }
+    
+    static TaskDTO randomUpdate() {
+        TaskDTO dto = newTask();
+        TaskStatus[] statuses = TaskStatus.values();
+        dto.setStatus(statuses[ThreadLocalRandom.current().nextInt(statuses.length)]);
+        dto.setCompletionPercentage(ThreadLocalRandom.current().nextInt(101));
+        return dto;
+    }
+}
@@ -0,0 +1,151 @@
+package com.yamaha.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sun.management.ThreadMXBean;
+import com.yamaha.entity.Task;
+import com.yamaha.repository.TaskLookupTable;
+import com.yamaha.service.TaskLookups;
+import com.yamaha.service.TaskService;
+
+/**
+ * Before/after footprint of moving department, category and responsible into
+ * lookup tables (V7__task_lookups.sql). The "before" side is a copy of tasks
+ * in the pre-V7 layout, with the names inline, built in the same database:
+ * <ul>
+ * <li>bytes on disk of tasks plus the department/category indexes (and the
+ * lookup tables on the "after" side), from SQLite's dbstat table;</li>
+ * <li>heap allocated per list page read from either layout with the same
+ * JDBC mapping, and the distinct name String instances the page retains;</li>
+ * <li>allocation of the actual list path, TaskService.getTasks, for reference.</li>
+ * </ul>
+ *
+ * <p>Not a JMH benchmark: sizes are not timings. Build the module and run
+ * {@code java -cp target/benchmarks.jar com.yamaha.benchmark.LookupFootprintBenchmark [taskCount] [pageSize]}.
+ */
+public final class LookupFootprintBenchmark {
+    
+    private static final int ITERATIONS = 50;
+    
+    private static final String INLINE_COLUMNS = "id, task_name, responsible, status, remarks, category, "
+            + "estimated_hours, completion_percentage, department";
+    private static final String LOOKUP_COLUMNS = "id, task_name, responsible_id, status, remarks, category_id, "
+            + "estimated_hours, completion_percentage, department_id";
+    
+    private LookupFootprintBenchmark() {}
+    
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        
+        ConfigurableApplicationContext context = BenchmarkApplication.start(taskCount);
+        try {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            TaskLookups lookups = context.getBean(TaskLookups.class);
+            TaskService taskService = context.getBean(TaskService.class);
+            
+            context.getBean(TransactionTemplate.class).executeWithoutResult(status -> createInlineCopy(jdbc));
+            long inlineBytes = bytesOnDisk(jdbc, "m.tbl_name = 'tasks_inline'");
+            long lookupBytes = bytesOnDisk(jdbc, "m.name IN ('tasks', 'idx_tasks_department_status', 'idx_tasks_category') "
+                    + "OR m.tbl_name IN ('task_departments', 'task_categories', 'task_responsibles')");
+            
+            Supplier<List<Task>> inlinePage = () -> jdbc.query(
+                    "SELECT " + INLINE_COLUMNS + " FROM tasks_inline ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> {
+                        Task task = new Task(rs.getString(2), rs.getString(3), null, rs.getString(5));
+                        task.setId(rs.getLong(1));
+                        task.setCategory(rs.getString(6));
+                        task.setDepartment(rs.getString(9));
+                        return task;
+                    }, pageSize);
+            Supplier<List<Task>> lookupPage = () -> jdbc.query(
+                    "SELECT " + LOOKUP_COLUMNS + " FROM tasks ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> {
+                        Task task = new Task(rs.getString(2), lookups.nameOf(TaskLookupTable.RESPONSIBLE, rs.getInt(3)),
+                                null, rs.getString(5));
+                        task.setId(rs.getLong(1));
+                        int category = rs.getInt(6);
+                        task.setCategory(rs.wasNull() ? null : lookups.nameOf(TaskLookupTable.CATEGORY, category));
+                        int department = rs.getInt(9);
+                        task.setDepartment(rs.wasNull() ? null : lookups.nameOf(TaskLookupTable.DEPARTMENT, department));
+                        return task;
+                    }, pageSize);
+            
+            System.out.printf("%d tasks, page of %d%n", taskCount, pageSize);
+            System.out.printf("%-34s %16s %16s%n", "", "inline (pre-V7)", "lookup ids (V7)");
+            System.out.printf("%-34s %16d %16d%n", "tasks + dept/category indexes, B", inlineBytes, lookupBytes);
+            System.out.printf("%-34s %16d %16d%n", "allocated per page, B",
+                    allocatedPerCall(inlinePage), allocatedPerCall(lookupPage));
+            System.out.printf("%-34s %16d %16d%n", "name String instances per page",
+                    nameInstances(inlinePage.get()), nameInstances(lookupPage.get()));
+            System.out.printf("%-34s %16s %16d%n", "TaskService.getTasks, B/page", "-",
+                    allocatedPerCall(() -> taskService.getTasks(null, null, pageSize, null)));
+            
+            jdbc.execute("DROP TABLE tasks_inline");
+        } finally {
+            context.close();
+        }
+    }
+    
+    private static void createInlineCopy(JdbcTemplate jdbc) {
+        jdbc.execute("DROP TABLE IF EXISTS tasks_inline");
+        jdbc.execute("CREATE TABLE tasks_inline (id integer, actual_hours integer, category varchar(255), "
+                + "completion_percentage integer, created_at timestamp, department varchar(255), end_date date, "
+                + "estimated_hours integer, is_critical boolean, priority varchar(255), remarks varchar(255), "
+                + "responsible varchar(255) not null, start_date date, status varchar(255) not null, "
+                + "task_name varchar(255) not null, updated_at timestamp, change_seq bigint, "
+                + "version bigint not null default 0, primary key (id))");
+        jdbc.execute("INSERT INTO tasks_inline SELECT t.id, t.actual_hours, c.name, t.completion_percentage, "
+                + "t.created_at, d.name, t.end_date, t.estimated_hours, t.is_critical, t.priority, t.remarks, r.name, "
+                + "t.start_date, t.status, t.task_name, t.updated_at, t.change_seq, t.version FROM tasks t "
+                + "LEFT JOIN task_categories c ON c.id = t.category_id "
+                + "LEFT JOIN task_departments d ON d.id = t.department_id "
+                + "JOIN task_responsibles r ON r.id = t.responsible_id ORDER BY t.id");
+        jdbc.execute("CREATE INDEX idx_tasks_inline_department_status ON tasks_inline (department, status)");
+        jdbc.execute("CREATE INDEX idx_tasks_inline_category ON tasks_inline (category)");
+    }
+    
+    private static long bytesOnDisk(JdbcTemplate jdbc, String condition) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(s.pgsize), 0) FROM dbstat s "
+                + "JOIN sqlite_schema m ON m.name = s.name WHERE " + condition, Long.class);
+    }
+    
+    // Median over the iterations after as many warm-up calls
+    private static long allocatedPerCall(Supplier<?> call) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        List<Long> samples = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < 2 * ITERATIONS; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            call.get();
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+            if (i >= ITERATIONS) {
+                samples.add(allocated);
+            }
+        }
+        Collections.sort(samples);
+        return samples.get(samples.size() / 2);
+    }
+    
+    private static int nameInstances(List<Task> page) {
+        Map<String, Boolean> distinct = new IdentityHashMap<>();
+        for (Task task : page) {
+            for (String name : new String[] {task.getResponsible(), task.getCategory(), task.getDepartment()}) {
+                if (name != null) {
+                    distinct.put(name, Boolean.TRUE);
+                }
+            }
+        }
+        return distinct.size();
+    }
+}
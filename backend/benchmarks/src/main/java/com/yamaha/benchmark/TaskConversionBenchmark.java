@@ -0,0 +1,80 @@
+package com.yamaha.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.service.TaskService;
+
+/**
+ * Entity/DTO mapping in isolation, on the application's own TaskService bean
+ * so the overdue check and conversion counter are the real ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskConversionBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Task task;
+    private TaskDTO dto;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(1000);
+        taskService = context.getBean(TaskService.class);
+        
+        task = new Task("Cable Installation", "Operator A", TaskStatus.IN_PROGRESS, "Benchmark task");
+        task.setId(42L);
+        task.setStartDate(LocalDate.of(2024, 3, 1));
+        task.setEndDate(LocalDate.of(2024, 3, 15));
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        task.setPriority(TaskPriority.HIGH);
+        task.setCategory("Electrical");
+        task.setEstimatedHours(8);
+        task.setActualHours(3);
+        task.setCompletionPercentage(40);
+        task.setDepartment("Production");
+        task.setIsCritical(true);
+        
+        dto = taskService.convertToDTO(task);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TaskDTO convertToDTO() {
+        return taskService.convertToDTO(task);
+    }
+    
+    @Benchmark
+    public Task convertToEntity() {
+        return taskService.convertToEntity(dto);
+    }
+}
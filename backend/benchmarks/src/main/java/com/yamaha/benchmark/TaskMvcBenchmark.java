@@ -0,0 +1,114 @@
+package com.yamaha.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yamaha.dto.TaskDTO;
+
+/**
+ * The same operations as {@link TaskServiceBenchmark}, dispatched through
+ * the Spring MVC stack (argument binding, Jackson, message converters).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskMvcBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private BenchmarkTasks tasks;
+    private byte[] newTaskJson;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start(taskCount);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        tasks = new BenchmarkTasks(context);
+        newTaskJson = objectMapper.writeValueAsBytes(BenchmarkTasks.newTask());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public MvcResult list() throws Exception {
+        return mockMvc.perform(get("/api/tasks")).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult getById() throws Exception {
+        return mockMvc.perform(get("/api/tasks/{id}", tasks.randomId())).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult create() throws Exception {
+        return mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(newTaskJson)).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult update() throws Exception {
+        return mockMvc.perform(put("/api/tasks/{id}", tasks.randomId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(BenchmarkTasks.randomUpdate()))).andReturn();
+    }
+    
+    // Status/progress-only PATCH: single UPDATE ... RETURNING, no entity load
+    @Benchmark
+    public MvcResult patchProgress() throws Exception {
+        TaskDTO update = BenchmarkTasks.randomUpdate();
+        return mockMvc.perform(patch("/api/tasks/{id}", tasks.randomId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"" + update.getStatus() + "\",\"completionPercentage\":"
+                        + update.getCompletionPercentage() + "}")).andReturn();
+    }
+    
+    // Any other field goes through the entity with a dynamic UPDATE
+    @Benchmark
+    public MvcResult patchRemarks() throws Exception {
+        return mockMvc.perform(patch("/api/tasks/{id}", tasks.randomId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"remarks\":\"Patched by benchmark\"}")).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult summary() throws Exception {
+        return mockMvc.perform(get("/api/tasks/summary")).andReturn();
+    }
+}
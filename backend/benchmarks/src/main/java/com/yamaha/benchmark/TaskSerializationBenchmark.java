@@ -0,0 +1,76 @@
+package com.yamaha.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yamaha.controller.TaskColumnarMessageConverter;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Jackson serialization of task list pages, configured the way Spring Boot
+ * configures its ObjectMapper, against the columnar representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSerializationBenchmark {
+    
+    @Param({"100", "1000"})
+    public int listSize;
+    
+    private ObjectMapper objectMapper;
+    private TaskColumnarMessageConverter columnarConverter;
+    private List<TaskDTO> page;
+    
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        columnarConverter = new TaskColumnarMessageConverter(objectMapper);
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        page = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            TaskDTO dto = BenchmarkTasks.newTask();
+            dto.setId((long) i);
+            dto.setTaskName("Task " + i);
+            dto.setStatus(statuses[i % statuses.length]);
+            dto.setPriority(priorities[i % priorities.length]);
+            dto.setStartDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            page.add(dto);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] serializeColumnar() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        columnarConverter.writeColumns(page, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package com.yamaha.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskPageDTO;
+import com.yamaha.dto.TaskRollupDTO;
+import com.yamaha.dto.TaskSummaryDTO;
+import com.yamaha.service.TaskRollups;
+import com.yamaha.service.TaskService;
+
+/**
+ * In-process TaskService operations against a seeded SQLite database.
+ * create/update mutate the dataset, so their tables grow across iterations;
+ * each trial starts again from a fresh copy of the seeded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskServiceBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+    
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRollups rollups;
+    private BenchmarkTasks tasks;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(taskCount);
+        taskService = context.getBean(TaskService.class);
+        rollups = context.getBean(TaskRollups.class);
+        tasks = new BenchmarkTasks(context);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TaskPageDTO list() {
+        return taskService.getTasks(new TaskFilter(), null, null, null);
+    }
+    
+    @Benchmark
+    public TaskDTO getById() {
+        return taskService.getTaskById(tasks.randomId());
+    }
+    
+    @Benchmark
+    public TaskDTO create() {
+        return taskService.createTask(BenchmarkTasks.newTask());
+    }
+    
+    @Benchmark
+    public TaskDTO update() {
+        return taskService.updateTask(tasks.randomId(), BenchmarkTasks.randomUpdate());
+    }
+    
+    @Benchmark
+    public TaskSummaryDTO summary() {
+        return taskService.getTaskSummary();
+    }
+    
+    @Benchmark
+    public List<TaskRollupDTO> departmentRollups() {
+        return rollups.byDepartment();
+    }
+}
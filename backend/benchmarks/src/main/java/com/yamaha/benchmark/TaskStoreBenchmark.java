@@ -0,0 +1,122 @@
+package com.yamaha.benchmark;
+
+import java.util.LongSummaryStatistics;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskPageDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskStore;
+import com.yamaha.service.TaskChangeSequence;
+import com.yamaha.service.TaskService;
+import com.yamaha.service.TaskWriteQueue;
+
+/**
+ * The SQLite store against the in-memory journaled store: point reads on
+ * the store itself, and listing, create and update through TaskService so
+ * the journal fsync (memory) and the SQLite commit (jpa) are both included.
+ * insertStoreOnly writes just the task in a writer transaction; create
+ * minus insertStoreOnly is what the rest of a write costs, chiefly the
+ * rollup cell that even the memory store keeps in SQLite.
+ * Each trial gets a fresh database copy and memory-store directory, so the
+ * memory store imports the seeded SQLite tasks during trial setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskStoreBenchmark {
+    
+    @Param({"jpa", "memory"})
+    public String store;
+    
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+    
+    private ConfigurableApplicationContext context;
+    private TaskStore taskStore;
+    private TaskService taskService;
+    private TaskWriteQueue writeQueue;
+    private TaskChangeSequence changeSequence;
+    private BenchmarkTasks tasks;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(taskCount, "tasks.store.type=" + store);
+        taskStore = context.getBean(TaskStore.class);
+        taskService = context.getBean(TaskService.class);
+        writeQueue = context.getBean(TaskWriteQueue.class);
+        changeSequence = context.getBean(TaskChangeSequence.class);
+        if (store.equals("memory")) {
+            LongSummaryStatistics ids = idRange();
+            tasks = new BenchmarkTasks(ids.getMin(), ids.getMax());
+        } else {
+            tasks = new BenchmarkTasks(context);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<Task> findById() {
+        return taskStore.findById(tasks.randomId());
+    }
+    
+    @Benchmark
+    public TaskPageDTO list() {
+        return taskService.getTasks(new TaskFilter(), null, null, null);
+    }
+    
+    @Benchmark
+    public TaskDTO create() {
+        return taskService.createTask(BenchmarkTasks.newTask());
+    }
+    
+    @Benchmark
+    public Task insertStoreOnly() {
+        return writeQueue.execute(() -> {
+            Task task = new Task("Benchmark task", "Operator Z", TaskStatus.NOT_STARTED, null);
+            task.setChangeSeq(changeSequence.next());
+            return taskStore.insert(task);
+        });
+    }
+    
+    @Benchmark
+    public TaskDTO update() {
+        return taskService.updateTask(tasks.randomId(), BenchmarkTasks.randomUpdate());
+    }
+    
+    private LongSummaryStatistics idRange() {
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        return tx.execute(status -> {
+            try (Stream<Task> all = taskStore.streamAll(null)) {
+                return all.mapToLong(Task::getId).summaryStatistics();
+            }
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.yamaha.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Closed-loop HTTP load test comparing request handling on Tomcat's platform
+ * thread pool with virtual threads ({@code spring.threads.virtual.enabled}).
+ * Each client repeatedly fetches a filtered list page or a task by id against
+ * a real port and records per-request latency.
+ *
+ * <p>Not a JMH benchmark: JMH cannot vary the number of client threads per
+ * run. Build the module and run
+ * {@code java -cp target/benchmarks.jar com.yamaha.benchmark.ThreadModeLoadBenchmark [taskCount] [seconds]}.
+ * The virtual-thread mode is skipped on runtimes older than Java 21.
+ */
+public final class ThreadModeLoadBenchmark {
+    
+    private static final int[] CLIENTS = {10, 100, 1000};
+    private static final int WARMUP_SECONDS = 5;
+    
+    private ThreadModeLoadBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        
+        List<String> modes = new ArrayList<>(List.of("platform"));
+        if (Runtime.version().feature() >= 21) {
+            modes.add("virtual");
+        } else {
+            System.out.println("Java " + Runtime.version().feature() + ": skipping virtual-thread mode");
+        }
+        
+        System.out.printf("%-9s %8s %12s %10s %10s %10s %8s%n",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String mode : modes) {
+            ConfigurableApplicationContext context = BenchmarkApplication.start(taskCount,
+                    "spring.threads.virtual.enabled=" + "virtual".equals(mode));
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                BenchmarkTasks tasks = new BenchmarkTasks(context);
+                for (int clients : CLIENTS) {
+                    run(baseUrl, tasks, clients, WARMUP_SECONDS);
+                    Result result = run(baseUrl, tasks, clients, seconds);
+                    System.out.printf("%-9s %8d %12.1f %10.2f %10.2f %10.2f %8d%n",
+                            mode, clients, result.throughput(), result.percentileMs(50),
+                            result.percentileMs(99), result.percentileMs(100), result.errors);
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+    
+    private static Result run(String baseUrl, BenchmarkTasks tasks, int clients, int seconds)
+            throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        TaskStatus[] statuses = TaskStatus.values();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(clients);
+        
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        String path = random.nextBoolean()
+                                ? "/api/tasks?limit=50&status=" + statuses[random.nextInt(statuses.length)]
+                                : "/api/tasks/" + tasks.randomId();
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[client] = samples;
+                    counts[client] = count;
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(all, seconds, errors.get());
+    }
+    
+    private static final class Result {
+        private final long[] sortedNanos;
+        private final int seconds;
+        private final long errors;
+        
+        Result(long[] sortedNanos, int seconds, long errors) {
+            this.sortedNanos = sortedNanos;
+            this.seconds = seconds;
+            this.errors = errors;
+        }
+        
+        double throughput() {
+            return (double) sortedNanos.length / seconds;
+        }
+        
+        double percentileMs(double percentile) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.yamaha.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the load test. Boots the application on a temporary SQLite
+ * file, seeds it, then runs one open-loop stage per target rate and writes a
+ * report. Everything happens in this JVM against localhost, so no network
+ * access or external tools are needed.
+ *
+ * <pre>
+ * java -jar loadtest.jar [-tasks 100000] [-rates 100,200,400,800] [-warmup 10] [-duration 30]
+ *                        [-mix list:40,get:30,create:10,update:10,delete:5,summary:5]
+ *                        [-seed 42] [-timeout 30] [-report loadtest-report.txt]
+ *                        [-set spring.property=value ...]
+ * </pre>
+ */
+public final class LoadTest {
+    
+    private LoadTest() {}
+    
+    public static void main(String[] args) throws Exception {
+        int tasks = 100_000;
+        List<Integer> rates = List.of(100, 200, 400, 800);
+        int warmup = 10;
+        int duration = 30;
+        String mixSpec = "list:40,get:30,create:10,update:10,delete:5,summary:5";
+        long seed = 42;
+        int timeout = 30;
+        Path report = Path.of("loadtest-report.txt");
+        List<String> properties = new ArrayList<>();
+        
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "-tasks" -> tasks = Integer.parseInt(value);
+                case "-rates" -> rates = parseRates(value);
+                case "-warmup" -> warmup = Integer.parseInt(value);
+                case "-duration" -> duration = Integer.parseInt(value);
+                case "-mix" -> mixSpec = value;
+                case "-seed" -> seed = Long.parseLong(value);
+                case "-timeout" -> timeout = Integer.parseInt(value);
+                case "-report" -> report = Path.of(value);
+                case "-set" -> properties.add(value);
+                default -> usage("Unknown option " + option);
+            }
+        }
+        OperationMix mix = OperationMix.parse(mixSpec);
+        
+        List<String> settings = new ArrayList<>();
+        settings.add("tasks=" + tasks + " warmup=" + warmup + "s duration=" + duration + "s seed=" + seed
+                + " timeout=" + timeout + "s");
+        settings.add("mix=" + mix);
+        settings.add("java=" + Runtime.version().feature() + " cpus=" + Runtime.getRuntime().availableProcessors());
+        properties.forEach(property -> settings.add("set " + property));
+        
+        System.out.println("Seeding " + tasks + " tasks...");
+        LoadTestDataset dataset = LoadTestDataset.start(tasks, properties.toArray(new String[0]));
+        List<StageResult> stages = new ArrayList<>();
+        try {
+            OpenLoopRunner runner = new OpenLoopRunner(dataset.baseUrl(), dataset.minId(), dataset.maxId(),
+                    mix, seed, Duration.ofSeconds(timeout));
+            for (int rate : rates) {
+                System.out.println("Running " + rate + " req/s for " + warmup + "s warmup + " + duration + "s...");
+                stages.add(runner.run(rate, warmup, duration));
+            }
+        } finally {
+            dataset.close();
+        }
+        
+        String text = LoadTestReport.render(settings, stages);
+        Files.writeString(report, text, StandardCharsets.UTF_8);
+        System.out.print(text);
+        System.out.println("Report written to " + report.toAbsolutePath());
+        System.exit(0);
+    }
+    
+    private static List<Integer> parseRates(String value) {
+        List<Integer> rates = new ArrayList<>();
+        for (String rate : value.split(",")) {
+            int parsed = Integer.parseInt(rate.trim());
+            if (parsed <= 0) {
+                usage("Rates must be positive");
+            }
+            rates.add(parsed);
+        }
+        return rates;
+    }
+    
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: java -jar loadtest.jar [-tasks N] [-rates r1,r2,...] [-warmup s] [-duration s] "
+                + "[-mix op:weight,...] [-seed n] [-timeout s] [-report file] [-set property=value]");
+        System.exit(2);
+    }
+}
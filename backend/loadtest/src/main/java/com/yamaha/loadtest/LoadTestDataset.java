@@ -0,0 +1,180 @@
+package com.yamaha.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.TaskManagementApplication;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskLookupRepository;
+import com.yamaha.repository.TaskLookupTable;
+import com.yamaha.service.TaskRollups;
+import com.yamaha.service.TaskSummaryCounters;
+
+/**
+ * Boots the application on a fresh temporary SQLite file and seeds it with a
+ * deterministic dataset, so two runs with the same options start from the
+ * same data. The file is deleted when the application is closed.
+ */
+final class LoadTestDataset {
+    
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] DEPARTMENTS = {"Production", "IT", "Quality", "Maintenance", "Logistics"};
+    private static final String[] CATEGORIES = {"General", "Electrical", "IT", "Mechanical", "Safety"};
+    private static final String[] RESPONSIBLES = new String[26];
+    
+    static {
+        for (int i = 0; i < RESPONSIBLES.length; i++) {
+            RESPONSIBLES[i] = "Operator " + (char) ('A' + i);
+        }
+    }
+    private static final String[] REMARKS = {
+        "Waiting for spare parts from supplier",
+        "Cable routing along the north wall",
+        "Check firmware version before rollout",
+        "Coordinate shutdown window with production",
+        "Safety inspection required after install"
+    };
+    
+    private final ConfigurableApplicationContext context;
+    private final Path databaseFile;
+    private final long minId;
+    private final long maxId;
+    
+    private LoadTestDataset(ConfigurableApplicationContext context, Path databaseFile, long minId, long maxId) {
+        this.context = context;
+        this.databaseFile = databaseFile;
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+    
+    static LoadTestDataset start(int taskCount, String... properties) throws IOException {
+        Path databaseFile = Files.createTempFile("task-loadtest-", ".db");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagementApplication.class)
+                .run(arguments(properties,
+                        "spring.datasource.url=jdbc:sqlite:" + databaseFile.toAbsolutePath(),
+                        "server.port=0",
+                        "logging.level.com.yamaha=WARN",
+                        "logging.level.root=WARN",
+                        // All load comes from one client; per-client rate limits would cap it
+                        "tasks.admission.client.write-rate=0"));
+        
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seed(jdbc, context.getBean(TransactionTemplate.class), context.getBean(TaskLookupRepository.class), taskCount);
+        // Rows were written behind the service's back
+        context.getBean(TaskSummaryCounters.class).rebuild();
+        context.getBean(TaskRollups.class).reconcile();
+        
+        long minId = jdbc.queryForObject("SELECT COALESCE(MIN(id), 0) FROM tasks", Long.class);
+        long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+        return new LoadTestDataset(context, databaseFile, minId, maxId);
+    }
+    
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks";
+    }
+    
+    long minId() {
+        return minId;
+    }
+    
+    long maxId() {
+        return maxId;
+    }
+    
+    void close() throws IOException {
+        context.close();
+        Files.deleteIfExists(databaseFile);
+        Files.deleteIfExists(Path.of(databaseFile + "-wal"));
+        Files.deleteIfExists(Path.of(databaseFile + "-shm"));
+    }
+    
+    private static void seed(JdbcTemplate jdbc, TransactionTemplate tx, TaskLookupRepository lookups,
+                             int taskCount) {
+        int[] responsibleIds = lookupIds(lookups, tx, TaskLookupTable.RESPONSIBLE, RESPONSIBLES);
+        int[] categoryIds = lookupIds(lookups, tx, TaskLookupTable.CATEGORY, CATEGORIES);
+        int[] departmentIds = lookupIds(lookups, tx, TaskLookupTable.DEPARTMENT, DEPARTMENTS);
+        
+        String sql = "INSERT INTO tasks (task_name, start_date, end_date, responsible_id, status, remarks, "
+                + "created_at, updated_at, priority, category_id, estimated_hours, actual_hours, "
+                + "completion_percentage, department_id, is_critical) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        LocalDate baseDate = LocalDate.of(2024, 1, 1);
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 8, 0));
+        TaskStatus[] statuses = TaskStatus.values();
+        TaskPriority[] priorities = TaskPriority.values();
+        
+        for (int start = 0; start < taskCount; start += SEED_BATCH_SIZE) {
+            int from = start;
+            int size = Math.min(SEED_BATCH_SIZE, taskCount - start);
+            tx.executeWithoutResult(status -> jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int n = from + i;
+                    LocalDate startDate = baseDate.plusDays(n % 365);
+                    ps.setString(1, "Task " + n);
+                    ps.setDate(2, Date.valueOf(startDate));
+                    ps.setDate(3, Date.valueOf(startDate.plusDays(7 + n % 30)));
+                    ps.setInt(4, responsibleIds[n % responsibleIds.length]);
+                    ps.setString(5, statuses[n % statuses.length].name());
+                    ps.setString(6, REMARKS[n % REMARKS.length]);
+                    ps.setTimestamp(7, created);
+                    ps.setTimestamp(8, created);
+                    ps.setString(9, priorities[n % priorities.length].name());
+                    ps.setInt(10, categoryIds[n % categoryIds.length]);
+                    ps.setInt(11, 8);
+                    ps.setInt(12, n % 10);
+                    ps.setInt(13, (n * 7) % 101);
+                    ps.setInt(14, departmentIds[n % departmentIds.length]);
+                    ps.setBoolean(15, n % 10 == 0);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            }));
+        }
+    }
+    
+    /**
+     * Defaults overlaid with the caller's properties, as command-line
+     * arguments: builder properties would rank below application.properties
+     * and lose to its datasource URL and port.
+     */
+    private static String[] arguments(String[] overrides, String... defaults) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String property : defaults) {
+            values.put(property.substring(0, property.indexOf('=')), property);
+        }
+        for (String property : overrides) {
+            values.put(property.substring(0, property.indexOf('=')), property);
+        }
+        return values.values().stream().map(property -> "--" + property).toArray(String[]::new);
+    }
+    
+    private static int[] lookupIds(TaskLookupRepository lookups, TransactionTemplate tx, TaskLookupTable table,
+                                   String[] names) {
+        tx.executeWithoutResult(status -> lookups.insertMissing(table, List.of(names)));
+        int[] ids = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ids[i] = lookups.findId(table, names[i]);
+        }
+        return ids;
+    }
+}
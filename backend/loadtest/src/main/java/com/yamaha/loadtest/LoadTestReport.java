@@ -0,0 +1,76 @@
+package com.yamaha.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Plain-text report with one fixed-width row per stage and operation. It has
+ * no timestamps or host-specific paths, so two runs diff line by line.
+ */
+final class LoadTestReport {
+    
+    // A stage counts as sustained if it kept up with the target rate without errors piling up
+    private static final double MIN_ACHIEVED_FRACTION = 0.95;
+    private static final double MAX_ERROR_FRACTION = 0.01;
+    
+    private static final String ROW = "%-8s %-8s %9s %7s %8s %11s %9s %9s %9s %9s %9s%n";
+    
+    private LoadTestReport() {}
+    
+    static String render(List<String> settings, List<StageResult> stages) {
+        StringBuilder out = new StringBuilder();
+        out.append("# Task API load test (open loop, latency from intended send time)\n");
+        for (String setting : settings) {
+            out.append("# ").append(setting).append('\n');
+        }
+        out.append('\n');
+        out.append(String.format(Locale.ROOT, ROW, "rate", "op", "count", "errors", "skipped", "achieved/s",
+                "p50_ms", "p90_ms", "p99_ms", "p999_ms", "max_ms"));
+        
+        Integer maxSustained = null;
+        for (StageResult stage : stages) {
+            for (Operation operation : stage.operations()) {
+                row(out, stage, operation.label(), stage.histogram(operation),
+                        stage.errors(operation), stage.skipped(operation));
+            }
+            Histogram total = stage.total();
+            row(out, stage, "all", total, stage.totalErrors(), stage.totalSkipped());
+            out.append('\n');
+            
+            double achieved = (double) total.getTotalCount() / stage.measuredSeconds();
+            long attempted = total.getTotalCount();
+            boolean sustained = achieved >= stage.targetRate() * MIN_ACHIEVED_FRACTION
+                    && (attempted == 0 || (double) stage.totalErrors() / attempted < MAX_ERROR_FRACTION);
+            if (sustained) {
+                maxSustained = stage.targetRate();
+            }
+        }
+        
+        out.append(String.format(Locale.ROOT, "max sustained rate: %s (achieved >= %.0f%% of target, errors < %.0f%%)%n",
+                maxSustained != null ? maxSustained + "/s" : "none",
+                MIN_ACHIEVED_FRACTION * 100, MAX_ERROR_FRACTION * 100));
+        return out.toString();
+    }
+    
+    private static void row(StringBuilder out, StageResult stage, String label, Histogram histogram,
+                            long errors, long skipped) {
+        out.append(String.format(Locale.ROOT, ROW,
+                stage.targetRate(), label, histogram.getTotalCount(), errors, skipped,
+                String.format(Locale.ROOT, "%.1f", (double) histogram.getTotalCount() / stage.measuredSeconds()),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getTotalCount() == 0 ? "-" : format(histogram.getMaxValue())));
+    }
+    
+    private static String millis(Histogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return "-";
+        }
+        return format(histogram.getValueAtPercentile(percentile));
+    }
+    
+    private static String format(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.yamaha.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Sends requests at a fixed arrival rate regardless of how fast responses
+ * come back (open loop). Request i is due at {@code start + i / rate}.
+ * Latency is measured from that due time, not from the actual send. If the
+ * server stalls, the requests that should have gone out during the stall
+ * are charged the wait instead of silently not being sent. A closed-loop
+ * client hides this (coordinated omission).
+ */
+final class OpenLoopRunner {
+    
+    private static final String[] STATUSES = {"NOT_STARTED", "IN_PROGRESS", "COMPLETED", "HOLD"};
+    
+    private final String baseUrl;
+    private final long minId;
+    private final long maxId;
+    private final OperationMix mix;
+    private final Random random;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration requestTimeout;
+    
+    // Ids created by this run; deletes only remove these so the seeded dataset stays intact
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    
+    OpenLoopRunner(String baseUrl, long minId, long maxId, OperationMix mix, long seed, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.mix = mix;
+        this.random = new Random(seed);
+        this.requestTimeout = requestTimeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+    
+    /**
+     * Runs one stage: {@code warmupSeconds} unrecorded, then
+     * {@code durationSeconds} recorded, then waits for stragglers.
+     */
+    StageResult run(int rate, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        StageResult result = new StageResult(rate, durationSeconds, mix.operations());
+        AtomicLong inFlight = new AtomicLong();
+        
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        double intervalNanos = 1_000_000_000.0 / rate;
+        
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            
+            Operation operation = mix.next(random);
+            boolean measured = intended >= measureFrom;
+            HttpRequest request = buildRequest(operation);
+            if (request == null) {
+                if (measured) {
+                    result.recordSkipped(operation);
+                }
+                continue;
+            }
+            
+            inFlight.incrementAndGet();
+            http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - intended;
+                boolean ok = error == null && response.statusCode() / 100 == 2;
+                if (ok && operation == Operation.CREATE) {
+                    rememberCreated(response.body());
+                }
+                if (measured) {
+                    result.recordLatency(operation, latency);
+                    if (!ok) {
+                        result.recordError(operation);
+                    }
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+        
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return result;
+    }
+    
+    private HttpRequest buildRequest(Operation operation) {
+        switch (operation) {
+            case LIST:
+                return get("?limit=50&status=" + STATUSES[random.nextInt(STATUSES.length)]);
+            case GET:
+                return get("/" + randomSeededId());
+            case SUMMARY:
+                return get("/summary");
+            case CREATE:
+                return send("POST", "", taskJson("Load test task"));
+            case UPDATE:
+                return send("PUT", "/" + randomSeededId(), taskJson("Task updated by load test"));
+            case DELETE:
+                Long id = createdIds.poll();
+                return id == null ? null : send("DELETE", "/" + id, null);
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+    }
+    
+    private HttpRequest send(String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                .build();
+    }
+    
+    private String taskJson(String name) {
+        TaskStatus status = TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+        return "{\"taskName\":\"" + name + "\",\"responsible\":\"Operator Z\","
+                + "\"startDate\":\"2024-06-01\",\"endDate\":\"2024-06-30\","
+                + "\"status\":\"" + status + "\",\"priority\":\"MEDIUM\",\"category\":\"General\","
+                + "\"department\":\"Production\",\"estimatedHours\":8,"
+                + "\"completionPercentage\":" + random.nextInt(101) + ",\"isCritical\":false}";
+    }
+    
+    private long randomSeededId() {
+        return minId + (long) (random.nextDouble() * (maxId - minId + 1));
+    }
+    
+    private void rememberCreated(byte[] body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null) {
+                createdIds.add(id.asLong());
+            }
+        } catch (IOException e) {
+            // Response without a parsable id; nothing to delete later
+        }
+    }
+}
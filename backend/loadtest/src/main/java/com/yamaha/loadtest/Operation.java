@@ -0,0 +1,23 @@
+package com.yamaha.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Request types in the load mix, each mapped to one TaskController endpoint.
+ */
+enum Operation {
+    LIST,
+    GET,
+    CREATE,
+    UPDATE,
+    DELETE,
+    SUMMARY;
+    
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    static Operation parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,76 @@
+package com.yamaha.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of the next operation, parsed from a spec such as
+ * {@code list:40,get:30,create:10,update:10,delete:5,summary:5}.
+ */
+final class OperationMix {
+    
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+    private final int total;
+    
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        this.total = sum;
+    }
+    
+    static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] nameAndWeight = part.split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight, got " + part);
+            }
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + nameAndWeight[0]);
+            }
+            if (weight > 0) {
+                weights.put(Operation.parse(nameAndWeight[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return new OperationMix(weights);
+    }
+    
+    Operation next(Random random) {
+        int roll = random.nextInt(total);
+        for (int i = 0; i < operations.length; i++) {
+            if (roll < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+    
+    Iterable<Operation> operations() {
+        return weights.keySet();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder spec = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (spec.length() > 0) {
+                spec.append(',');
+            }
+            spec.append(operation.label()).append(':').append(weight);
+        });
+        return spec.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.yamaha.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and outcome counts of one fixed-rate stage, per operation.
+ * Latency is measured from each request's intended send time, in microseconds.
+ */
+final class StageResult {
+    
+    // Anything slower than this is clamped; a stage this far behind is already a failure
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    
+    private final int targetRate;
+    private final int measuredSeconds;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    
+    StageResult(int targetRate, int measuredSeconds, Iterable<Operation> operations) {
+        this.targetRate = targetRate;
+        this.measuredSeconds = measuredSeconds;
+        for (Operation operation : operations) {
+            stats.put(operation, new Stats());
+        }
+    }
+    
+    void recordLatency(Operation operation, long latencyNanos) {
+        long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)), HIGHEST_TRACKABLE_MICROS);
+        stats.get(operation).histogram.recordValue(micros);
+    }
+    
+    void recordError(Operation operation) {
+        stats.get(operation).errors.increment();
+    }
+    
+    void recordSkipped(Operation operation) {
+        stats.get(operation).skipped.increment();
+    }
+    
+    int targetRate() {
+        return targetRate;
+    }
+    
+    int measuredSeconds() {
+        return measuredSeconds;
+    }
+    
+    Histogram histogram(Operation operation) {
+        return stats.get(operation).histogram;
+    }
+    
+    long errors(Operation operation) {
+        return stats.get(operation).errors.sum();
+    }
+    
+    long skipped(Operation operation) {
+        return stats.get(operation).skipped.sum();
+    }
+    
+    Iterable<Operation> operations() {
+        return stats.keySet();
+    }
+    
+    /**
+     * All operations merged.
+     */
+    Histogram total() {
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        stats.values().forEach(s -> total.add(s.histogram));
+        return total;
+    }
+    
+    long totalErrors() {
+        return stats.values().stream().mapToLong(s -> s.errors.sum()).sum();
+    }
+    
+    long totalSkipped() {
+        return stats.values().stream().mapToLong(s -> s.skipped.sum()).sum();
+    }
+    
+    private static final class Stats {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+    }
+}
@@ -0,0 +1,200 @@
+package com.yamaha.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup time of the normal and fast-startup builds. Each command is
+ * launched repeatedly, alternating between them, on a free port and a fresh
+ * SQLite file; the time from process start to the first 200 from
+ * {@code GET /api/tasks/summary} is recorded. Only the JDK is needed, so the
+ * commands can point at any build of the backend.
+ *
+ * <pre>
+ * java -cp loadtest.jar com.yamaha.loadtest.StartupBenchmark
+ *      -normal "java -jar ../target/task-management-1.0.0-exec.jar"
+ *      -fast "java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar --spring.profiles.active=fast"
+ *      [-runs 5] [-warmup 1] [-timeout 120] [-report startup-report.txt]
+ * </pre>
+ */
+public final class StartupBenchmark {
+    
+    private static final String PROBE_PATH = "/api/tasks/summary";
+    private static final long POLL_INTERVAL_MS = 10;
+    
+    private StartupBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> commands = new LinkedHashMap<>();
+        int runs = 5;
+        int warmup = 1;
+        int timeout = 120;
+        Path report = Path.of("startup-report.txt");
+        
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "-normal" -> commands.put("normal", value);
+                case "-fast" -> commands.put("fast", value);
+                case "-runs" -> runs = Integer.parseInt(value);
+                case "-warmup" -> warmup = Integer.parseInt(value);
+                case "-timeout" -> timeout = Integer.parseInt(value);
+                case "-report" -> report = Path.of(value);
+                default -> usage("Unknown option " + option);
+            }
+        }
+        if (commands.isEmpty()) {
+            usage("Give at least one of -normal and -fast");
+        }
+        if (runs < 1) {
+            usage("-runs must be at least 1");
+        }
+        
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        commands.keySet().forEach(name -> millis.put(name, new ArrayList<>()));
+        for (int run = -warmup; run < runs; run++) {
+            // Alternate so drift (thermal, page cache) affects both profiles alike
+            for (Map.Entry<String, String> command : commands.entrySet()) {
+                long elapsed = timeToFirstResponse(command.getValue(), Duration.ofSeconds(timeout));
+                String label = run < 0 ? "warmup" : "run " + (run + 1);
+                System.out.println(command.getKey() + " " + label + ": " + elapsed + " ms");
+                if (run >= 0) {
+                    millis.get(command.getKey()).add(elapsed);
+                }
+            }
+        }
+        
+        String text = render(commands, millis, runs);
+        Files.writeString(report, text, StandardCharsets.UTF_8);
+        System.out.print(text);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+    
+    /**
+     * Starts the command on its own port and database and returns the
+     * milliseconds until the probe first answers 200. The process is stopped
+     * afterwards; its output is kept in a log file only if startup fails.
+     */
+    private static long timeToFirstResponse(String command, Duration timeout) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("task-startup-");
+        Path log = dir.resolve("app.log");
+        int port = freePort();
+        
+        List<String> argv = new ArrayList<>(Arrays.asList(command.trim().split("\\s+")));
+        argv.add("--server.port=" + port);
+        argv.add("--spring.datasource.url=jdbc:sqlite:" + dir.resolve("tasks.db"));
+        argv.add("--tasks.store.memory.dir=" + dir.resolve("task-store"));
+        
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PROBE_PATH))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(argv)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited with " + process.exitValue() + " before answering; see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(probe, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        stop(process);
+                        deleteRecursively(dir);
+                        return elapsed;
+                    }
+                } catch (ConnectException | HttpTimeoutException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+            throw new IllegalStateException("No 200 from " + PROBE_PATH + " within " + timeout.toSeconds() + "s; see " + log);
+        } finally {
+            stop(process);
+        }
+    }
+    
+    private static void stop(Process process) throws InterruptedException {
+        if (!process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+    
+    private static String render(Map<String, String> commands, Map<String, List<Long>> millis, int runs) {
+        StringBuilder text = new StringBuilder();
+        text.append("Time to first 200 from GET ").append(PROBE_PATH).append(", ").append(runs).append(" runs each\n");
+        text.append("java=").append(Runtime.version().feature())
+                .append(" cpus=").append(Runtime.getRuntime().availableProcessors()).append('\n');
+        commands.forEach((name, command) -> text.append(name).append(": ").append(command).append('\n'));
+        text.append('\n');
+        text.append(String.format("%-8s %8s %8s %8s %8s%n", "profile", "min ms", "median", "mean", "max ms"));
+        Map<String, Long> medians = new LinkedHashMap<>();
+        millis.forEach((name, samples) -> {
+            List<Long> sorted = new ArrayList<>(samples);
+            sorted.sort(null);
+            long median = sorted.get(sorted.size() / 2);
+            long mean = Math.round(sorted.stream().mapToLong(Long::longValue).average().orElse(0));
+            medians.put(name, median);
+            text.append(String.format("%-8s %8d %8d %8d %8d%n", name, sorted.get(0), median, mean,
+                    sorted.get(sorted.size() - 1)));
+        });
+        if (medians.size() == 2) {
+            text.append(String.format("%nfast median is %.2fx the normal median%n",
+                    (double) medians.get("fast") / medians.get("normal")));
+        }
+        return text.toString();
+    }
+    
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: java -cp loadtest.jar com.yamaha.loadtest.StartupBenchmark "
+                + "[-normal \"command\"] [-fast \"command\"] [-runs n] [-warmup n] [-timeout s] [-report file]");
+        System.exit(2);
+    }
+}
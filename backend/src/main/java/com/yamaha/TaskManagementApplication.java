@@ -1,11 +1,38 @@
 package com.yamaha;
 
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.yamaha.repository.TaskStore;
+import com.yamaha.service.TaskArchiver;
+import com.yamaha.service.TaskDeadlineIndex;
+import com.yamaha.service.TaskEventBroadcaster;
+import com.yamaha.service.TaskQueryStatistics;
+import com.yamaha.service.TaskRollups;
+import com.yamaha.service.TaskSummaryCounters;
+import com.yamaha.service.TaskWriteQueue;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class TaskManagementApplication {
     public static void main(String[] args) {
         SpringApplication.run(TaskManagementApplication.class, args);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Beans that stay eager under spring.main.lazy-initialization (the fast
+     * profile): a lazy bean's @Scheduled methods and timers would not start
+     * until something first asked for it.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerTaskComponents() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TaskWriteQueue.class, TaskSummaryCounters.class,
+                TaskRollups.class, TaskArchiver.class, TaskDeadlineIndex.class, TaskEventBroadcaster.class,
+                TaskQueryStatistics.class, TaskStore.class);
+    }
+}
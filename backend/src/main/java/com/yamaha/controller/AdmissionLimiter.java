@@ -0,0 +1,166 @@
+package com.yamaha.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit with a bounded wait queue for one class of requests.
+ *
+ * The limit adapts to latency, AIMD-style: a request that finishes within
+ * the latency target while the limit is at least half used raises it by
+ * 1/limit (about +1 per limit's worth of requests); a slower one cuts it by
+ * {@link #BACKOFF_RATIO}. Cuts happen at most once per latency target, so a
+ * burst of slow requests from one congested moment counts once. Requests
+ * over the limit wait in FIFO-ish order up to a deadline; beyond the queue
+ * capacity they are turned away at once.
+ */
+final class AdmissionLimiter {
+    
+    enum Outcome { ADMITTED, QUEUE_FULL, TIMED_OUT }
+    
+    static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final long latencyTargetNanos;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long lastDecrease = System.nanoTime();
+    
+    AdmissionLimiter(int initialLimit, int minLimit, int maxLimit, int queueCapacity,
+                     long maxWaitMs, long latencyTargetMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+    }
+    
+    /**
+     * Admits the caller, possibly after waiting. Every {@link Outcome#ADMITTED}
+     * must be paired with a {@link #release}.
+     */
+    Outcome acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            // Newcomers do not overtake requests already queued
+            if (waiting == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return Outcome.ADMITTED;
+            }
+            if (waiting >= queueCapacity) {
+                return Outcome.QUEUE_FULL;
+            }
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return Outcome.TIMED_OUT;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Outcome.ADMITTED;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Ends an admitted request that took {@code latencyNanos} and adjusts the limit.
+     */
+    void release(long latencyNanos) {
+        lock.lock();
+        try {
+            int before = (int) limit;
+            if (latencyNanos > latencyTargetNanos) {
+                decrease();
+            } else if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            inFlight--;
+            if ((int) limit > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Ends an admitted request without adjusting the limit, for one whose
+     * duration says nothing about server latency (a streamed download).
+     */
+    void releaseUnsampled() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Cuts the limit because of congestion observed elsewhere.
+     */
+    void backOff() {
+        lock.lock();
+        try {
+            decrease();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    int waiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Caller holds the lock
+    private void decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecrease < latencyTargetNanos) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+}
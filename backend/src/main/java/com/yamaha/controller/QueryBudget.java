@@ -0,0 +1,19 @@
+package com.yamaha.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most JDBC statements a {@link TaskController} endpoint should issue per
+ * request with the JPA store. {@link TaskQueryProfilingFilter} warns and
+ * counts {@code tasks.request.jdbc.over-budget} when a request exceeds it,
+ * so a change that adds round trips shows up without a profiler attached.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@interface QueryBudget {
+
+    int statements();
+}
@@ -0,0 +1,395 @@
+package com.yamaha.controller;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control in front of {@link TaskController}. Requests are split
+ * into a read class (GET, and the POST facet query) and a write class
+ * (everything else), each with its own adaptive concurrency limit and
+ * bounded wait queue ({@link AdmissionLimiter}), so a bulk writer queues
+ * behind other writes instead of crowding out reads. Writes back off on
+ * their own latency, and also when most reads in a window of
+ * {@code read.slow-window-ms} miss their latency target, since sustained
+ * write contention on SQLite is what slows reads down; one slow read (a
+ * large export, a cold cache) does not.
+ *
+ * The streamed export is a third class with a small fixed limit: it holds
+ * its permit until the download completes, which can take minutes, so it
+ * must not occupy read permits. A request that goes async keeps its permit
+ * until the response completes and contributes no latency sample, since
+ * how long a client takes to download says nothing about the server.
+ *
+ * Each client (remote address, or {@code tasks.admission.client.header} when
+ * set) also has a token bucket per class. A request that is rate limited,
+ * finds the queue full or waits past {@code max-wait-ms} gets 429 with
+ * Retry-After. The SSE stream is not subject to admission.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "tasks.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskAdmissionFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskAdmissionFilter.class);
+    
+    private static final String API_PREFIX = "/api/tasks";
+    private static final String EVENTS_PATH = API_PREFIX + "/events";
+    private static final String FACETS_PATH = API_PREFIX + "/facets";
+    private static final String EXPORT_PATH = API_PREFIX + "/export";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tasks.admission.read.initial-limit:32}")
+    private int readInitialLimit;
+    
+    @Value("${tasks.admission.read.min-limit:4}")
+    private int readMinLimit;
+    
+    @Value("${tasks.admission.read.max-limit:128}")
+    private int readMaxLimit;
+    
+    @Value("${tasks.admission.read.queue-capacity:256}")
+    private int readQueueCapacity;
+    
+    @Value("${tasks.admission.read.max-wait-ms:1000}")
+    private long readMaxWaitMs;
+    
+    @Value("${tasks.admission.read.latency-target-ms:250}")
+    private long readLatencyTargetMs;
+    
+    @Value("${tasks.admission.read.slow-window-ms:1000}")
+    private long slowReadWindowMs;
+    
+    @Value("${tasks.admission.read.slow-ratio:0.5}")
+    private double slowReadRatio;
+    
+    @Value("${tasks.admission.read.slow-min-requests:10}")
+    private int slowReadMinRequests;
+    
+    @Value("${tasks.admission.write.initial-limit:8}")
+    private int writeInitialLimit;
+    
+    @Value("${tasks.admission.write.min-limit:1}")
+    private int writeMinLimit;
+    
+    @Value("${tasks.admission.write.max-limit:32}")
+    private int writeMaxLimit;
+    
+    @Value("${tasks.admission.write.queue-capacity:64}")
+    private int writeQueueCapacity;
+    
+    @Value("${tasks.admission.write.max-wait-ms:2000}")
+    private long writeMaxWaitMs;
+    
+    @Value("${tasks.admission.write.latency-target-ms:500}")
+    private long writeLatencyTargetMs;
+    
+    @Value("${tasks.admission.export.limit:2}")
+    private int exportLimit;
+    
+    @Value("${tasks.admission.export.queue-capacity:4}")
+    private int exportQueueCapacity;
+    
+    @Value("${tasks.admission.export.max-wait-ms:1000}")
+    private long exportMaxWaitMs;
+    
+    @Value("${tasks.admission.client.header:}")
+    private String clientHeader;
+    
+    @Value("${tasks.admission.client.read-rate:0}")
+    private double readRate;
+    
+    @Value("${tasks.admission.client.read-burst:0}")
+    private double readBurst;
+    
+    @Value("${tasks.admission.client.write-rate:20}")
+    private double writeRate;
+    
+    @Value("${tasks.admission.client.write-burst:40}")
+    private double writeBurst;
+    
+    @Value("${tasks.admission.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+    
+    private RequestClass reads;
+    private RequestClass writes;
+    private RequestClass exports;
+    private SlowReads slowReads;
+    
+    @PostConstruct
+    public void init() {
+        reads = new RequestClass("read",
+                new AdmissionLimiter(readInitialLimit, readMinLimit, readMaxLimit, readQueueCapacity,
+                        readMaxWaitMs, readLatencyTargetMs),
+                readRate, readBurst, TimeUnit.MILLISECONDS.toNanos(readLatencyTargetMs));
+        writes = new RequestClass("write",
+                new AdmissionLimiter(writeInitialLimit, writeMinLimit, writeMaxLimit, writeQueueCapacity,
+                        writeMaxWaitMs, writeLatencyTargetMs),
+                writeRate, writeBurst, TimeUnit.MILLISECONDS.toNanos(writeLatencyTargetMs));
+        // Fixed limit (min = max); exports are async, so never sampled anyway
+        exports = new RequestClass("export",
+                new AdmissionLimiter(exportLimit, exportLimit, exportLimit, exportQueueCapacity,
+                        exportMaxWaitMs, readLatencyTargetMs),
+                readRate, readBurst, TimeUnit.MILLISECONDS.toNanos(readLatencyTargetMs));
+        slowReads = new SlowReads(TimeUnit.MILLISECONDS.toNanos(slowReadWindowMs), slowReadRatio, slowReadMinRequests);
+        log.info("Admission control: reads limit {} (queue {}), writes limit {} (queue {}), exports limit {}, "
+                + "per-client write rate {}/s", reads.limiter.limit(), readQueueCapacity, writes.limiter.limit(),
+                writeQueueCapacity, exportLimit, writeRate > 0 ? writeRate : "unlimited");
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(API_PREFIX)
+                || path.equals(EVENTS_PATH)
+                || "OPTIONS".equals(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = isExport(request) ? exports : isRead(request) ? reads : writes;
+        
+        long waitNanos = requestClass.rateLimitWait(clientKey(request));
+        if (waitNanos > 0) {
+            reject(response, requestClass, "rate_limited",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return;
+        }
+        
+        long queuedAt = System.nanoTime();
+        AdmissionLimiter.Outcome outcome;
+        try {
+            outcome = requestClass.limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = AdmissionLimiter.Outcome.TIMED_OUT;
+        }
+        long admittedAt = System.nanoTime();
+        requestClass.wait.record(admittedAt - queuedAt, TimeUnit.NANOSECONDS);
+        if (outcome != AdmissionLimiter.Outcome.ADMITTED) {
+            reject(response, requestClass, outcome == AdmissionLimiter.Outcome.QUEUE_FULL ? "queue_full" : "timeout",
+                    retryAfterSeconds);
+            return;
+        }
+        
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(requestClass));
+            } else {
+                release(requestClass, System.nanoTime() - admittedAt);
+            }
+        }
+    }
+    
+    private void release(RequestClass requestClass, long latency) {
+        requestClass.limiter.release(latency);
+        if (requestClass == reads && slowReads.record(latency > reads.latencyTargetNanos)) {
+            writes.limiter.backOff();
+        }
+    }
+    
+    private static boolean isExport(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && request.getRequestURI().substring(request.getContextPath().length()).equals(EXPORT_PATH);
+    }
+    
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return true;
+        }
+        // A query that happens to take a body
+        return "POST".equals(method)
+                && request.getRequestURI().substring(request.getContextPath().length()).equals(FACETS_PATH);
+    }
+    
+    private String clientKey(HttpServletRequest request) {
+        if (!clientHeader.isEmpty()) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+    
+    private void reject(HttpServletResponse response, RequestClass requestClass, String reason, long retryAfter) {
+        Counter.builder("tasks.admission.rejected")
+                .description("Requests turned away with 429")
+                .tag("class", requestClass.name)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        log.debug("Rejected {} request: {}", requestClass.name, reason);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+    }
+    
+    /**
+     * Returns an async request's permit once, when its response completes,
+     * errors or times out, without a latency sample.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+    
+        private final RequestClass requestClass;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        ReleaseOnCompletion(RequestClass requestClass) {
+            this.requestClass = requestClass;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseOnce();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseOnce();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseOnce();
+        }
+        
+        // A new async cycle drops the listeners; stay registered until the last one ends
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+        
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                requestClass.limiter.releaseUnsampled();
+            }
+        }
+    }
+    
+    /**
+     * Share of reads over their latency target in fixed windows. A window
+     * with at least {@code minRequests} reads of which at least {@code ratio}
+     * were slow reports congestion once, when the next read closes it.
+     */
+    static final class SlowReads {
+    
+        private final long windowNanos;
+        private final double ratio;
+        private final int minRequests;
+        private long windowStart = System.nanoTime();
+        private int requests;
+        private int slow;
+        
+        SlowReads(long windowNanos, double ratio, int minRequests) {
+            this.windowNanos = windowNanos;
+            this.ratio = ratio;
+            this.minRequests = Math.max(1, minRequests);
+        }
+        
+        // True when this read closes a window in which reads were mostly slow
+        synchronized boolean record(boolean wasSlow) {
+            long now = System.nanoTime();
+            boolean congested = false;
+            if (now - windowStart >= windowNanos) {
+                congested = requests >= minRequests && slow >= requests * ratio;
+                windowStart = now;
+                requests = 0;
+                slow = 0;
+            }
+            requests++;
+            if (wasSlow) {
+                slow++;
+            }
+            return congested;
+        }
+    }
+    
+    /**
+     * Limiter, per-client buckets and meters of one request class.
+     */
+    private final class RequestClass {
+    
+        private final String name;
+        private final AdmissionLimiter limiter;
+        private final double rate;
+        private final double burst;
+        private final long latencyTargetNanos;
+        // Idle clients drop out, so the map stays bounded by recent clients
+        private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .maximumSize(100_000)
+                .build();
+        private final Timer wait;
+        
+        RequestClass(String name, AdmissionLimiter limiter, double rate, double burst, long latencyTargetNanos) {
+            this.name = name;
+            this.limiter = limiter;
+            this.rate = rate;
+            // A burst of 0 means twice the per-second rate
+            this.burst = burst > 0 ? burst : rate * 2;
+            this.latencyTargetNanos = latencyTargetNanos;
+            this.wait = Timer.builder("tasks.admission.wait")
+                    .description("Time requests spent queued for admission")
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("tasks.admission.limit", limiter, AdmissionLimiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("tasks.admission.in-flight", limiter, AdmissionLimiter::inFlight)
+                    .description("Admitted requests still running")
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("tasks.admission.queue", limiter, AdmissionLimiter::waiting)
+                    .description("Requests waiting for admission")
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("tasks.admission.clients", buckets, Cache::estimatedSize)
+                    .description("Clients with a token bucket")
+                    .tag("class", name)
+                    .register(meterRegistry);
+        }
+        
+        // 0 when the client may proceed; otherwise nanoseconds until it may
+        long rateLimitWait(String client) {
+            if (rate <= 0) {
+                return 0;
+            }
+            return buckets.get(client, key -> new TokenBucket(rate, burst)).tryTake();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.yamaha.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Writes a {@code List<TaskDTO>} column-wise when the client sends
+ * {@code Accept: application/vnd.yamaha.tasks.columnar+json}:
+ *
+ * <pre>
+ * {"count": 2,
+ *  "enums": {"status": ["NOT_STARTED", ...], "priority": ["LOW", ...]},
+ *  "dictionaries": {"responsible": [...], "department": [...], "category": [...]},
+ *  "columns": {"id": [1, 2], "status": [0, 2], "department": [0, 0], "startDate": [19723, null], ...}}
+ * </pre>
+ *
+ * Status and priority are enum ordinals, responsible/department/category are
+ * indexes into their dictionary, and -1 stands for null in those columns.
+ * Dates are epoch days. Other columns hold plain values or null. The body is
+ * streamed straight from the DTOs through a JsonGenerator without building a
+ * tree or per-row maps.
+ *
+ * Registered with Spring MVC as a bean, ahead of Jackson. It answers only
+ * for the columnar type itself, never for a wildcard or for the null type
+ * Spring passes when collecting what a handler can produce, so a task list
+ * is columnar only when the client asks for the type by name, and JSON for
+ * a wildcard or missing Accept header on every endpoint.
+ */
+@Component
+public class TaskColumnarMessageConverter extends AbstractGenericHttpMessageConverter<List<TaskDTO>> {
+    
+    public static final String COLUMNAR_VALUE = "application/vnd.yamaha.tasks.columnar+json";
+    public static final MediaType COLUMNAR = MediaType.parseMediaType(COLUMNAR_VALUE);
+    
+    private final JsonFactory jsonFactory;
+    
+    public TaskColumnarMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNAR);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+    
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isTaskList(type) && canWrite(mediaType);
+    }
+    
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return mediaType != null && COLUMNAR.equalsTypeAndSubtype(mediaType);
+    }
+    
+    @Override
+    protected void writeInternal(List<TaskDTO> tasks, Type type, HttpOutputMessage outputMessage) throws IOException {
+        writeColumns(tasks, StreamUtils.nonClosing(outputMessage.getBody()));
+    }
+    
+    @Override
+    public List<TaskDTO> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar task lists are write-only", inputMessage);
+    }
+    
+    @Override
+    protected List<TaskDTO> readInternal(Class<? extends List<TaskDTO>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar task lists are write-only", inputMessage);
+    }
+    
+    public void writeColumns(List<TaskDTO> tasks, OutputStream out) throws IOException {
+        int n = tasks.size();
+        Dictionary responsible = new Dictionary(tasks, TaskDTO::getResponsible);
+        Dictionary department = new Dictionary(tasks, TaskDTO::getDepartment);
+        Dictionary category = new Dictionary(tasks, TaskDTO::getCategory);
+        int[] codes = new int[n];
+        
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeNumberField("count", n);
+            
+            json.writeObjectFieldStart("enums");
+            writeNames(json, "status", TaskStatus.values());
+            writeNames(json, "priority", TaskPriority.values());
+            json.writeEndObject();
+            
+            json.writeObjectFieldStart("dictionaries");
+            responsible.writeValues(json, "responsible");
+            department.writeValues(json, "department");
+            category.writeValues(json, "category");
+            json.writeEndObject();
+            
+            json.writeObjectFieldStart("columns");
+            writeLongs(json, "id", tasks, TaskDTO::getId);
+            writeStrings(json, "taskName", tasks, TaskDTO::getTaskName);
+            writeDates(json, "startDate", tasks, TaskDTO::getStartDate);
+            writeDates(json, "endDate", tasks, TaskDTO::getEndDate);
+            responsible.writeCodes(json, "responsible");
+            for (int i = 0; i < n; i++) {
+                TaskStatus status = tasks.get(i).getStatus();
+                codes[i] = status != null ? status.ordinal() : -1;
+            }
+            writeCodes(json, "status", codes, n);
+            writeStrings(json, "remarks", tasks, TaskDTO::getRemarks);
+            for (int i = 0; i < n; i++) {
+                TaskPriority priority = tasks.get(i).getPriority();
+                codes[i] = priority != null ? priority.ordinal() : -1;
+            }
+            writeCodes(json, "priority", codes, n);
+            category.writeCodes(json, "category");
+            writeIntegers(json, "estimatedHours", tasks, TaskDTO::getEstimatedHours);
+            writeIntegers(json, "actualHours", tasks, TaskDTO::getActualHours);
+            writeIntegers(json, "completionPercentage", tasks, TaskDTO::getCompletionPercentage);
+            department.writeCodes(json, "department");
+            json.writeArrayFieldStart("isCritical");
+            for (TaskDTO task : tasks) {
+                if (task.getIsCritical() == null) {
+                    json.writeNull();
+                } else {
+                    json.writeBoolean(task.getIsCritical());
+                }
+            }
+            json.writeEndArray();
+            writeLongs(json, "version", tasks, TaskDTO::getVersion);
+            json.writeArrayFieldStart("overdue");
+            for (TaskDTO task : tasks) {
+                json.writeBoolean(task.isOverdue());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            
+            json.writeEndObject();
+        }
+    }
+    
+    private static boolean isTaskList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == TaskDTO.class;
+    }
+    
+    private static void writeNames(JsonGenerator json, String field, Enum<?>[] values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (Enum<?> value : values) {
+            json.writeString(value.name());
+        }
+        json.writeEndArray();
+    }
+    
+    private static void writeCodes(JsonGenerator json, String field, int[] codes, int n) throws IOException {
+        json.writeFieldName(field);
+        json.writeArray(codes, 0, n);
+    }
+    
+    private static void writeStrings(JsonGenerator json, String field, List<TaskDTO> tasks,
+                                     Function<TaskDTO, String> column) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (TaskDTO task : tasks) {
+            json.writeString(column.apply(task));
+        }
+        json.writeEndArray();
+    }
+    
+    private static void writeIntegers(JsonGenerator json, String field, List<TaskDTO> tasks,
+                                      Function<TaskDTO, Integer> column) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (TaskDTO task : tasks) {
+            Integer value = column.apply(task);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(value.intValue());
+            }
+        }
+        json.writeEndArray();
+    }
+    
+    private static void writeLongs(JsonGenerator json, String field, List<TaskDTO> tasks,
+                                   Function<TaskDTO, Long> column) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (TaskDTO task : tasks) {
+            Long value = column.apply(task);
+            if (value == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(value.longValue());
+            }
+        }
+        json.writeEndArray();
+    }
+    
+    private static void writeDates(JsonGenerator json, String field, List<TaskDTO> tasks,
+                                   Function<TaskDTO, LocalDate> column) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (TaskDTO task : tasks) {
+            LocalDate date = column.apply(task);
+            if (date == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(date.toEpochDay());
+            }
+        }
+        json.writeEndArray();
+    }
+    
+    /**
+     * Distinct values of one string column in first-seen order, plus each
+     * row's index into them.
+     */
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final int[] codes;
+        
+        Dictionary(List<TaskDTO> tasks, Function<TaskDTO, String> column) {
+            Map<String, Integer> index = new HashMap<>();
+            codes = new int[tasks.size()];
+            for (int i = 0; i < codes.length; i++) {
+                String value = column.apply(tasks.get(i));
+                if (value == null) {
+                    codes[i] = -1;
+                    continue;
+                }
+                Integer code = index.get(value);
+                if (code == null) {
+                    code = values.size();
+                    index.put(value, code);
+                    values.add(value);
+                }
+                codes[i] = code;
+            }
+        }
+        
+        void writeValues(JsonGenerator json, String field) throws IOException {
+            json.writeArrayFieldStart(field);
+            for (String value : values) {
+                json.writeString(value);
+            }
+            json.writeEndArray();
+        }
+        
+        void writeCodes(JsonGenerator json, String field) throws IOException {
+            TaskColumnarMessageConverter.writeCodes(json, field, codes, codes.length);
+        }
+    }
+}
@@ -1,115 +1,337 @@
 package com.yamaha.controller;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.yamaha.dto.BulkResultDTO;
+import com.yamaha.dto.FacetQueryDTO;
+import com.yamaha.dto.FacetResultDTO;
+import com.yamaha.dto.TaskChangesDTO;
+import com.yamaha.dto.TaskCursor;
 import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskPageDTO;
+import com.yamaha.dto.TaskRollupDTO;
+import com.yamaha.dto.TaskSearchHitDTO;
 import com.yamaha.dto.TaskSummaryDTO;
-import com.yamaha.entity.TaskPriority;
-import com.yamaha.entity.TaskStatus;
+import com.yamaha.service.TaskBulkService;
+import com.yamaha.service.TaskEventBroadcaster;
+import com.yamaha.service.TaskExportColumn;
+import com.yamaha.service.TaskExportService;
+import com.yamaha.service.TaskFacetIndex;
+import com.yamaha.service.TaskNotFoundException;
+import com.yamaha.service.TaskRollups;
 import com.yamaha.service.TaskService;
 
 @RestController
 @RequestMapping("/api/tasks")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = {TaskController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG,
+        TaskQueryProfilingFilter.PROFILE_HEADER})
 public class TaskController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    
     @Autowired
     private TaskService taskService;
     
-    @GetMapping
-    public List<TaskDTO> getAllTasks() {
-        return taskService.getAllTasks();
+    @Autowired
+    private TaskBulkService taskBulkService;
+    
+    @Autowired
+    private TaskExportService taskExportService;
+    
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+    
+    @Autowired
+    private TaskFacetIndex taskFacetIndex;
+    
+    @Autowired
+    private TaskRollups taskRollups;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Seconds a client is told to wait when the writer queue or the event stream is full
+    @Value("${tasks.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+    
+    // JSON first so it stays the default; see TaskColumnarMessageConverter for the columnar form
+    @QueryBudget(statements = 2)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, TaskColumnarMessageConverter.COLUMNAR_VALUE})
+    public ResponseEntity<List<TaskDTO>> getAllTasks(TaskFilter filter,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) TaskCursor.Sort sort,
+                                                     WebRequest request) {
+        // The same query against the same committed data yields the same page (per representation)
+        String query = request instanceof ServletWebRequest servlet ? servlet.getRequest().getQueryString() : null;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String etag = "\"" + taskService.getChangeToken() + "-" + Integer.toHexString(Objects.hash(query, accept)) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            TaskPageDTO page = taskService.getTasks(filter, cursor, limit, sort);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getTasks());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(TaskFilter filter,
+                                                             @RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false) List<String> fields) {
+        TaskExportService.Format exportFormat;
+        List<TaskExportColumn> columns;
+        try {
+            exportFormat = TaskExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+            columns = TaskExportColumn.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean csv = exportFormat == TaskExportService.Format.CSV;
+        StreamingResponseBody body = out -> taskExportService.export(filter, columns, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + (csv ? "csv" : "ndjson"))
+                .body(body);
     }
     
+    @QueryBudget(statements = 2)
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
         try {
             TaskDTO task = taskService.getTaskById(id);
             return ResponseEntity.ok(task);
-        } catch (RuntimeException e) {
+        } catch (TaskNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @QueryBudget(statements = 6)
     @PostMapping
     public TaskDTO createTask(@RequestBody TaskDTO taskDTO) {
         return taskService.createTask(taskDTO);
     }
     
+    @QueryBudget(statements = 7)
     @PutMapping("/{id}")
     public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO) {
         try {
             TaskDTO updated = taskService.updateTask(id, taskDTO);
             return ResponseEntity.ok(updated);
-        } catch (RuntimeException e) {
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (TaskNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    /**
+     * Updates only the fields present in the body. Include the task's
+     * {@code version} to get 409 Conflict if someone else changed it first.
+     */
+    @QueryBudget(statements = 7)
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable Long id, @RequestBody ObjectNode patch) {
+        try {
+            Set<String> fields = new HashSet<>();
+            patch.fieldNames().forEachRemaining(fields::add);
+            TaskDTO values = objectMapper.treeToValue(patch, TaskDTO.class);
+            return ResponseEntity.ok(taskService.patchTask(id, values, fields));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (TaskNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @QueryBudget(statements = 6)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         try {
             taskService.deleteTask(id);
             return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
+        } catch (TaskNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @QueryBudget(statements = 0)
     @GetMapping("/summary")
-    public TaskSummaryDTO getTaskSummary() {
+    public TaskSummaryDTO getTaskSummary(WebRequest request) {
+        if (request.checkNotModified("\"" + taskService.getChangeToken() + "\"")) {
+            return null;
+        }
         return taskService.getTaskSummary();
     }
     
+    @QueryBudget(statements = 0)
+    @GetMapping("/summary/departments")
+    public List<TaskRollupDTO> getDepartmentRollups(WebRequest request) {
+        if (request.checkNotModified("\"" + taskService.getChangeToken() + "\"")) {
+            return null;
+        }
+        return taskRollups.byDepartment();
+    }
+    
+    @QueryBudget(statements = 0)
+    @GetMapping("/summary/categories")
+    public List<TaskRollupDTO> getCategoryRollups(WebRequest request) {
+        if (request.checkNotModified("\"" + taskService.getChangeToken() + "\"")) {
+            return null;
+        }
+        return taskRollups.byCategory();
+    }
+    
+    @QueryBudget(statements = 1)
+    @GetMapping("/overdue")
+    public List<TaskDTO> getOverdueTasks(@RequestParam(required = false) Integer limit) {
+        return taskService.getOverdueTasks(limit);
+    }
+    
+    @QueryBudget(statements = 1)
+    @GetMapping("/due-soon")
+    public ResponseEntity<List<TaskDTO>> getTasksDueSoon(@RequestParam(defaultValue = "7") int days,
+                                                         @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksDueWithin(days, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        try {
+            return ResponseEntity.ok(taskEventBroadcaster.subscribe());
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
+    }
+    
+    @QueryBudget(statements = 2)
+    @GetMapping("/search")
+    public List<TaskSearchHitDTO> searchTasks(@RequestParam("q") String text,
+                                              @RequestParam(required = false) Integer limit) {
+        return taskService.searchTasks(text, limit);
+    }
+    
+    @QueryBudget(statements = 0)
+    @PostMapping("/facets")
+    public ResponseEntity<FacetResultDTO> queryFacets(@RequestBody(required = false) FacetQueryDTO query,
+                                                      @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskFacetIndex.query(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @QueryBudget(statements = 2)
+    @GetMapping("/changes")
+    public TaskChangesDTO getChanges(@RequestParam(required = false) Long since,
+                                     @RequestParam(required = false) Integer limit) {
+        return taskService.getChanges(since, limit);
+    }
+    
+    // Lookup names new to the database add two statements per table
+    @QueryBudget(statements = 13)
     @PostMapping("/initialize")
     public String initializeData() {
         taskService.initializeSampleData();
         return "Sample data initialized successfully";
     }
     
+    @QueryBudget(statements = 6)
     @PostMapping("/create")
     public ResponseEntity<TaskDTO> createNewTask(@RequestBody TaskDTO taskDTO) {
         try {
-            // Set default values for new tasks
-            if (taskDTO.getStatus() == null) {
-                taskDTO.setStatus(TaskStatus.NOT_STARTED);
-            }
-            if (taskDTO.getPriority() == null) {
-                taskDTO.setPriority(TaskPriority.MEDIUM);
-            }
-            if (taskDTO.getDepartment() == null) {
-                taskDTO.setDepartment("Production");
-            }
-            if (taskDTO.getIsCritical() == null) {
-                taskDTO.setIsCritical(false);
-            }
-            if (taskDTO.getCompletionPercentage() == null) {
-                taskDTO.setCompletionPercentage(0);
-            }
-            if (taskDTO.getCategory() == null) {
-                taskDTO.setCategory("General");
-            }
-            if (taskDTO.getEstimatedHours() == null) {
-                taskDTO.setEstimatedHours(8);
-            }
+            taskService.applyCreateDefaults(taskDTO);
             
             TaskDTO createdTask = taskService.createTask(taskDTO);
             return ResponseEntity.ok(createdTask);
-        } catch (Exception e) {
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // Bulk budgets are per request of up to tasks.bulk.chunk-size items; each further chunk repeats the statements
+    @QueryBudget(statements = 12)
+    @PostMapping("/bulk")
+    public BulkResultDTO createTasks(@RequestBody List<TaskDTO> tasks) {
+        return taskBulkService.createTasks(tasks);
+    }
+    
+    @QueryBudget(statements = 12)
+    @PutMapping("/bulk")
+    public BulkResultDTO updateTasks(@RequestBody List<TaskDTO> tasks) {
+        return taskBulkService.updateTasks(tasks);
+    }
+    
+    @QueryBudget(statements = 4)
+    @PostMapping("/bulk-delete")
+    public BulkResultDTO deleteTasks(@RequestBody List<Long> ids) {
+        return taskBulkService.deleteTasks(ids);
+    }
+    
+    /**
+     * The writer queue stayed full for tasks.writer.enqueue-timeout-ms: the
+     * write was not attempted, so the client may safely retry it.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> writeQueueFull(RejectedExecutionException e) {
+        return serviceUnavailable();
+    }
+    
+    private <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .build();
+    }
+    
 }
\ No newline at end of file
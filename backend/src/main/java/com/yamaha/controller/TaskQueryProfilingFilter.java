@@ -0,0 +1,196 @@
+package com.yamaha.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.yamaha.service.QueryProfile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Per-request query profile for {@link TaskController}: statements, rows
+ * read and JDBC time (see {@link QueryProfile}) are recorded as
+ * {@code tasks.request.jdbc.*} metrics tagged by method and URI pattern,
+ * checked against the endpoint's {@link QueryBudget}, and with
+ * {@code tasks.query-profile.header=true} (the dev profile) returned in an
+ * {@code X-Query-Profile} header. The header is added just before the body
+ * is written, so it covers everything the handler did. Streamed exports are
+ * only profiled up to the point the stream starts; the SSE stream is skipped.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "tasks.query-profile.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskQueryProfilingFilter extends OncePerRequestFilter {
+    
+    static final String PROFILE_HEADER = "X-Query-Profile";
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskQueryProfilingFilter.class);
+    
+    private static final String API_PREFIX = "/api/tasks";
+    private static final String EVENTS_PATH = API_PREFIX + "/events";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tasks.query-profile.header:false}")
+    private boolean header;
+    
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(API_PREFIX) || path.equals(EVENTS_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryProfile profile = new QueryProfile();
+        QueryProfile previous = QueryProfile.attach(profile);
+        ProfiledResponse profiled = new ProfiledResponse(request, response, profile);
+        try {
+            chain.doFilter(request, profiled);
+        } finally {
+            QueryProfile.attach(previous);
+            profiled.writeHeader();
+            record(request, profile);
+        }
+    }
+    
+    private void record(HttpServletRequest request, QueryProfile profile) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        EndpointMeters endpoint = meters.computeIfAbsent(request.getMethod() + " " + uri,
+                key -> new EndpointMeters(request.getMethod(), uri));
+        endpoint.statements.record(profile.getStatements());
+        endpoint.rows.record(profile.getRowsRead());
+        endpoint.jdbcTime.record(profile.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        
+        int budget = budgetOf(request);
+        if (budget >= 0 && profile.getStatements() > budget) {
+            endpoint.overBudget.increment();
+            log.warn("{} {} issued {} SQL statements, over its budget of {}",
+                    request.getMethod(), uri, profile.getStatements(), budget);
+        }
+    }
+    
+    // -1 when the handler declares no budget
+    private static int budgetOf(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                return budget.statements();
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Adds the profile header when the body is first written, while headers
+     * can still be set, or at the end for responses without a body.
+     */
+    private final class ProfiledResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final QueryProfile profile;
+        private boolean written;
+        
+        ProfiledResponse(HttpServletRequest request, HttpServletResponse response, QueryProfile profile) {
+            super(response);
+            this.request = request;
+            this.profile = profile;
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            writeHeader();
+            super.sendError(status, message);
+        }
+        
+        @Override
+        public void sendError(int status) throws IOException {
+            writeHeader();
+            super.sendError(status);
+        }
+        
+        void writeHeader() {
+            if (!header || written || isCommitted()) {
+                return;
+            }
+            written = true;
+            int budget = budgetOf(request);
+            setHeader(PROFILE_HEADER, String.format(Locale.ROOT, "statements=%d; rows=%d; jdbc-ms=%.2f%s",
+                    profile.getStatements(), profile.getRowsRead(), profile.getJdbcNanos() / 1e6,
+                    budget >= 0 ? "; budget=" + budget : ""));
+        }
+    }
+    
+    private final class EndpointMeters {
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+        private final Timer jdbcTime;
+        private final Counter overBudget;
+        
+        EndpointMeters(String method, String uri) {
+            statements = DistributionSummary.builder("tasks.request.jdbc.statements")
+                    .description("SQL statements executed per request")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            rows = DistributionSummary.builder("tasks.request.jdbc.rows")
+                    .description("Result set rows read per request")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            jdbcTime = Timer.builder("tasks.request.jdbc.time")
+                    .description("Time per request spent executing statements and fetching rows")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+            overBudget = Counter.builder("tasks.request.jdbc.over-budget")
+                    .description("Requests that issued more statements than their QueryBudget")
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.yamaha.controller;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled continuously at {@code ratePerSecond} up to
+ * {@code burst} tokens. Starts full.
+ */
+final class TokenBucket {
+    
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+    
+    TokenBucket(double ratePerSecond, double burst) {
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+    
+    /**
+     * Takes one token. Returns 0 on success, otherwise the nanoseconds until
+     * a token will be available.
+     */
+    synchronized long tryTake() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
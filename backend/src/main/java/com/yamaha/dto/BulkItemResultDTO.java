@@ -0,0 +1,38 @@
+package com.yamaha.dto;
+
+public class BulkItemResultDTO {
+    private int index;
+    private Long id;
+    private boolean success;
+    private String error;
+    
+    public BulkItemResultDTO() {}
+    
+    public BulkItemResultDTO(int index, Long id, boolean success, String error) {
+        this.index = index;
+        this.id = id;
+        this.success = success;
+        this.error = error;
+    }
+    
+    public static BulkItemResultDTO ok(int index, Long id) {
+        return new BulkItemResultDTO(index, id, true, null);
+    }
+    
+    public static BulkItemResultDTO failed(int index, Long id, String error) {
+        return new BulkItemResultDTO(index, id, false, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,32 @@
+package com.yamaha.dto;
+
+import java.util.List;
+
+public class BulkResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDTO> results;
+    
+    public BulkResultDTO() {}
+    
+    public BulkResultDTO(List<BulkItemResultDTO> results) {
+        this.results = results;
+        for (BulkItemResultDTO result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+    
+    // Getters and Setters
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+    
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+    
+    public List<BulkItemResultDTO> getResults() { return results; }
+    public void setResults(List<BulkItemResultDTO> results) { this.results = results; }
+}
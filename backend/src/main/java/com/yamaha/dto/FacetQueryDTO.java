@@ -0,0 +1,39 @@
+package com.yamaha.dto;
+
+import java.util.List;
+
+/**
+ * Boolean facet expression. Exactly one of {@code and}, {@code or},
+ * {@code not} or {@code field}/{@code value} is set; an empty query matches
+ * every task. Fields: status, priority, department, category, isCritical.
+ */
+public class FacetQueryDTO {
+    private List<FacetQueryDTO> and;
+    private List<FacetQueryDTO> or;
+    private FacetQueryDTO not;
+    private String field;
+    private String value;
+    
+    public FacetQueryDTO() {}
+    
+    public FacetQueryDTO(String field, String value) {
+        this.field = field;
+        this.value = value;
+    }
+    
+    // Getters and Setters
+    public List<FacetQueryDTO> getAnd() { return and; }
+    public void setAnd(List<FacetQueryDTO> and) { this.and = and; }
+    
+    public List<FacetQueryDTO> getOr() { return or; }
+    public void setOr(List<FacetQueryDTO> or) { this.or = or; }
+    
+    public FacetQueryDTO getNot() { return not; }
+    public void setNot(FacetQueryDTO not) { this.not = not; }
+    
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+    
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+}
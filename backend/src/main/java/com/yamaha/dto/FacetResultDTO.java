@@ -0,0 +1,28 @@
+package com.yamaha.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetResultDTO {
+    private long total;
+    private List<Long> ids;
+    private Map<String, Map<String, Long>> facetCounts;
+    
+    public FacetResultDTO() {}
+    
+    public FacetResultDTO(long total, List<Long> ids, Map<String, Map<String, Long>> facetCounts) {
+        this.total = total;
+        this.ids = ids;
+        this.facetCounts = facetCounts;
+    }
+    
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+    
+    public Map<String, Map<String, Long>> getFacetCounts() { return facetCounts; }
+    public void setFacetCounts(Map<String, Map<String, Long>> facetCounts) { this.facetCounts = facetCounts; }
+}
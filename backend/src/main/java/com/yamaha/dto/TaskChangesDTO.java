@@ -0,0 +1,38 @@
+package com.yamaha.dto;
+
+import java.util.List;
+
+public class TaskChangesDTO {
+    private List<TaskDTO> changed;
+    private List<Long> deleted;
+    // Moved to the archive: gone from the live list, still readable by id
+    private List<Long> archived;
+    private Long token;
+    private boolean hasMore;
+    
+    public TaskChangesDTO() {}
+    
+    public TaskChangesDTO(List<TaskDTO> changed, List<Long> deleted, List<Long> archived, Long token, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.archived = archived;
+        this.token = token;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and Setters
+    public List<TaskDTO> getChanged() { return changed; }
+    public void setChanged(List<TaskDTO> changed) { this.changed = changed; }
+    
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+    
+    public List<Long> getArchived() { return archived; }
+    public void setArchived(List<Long> archived) { this.archived = archived; }
+    
+    public Long getToken() { return token; }
+    public void setToken(Long token) { this.token = token; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
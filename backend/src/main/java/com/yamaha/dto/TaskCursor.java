@@ -0,0 +1,60 @@
+package com.yamaha.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.yamaha.entity.Task;
+
+/**
+ * Opaque keyset cursor for task listing. Encodes the sort order and the
+ * position of the last row returned, so the next page resumes with a
+ * range predicate instead of an OFFSET scan.
+ */
+public class TaskCursor {
+    
+    public enum Sort { ID, UPDATED_AT }
+    
+    private final Sort sort;
+    private final Long lastId;
+    private final LocalDateTime lastUpdatedAt;
+    
+    public TaskCursor(Sort sort, Long lastId, LocalDateTime lastUpdatedAt) {
+        this.sort = sort;
+        this.lastId = lastId;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+    
+    public static TaskCursor after(Sort sort, Task task) {
+        return new TaskCursor(sort, task.getId(), task.getUpdatedAt());
+    }
+    
+    public String encode() {
+        String raw = sort == Sort.ID
+                ? "i:" + lastId
+                : "u:" + (lastUpdatedAt != null ? lastUpdatedAt : "") + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.startsWith("i:")) {
+                return new TaskCursor(Sort.ID, Long.parseLong(raw.substring(2)), null);
+            }
+            if (raw.startsWith("u:")) {
+                int sep = raw.lastIndexOf('|');
+                // Empty for a row without updated_at; such rows sort after every dated one
+                LocalDateTime updatedAt = sep > 2 ? LocalDateTime.parse(raw.substring(2, sep)) : null;
+                return new TaskCursor(Sort.UPDATED_AT, Long.parseLong(raw.substring(sep + 1)), updatedAt);
+            }
+        } catch (RuntimeException e) {
+            // fall through to the uniform error below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+    
+    public Sort getSort() { return sort; }
+    public Long getLastId() { return lastId; }
+    public LocalDateTime getLastUpdatedAt() { return lastUpdatedAt; }
+}
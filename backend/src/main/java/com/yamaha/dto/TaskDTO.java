@@ -22,6 +22,9 @@ public class TaskDTO {
     private Integer completionPercentage;
     private String department;
     private Boolean isCritical;
+    private Long version;
+    // Open and past its end date, as of when this DTO was built; see TaskOverdueEvent
+    private boolean overdue;
     
     public TaskDTO() {}
     
@@ -68,4 +71,10 @@ public class TaskDTO {
     
     public Boolean getIsCritical() { return isCritical; }
     public void setIsCritical(Boolean isCritical) { this.isCritical = isCritical; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public boolean isOverdue() { return overdue; }
+    public void setOverdue(boolean overdue) { this.overdue = overdue; }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.yamaha.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+public class TaskFilter {
+    private TaskStatus status;
+    private TaskPriority priority;
+    private String department;
+    private String category;
+    private Boolean isCritical;
+    
+    // Date range: matches tasks whose start/end window overlaps [from, to]
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    
+    // Also return archived (completed, cold-tier) tasks; listing and export only
+    private Boolean includeArchived;
+    
+    public TaskFilter() {}
+    
+    // Getters and Setters
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status; }
+    
+    public TaskPriority getPriority() { return priority; }
+    public void setPriority(TaskPriority priority) { this.priority = priority; }
+    
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public Boolean getIsCritical() { return isCritical; }
+    public void setIsCritical(Boolean isCritical) { this.isCritical = isCritical; }
+    
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    
+    public Boolean getIncludeArchived() { return includeArchived; }
+    public void setIncludeArchived(Boolean includeArchived) { this.includeArchived = includeArchived; }
+}
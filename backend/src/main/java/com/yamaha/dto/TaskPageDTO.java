@@ -0,0 +1,22 @@
+package com.yamaha.dto;
+
+import java.util.List;
+
+public class TaskPageDTO {
+    private List<TaskDTO> tasks;
+    private String nextCursor;
+    
+    public TaskPageDTO() {}
+    
+    public TaskPageDTO(List<TaskDTO> tasks, String nextCursor) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<TaskDTO> getTasks() { return tasks; }
+    public void setTasks(List<TaskDTO> tasks) { this.tasks = tasks; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,45 @@
+package com.yamaha.dto;
+
+import java.util.Map;
+
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+public class TaskRollupDTO {
+    // Department or category name; null groups tasks without one
+    private String key;
+    private Long totalTasks;
+    private Map<TaskStatus, Long> tasksByStatus;
+    private Map<TaskPriority, Long> tasksByPriority;
+    private Long estimatedHours;
+    private Long actualHours;
+    private Double averageCompletion;
+    private Long criticalTasks;
+    
+    public TaskRollupDTO() {}
+    
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public Long getTotalTasks() { return totalTasks; }
+    public void setTotalTasks(Long totalTasks) { this.totalTasks = totalTasks; }
+    
+    public Map<TaskStatus, Long> getTasksByStatus() { return tasksByStatus; }
+    public void setTasksByStatus(Map<TaskStatus, Long> tasksByStatus) { this.tasksByStatus = tasksByStatus; }
+    
+    public Map<TaskPriority, Long> getTasksByPriority() { return tasksByPriority; }
+    public void setTasksByPriority(Map<TaskPriority, Long> tasksByPriority) { this.tasksByPriority = tasksByPriority; }
+    
+    public Long getEstimatedHours() { return estimatedHours; }
+    public void setEstimatedHours(Long estimatedHours) { this.estimatedHours = estimatedHours; }
+    
+    public Long getActualHours() { return actualHours; }
+    public void setActualHours(Long actualHours) { this.actualHours = actualHours; }
+    
+    public Double getAverageCompletion() { return averageCompletion; }
+    public void setAverageCompletion(Double averageCompletion) { this.averageCompletion = averageCompletion; }
+    
+    public Long getCriticalTasks() { return criticalTasks; }
+    public void setCriticalTasks(Long criticalTasks) { this.criticalTasks = criticalTasks; }
+}
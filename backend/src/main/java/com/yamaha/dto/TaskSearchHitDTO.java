@@ -0,0 +1,29 @@
+package com.yamaha.dto;
+
+public class TaskSearchHitDTO {
+    private TaskDTO task;
+    private double score;
+    
+    // Matched terms wrapped in <mark></mark>; remarks is a snippet around the match
+    private String taskNameHighlight;
+    private String remarksSnippet;
+    private String responsibleHighlight;
+    
+    public TaskSearchHitDTO() {}
+    
+    // Getters and Setters
+    public TaskDTO getTask() { return task; }
+    public void setTask(TaskDTO task) { this.task = task; }
+    
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    
+    public String getTaskNameHighlight() { return taskNameHighlight; }
+    public void setTaskNameHighlight(String taskNameHighlight) { this.taskNameHighlight = taskNameHighlight; }
+    
+    public String getRemarksSnippet() { return remarksSnippet; }
+    public void setRemarksSnippet(String remarksSnippet) { this.remarksSnippet = remarksSnippet; }
+    
+    public String getResponsibleHighlight() { return responsibleHighlight; }
+    public void setResponsibleHighlight(String responsibleHighlight) { this.responsibleHighlight = responsibleHighlight; }
+}
@@ -3,7 +3,12 @@ package com.yamaha.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.yamaha.service.TaskLookupConverter;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -13,9 +18,11 @@ import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "tasks")
+@DynamicUpdate
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,7 +37,9 @@ public class Task {
     @Column(name = "end_date")
     private LocalDate endDate;
     
-    @Column(nullable = false)
+    // Department, category and responsible are stored as lookup table ids
+    @Convert(converter = TaskLookupConverter.Responsible.class)
+    @Column(name = "responsible_id", nullable = false)
     private String responsible;
     
     @Enumerated(EnumType.STRING)
@@ -50,7 +59,8 @@ public class Task {
     @Column(name = "priority")
     private TaskPriority priority;
     
-    @Column(name = "category")
+    @Convert(converter = TaskLookupConverter.Category.class)
+    @Column(name = "category_id")
     private String category;
     
     @Column(name = "estimated_hours")
@@ -62,12 +72,22 @@ public class Task {
     @Column(name = "completion_percentage")
     private Integer completionPercentage;
     
-    @Column(name = "department")
+    @Convert(converter = TaskLookupConverter.Department.class)
+    @Column(name = "department_id")
     private String department;
     
     @Column(name = "is_critical")
     private Boolean isCritical;
     
+    // Global change sequence of the last write, used for delta sync
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
+    // Optimistic lock; clients send it back on PUT/PATCH to detect concurrent edits
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     public Task() {}
     
     public Task(String taskName, String responsible, TaskStatus status, String remarks) {
@@ -156,4 +176,10 @@ public class Task {
     
     public Boolean getIsCritical() { return isCritical; }
     public void setIsCritical(Boolean isCritical) { this.isCritical = isCritical; }
-}
\ No newline at end of file
+    
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
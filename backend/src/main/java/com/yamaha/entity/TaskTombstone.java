@@ -0,0 +1,56 @@
+package com.yamaha.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Record of a deleted or archived task, keyed by the change sequence of the
+ * delete, so delta-sync clients can learn that it left the live table.
+ */
+@Entity
+@Table(name = "task_tombstones")
+public class TaskTombstone {
+    @Id
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
+    // Moved to task_archive rather than deleted
+    @Column(name = "archived", nullable = false)
+    private boolean archived;
+    
+    public TaskTombstone() {}
+    
+    public TaskTombstone(Long changeSeq, Long taskId, LocalDateTime deletedAt) {
+        this(changeSeq, taskId, deletedAt, false);
+    }
+    
+    public TaskTombstone(Long changeSeq, Long taskId, LocalDateTime deletedAt, boolean archived) {
+        this.changeSeq = changeSeq;
+        this.taskId = taskId;
+        this.deletedAt = deletedAt;
+        this.archived = archived;
+    }
+    
+    // Getters and Setters
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+    
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+}
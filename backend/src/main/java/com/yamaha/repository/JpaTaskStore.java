@@ -0,0 +1,229 @@
+package com.yamaha.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskSearchHitDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskBatchRepository.ProgressUpdate;
+import com.yamaha.service.TaskLookups;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The default {@link TaskStore}: tasks and task_archive in SQLite, through
+ * the JPA repository for single rows and JDBC for batches, the progress fast
+ * path, full-text search and the archive tier.
+ */
+@Repository
+@ConditionalOnProperty(name = "tasks.store.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaTaskStore implements TaskStore {
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+    
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+    
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+    
+    @Autowired
+    private TaskRollupRepository rollupRepository;
+    
+    @Autowired
+    private TaskLookups lookups;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private TransactionTemplate readOnly;
+    
+    @PostConstruct
+    public void init() {
+        readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+    }
+    
+    @Override
+    public Optional<Task> findById(Long id) {
+        return reading(() -> taskRepository.findById(id));
+    }
+    
+    @Override
+    public Map<Long, Task> findByIds(Collection<Long> ids) {
+        return reading(() -> taskBatchRepository.findByIds(new ArrayList<>(ids)));
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return taskBatchRepository.exists(id);
+    }
+    
+    @Override
+    public long count() {
+        return taskRepository.count();
+    }
+    
+    @Override
+    public Task insert(Task task) {
+        return taskRepository.save(task);
+    }
+    
+    @Override
+    public Task update(Task task) {
+        // Flush so the returned entity carries the incremented version
+        return taskRepository.saveAndFlush(task);
+    }
+    
+    @Override
+    public void delete(Long id) {
+        taskRepository.deleteById(id);
+    }
+    
+    @Override
+    public List<Long> insertAll(List<Task> tasks) {
+        // The batch writes lookup names in SQL; tell the dictionary about new ones first
+        lookups.internAll(tasks);
+        return taskBatchRepository.insertAll(tasks);
+    }
+    
+    @Override
+    public void updateAll(List<Task> tasks) {
+        lookups.internAll(tasks);
+        taskBatchRepository.updateAll(tasks);
+    }
+    
+    @Override
+    public void deleteAll(List<Long> ids) {
+        taskBatchRepository.deleteAll(ids);
+    }
+    
+    @Override
+    public ProgressUpdate updateProgress(Long id, boolean setStatus, TaskStatus status,
+                                         boolean setCompletion, Integer completionPercentage,
+                                         Long expectedVersion, long changeSeq, LocalDateTime updatedAt) {
+        // JDBC bypasses the persistence context; push pending changes from earlier mutations in the group
+        taskRepository.flush();
+        return taskBatchRepository.updateProgress(id, setStatus, status, setCompletion, completionPercentage,
+                expectedVersion, changeSeq, updatedAt);
+    }
+    
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit) {
+        return reading(() -> {
+            List<Task> tasks = taskRepository.findPage(filter, sort, cursor, limit);
+            if (filter != null && Boolean.TRUE.equals(filter.getIncludeArchived())) {
+                tasks = mergePages(tasks, archiveRepository.findPage(filter, sort, cursor, limit), sort, limit);
+            }
+            return tasks;
+        });
+    }
+    
+    @Override
+    public List<Task> findChanged(long since, long upTo, int limit) {
+        return reading(() -> taskRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(
+                since, upTo, PageRequest.of(0, limit)));
+    }
+    
+    @Override
+    public Stream<Task> streamAll(TaskFilter filter) {
+        Stream<Task> live = taskRepository.streamAll(filter);
+        if (filter == null || !Boolean.TRUE.equals(filter.getIncludeArchived())) {
+            return live;
+        }
+        return Stream.concat(live, archiveRepository.streamAll(filter));
+    }
+    
+    @Override
+    public List<TaskSearchHitDTO> search(String text, int limit) {
+        return taskSearchRepository.search(text, limit);
+    }
+    
+    @Override
+    public Map<TaskStatus, Long> countByStatus() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (Object[] row : taskRepository.countGroupByStatus()) {
+            if (row[0] != null) {
+                counts.put(TaskStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+    
+    @Override
+    public List<TaskRollupCell> aggregateRollups() {
+        return rollupRepository.aggregateFromTasks();
+    }
+    
+    @Override
+    public Long findMaxChangeSeq() {
+        return taskRepository.findMaxChangeSeq();
+    }
+    
+    @Override
+    public Task findArchived(Long id) {
+        return reading(() -> archiveRepository.findById(id));
+    }
+    
+    @Override
+    public void deleteArchived(Long id) {
+        archiveRepository.delete(id);
+    }
+    
+    /**
+     * Runs a read that converts lookup ids to names inside a read-only
+     * transaction, or the caller's. A name missing from the lookup dictionary
+     * is then fetched over the connection the rows are being read from; outside a transaction it would need a second
+     * pooled connection, and a burst of such reads can hold every connection
+     * while each waits for another.
+     */
+    private <T> T reading(Supplier<T> read) {
+        return readOnly.execute(status -> read.get());
+    }
+    
+    /**
+     * Merges a live and an archived page, both in {@code sort} order, and keeps
+     * the first {@code limit} rows. Ids are unique across the two tiers.
+     */
+    private static List<Task> mergePages(List<Task> live, List<Task> archived, TaskCursor.Sort sort, int limit) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<Task> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        merged.addAll(archived);
+        merged.sort(pageOrder(sort));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+    
+    /**
+     * Listing order for {@code sort}: id ascending, or newest update first.
+     */
+    static Comparator<Task> pageOrder(TaskCursor.Sort sort) {
+        return sort == TaskCursor.Sort.UPDATED_AT
+                ? Comparator.comparing(Task::getUpdatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                        .thenComparing(Task::getId).reversed()
+                : Comparator.comparing(Task::getId);
+    }
+}
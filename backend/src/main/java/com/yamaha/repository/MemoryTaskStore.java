@@ -0,0 +1,857 @@
+package com.yamaha.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskSearchHitDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskBatchRepository.ProgressUpdate;
+import com.yamaha.service.TaskNotFoundException;
+import com.yamaha.service.TaskWriteQueue;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link TaskStore} that keeps every task in memory, in a primitive-keyed
+ * {@link TaskIdMap}, made durable by a {@link TaskJournal}.
+ *
+ * Writes are staged per transaction and visible only to the writer thread
+ * until commit. Just before the transaction commits, its writes are appended
+ * to the journal as one record and forced to disk; since the writer queue
+ * commits a group of mutations in one transaction, that is one fsync per
+ * group. After commit they are applied to the map. A snapshot is taken every
+ * {@code tasks.store.memory.snapshot-interval-ms} and on shutdown; startup
+ * loads the latest snapshot and replays the journal after it.
+ *
+ * Listing, export, search and the summaries scan the map, so this store
+ * suits task counts that fit comfortably in the heap. There is no archive
+ * tier and full-text search is a prefix scan rather than FTS5 with BM25.
+ *
+ * Only the tasks themselves live here. Rollup cells and delete tombstones
+ * stay in SQLite and are written in the same writer transaction, so a write
+ * that touches them pays a SQLite commit next to the journal force (see
+ * TaskStoreBenchmark's create against insertStoreOnly). Lookup tables are
+ * not used. A store opened on an empty directory imports the rows of the
+ * SQLite tasks table first, so switching an existing database over keeps
+ * its tasks.
+ */
+@Repository
+@ConditionalOnProperty(name = "tasks.store.type", havingValue = "memory")
+public class MemoryTaskStore implements TaskStore {
+    
+    private static final Logger log = LoggerFactory.getLogger(MemoryTaskStore.class);
+    
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    
+    // Field weights for search scores, in the same ratio as the FTS5 bm25 weights
+    private static final double TASK_NAME_WEIGHT = 10.0;
+    private static final double RESPONSIBLE_WEIGHT = 5.0;
+    private static final double REMARKS_WEIGHT = 1.0;
+    private static final int SNIPPET_WORDS = 12;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${tasks.store.memory.dir:data/task-store}")
+    private String dir;
+    
+    @Value("${tasks.store.memory.journal-size-mb:64}")
+    private int journalSizeMb;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskIdMap tasks = new TaskIdMap();
+    // change_seq -> task id, for delta sync in sequence order
+    private final NavigableMap<Long, Long> idsByChangeSeq = new TreeMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+    // Held from a transaction's journal append until its writes are in the map,
+    // so a snapshot never sees a journaled but unapplied transaction
+    private final ReentrantLock commitLock = new ReentrantLock();
+    
+    private TaskJournal journal;
+    private Timer journalSync;
+    
+    @PostConstruct
+    public void open() {
+        journal = new TaskJournal(Paths.get(dir), journalSizeMb * 1024 * 1024);
+        long start = System.nanoTime();
+        boolean fresh;
+        lock.writeLock().lock();
+        try {
+            fresh = !journal.exists();
+            long snapshotLastId = journal.recover(new TaskJournal.Replay() {
+                @Override
+                public void put(Task task) {
+                    apply(task.getId(), task);
+                }
+                
+                @Override
+                public void delete(long id) {
+                    apply(id, null);
+                }
+            });
+            lastId.accumulateAndGet(snapshotLastId, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover task store from " + dir, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fresh) {
+            importFromDatabase();
+        }
+        log.info("Memory task store recovered {} tasks from {} in {} ms", tasks.size(), dir,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        Gauge.builder("tasks.store.memory.tasks", this, store -> store.size())
+                .description("Tasks held by the memory task store")
+                .register(meterRegistry);
+        Gauge.builder("tasks.store.memory.journal.bytes", this, store -> store.journalBytes())
+                .description("Bytes in the current journal generation")
+                .register(meterRegistry);
+        journalSync = Timer.builder("tasks.store.memory.journal.sync")
+                .description("Journal append and force per committed transaction")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        // A final snapshot makes the next startup a load without replay
+        snapshot();
+        commitLock.lock();
+        try {
+            journal.close();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+    
+    /**
+     * Copies the SQLite tasks into a new store and writes them straight to a
+     * snapshot. The SQLite rows are left as they are.
+     */
+    private void importFromDatabase() {
+        List<Task> imported = new ArrayList<>();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Task> rows = taskRepository.streamAll(null)) {
+                rows.forEach(task -> imported.add(TaskCodec.copy(task)));
+            }
+        });
+        if (imported.isEmpty()) {
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            imported.forEach(task -> apply(task.getId(), task));
+            journal.writeSnapshot(journal.rotate(), lastId.get(), imported);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write imported tasks to " + dir, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Imported {} tasks from the database into the memory task store", imported.size());
+        Long archived = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_archive", Long.class);
+        if (archived != null && archived > 0) {
+            log.warn("{} archived tasks were not imported; the memory task store has no archive tier", archived);
+        }
+    }
+    
+    /**
+     * Writes all committed tasks to a new snapshot and drops the journals it
+     * covers. Only the copy of the map and the journal rotation block writers.
+     */
+    @Scheduled(initialDelayString = "${tasks.store.memory.snapshot-interval-ms:300000}",
+               fixedDelayString = "${tasks.store.memory.snapshot-interval-ms:300000}")
+    public synchronized void snapshot() {
+        long start = System.nanoTime();
+        List<Task> committed;
+        long generation;
+        long snapshotLastId;
+        commitLock.lock();
+        try {
+            lock.readLock().lock();
+            try {
+                committed = new ArrayList<>(tasks.size());
+                // Stored tasks are never mutated, so sharing them with the writer is safe
+                tasks.forEach(committed::add);
+            } finally {
+                lock.readLock().unlock();
+            }
+            generation = journal.rotate();
+            snapshotLastId = lastId.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate task journal", e);
+        } finally {
+            commitLock.unlock();
+        }
+        
+        try {
+            journal.writeSnapshot(generation, snapshotLastId, committed);
+        } catch (IOException e) {
+            // The journals are kept, so nothing is lost; the next snapshot retries
+            log.warn("Task snapshot failed: {}", e.getMessage());
+            return;
+        }
+        log.info("Task snapshot of {} tasks written in {} ms", committed.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+    
+    @Override
+    public Optional<Task> findById(Long id) {
+        Task task = current(id);
+        return task != null ? Optional.of(TaskCodec.copy(task)) : Optional.empty();
+    }
+    
+    @Override
+    public Map<Long, Task> findByIds(Collection<Long> ids) {
+        Map<Long, Task> found = new HashMap<>();
+        for (Long id : ids) {
+            Task task = current(id);
+            if (task != null) {
+                found.put(id, TaskCodec.copy(task));
+            }
+        }
+        return found;
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return current(id) != null;
+    }
+    
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            long count = tasks.size();
+            PendingWrites pending = pending();
+            if (pending != null) {
+                for (Map.Entry<Long, Task> write : pending.writes.entrySet()) {
+                    boolean stored = tasks.get(write.getKey()) != null;
+                    if (write.getValue() != null && !stored) {
+                        count++;
+                    } else if (write.getValue() == null && stored) {
+                        count--;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Task insert(Task task) {
+        Task stored = TaskCodec.copy(task);
+        LocalDateTime now = LocalDateTime.now();
+        stored.setId(lastId.incrementAndGet());
+        stored.setCreatedAt(now);
+        stored.setUpdatedAt(now);
+        stored.setVersion(0L);
+        applyDefaults(stored);
+        stage(stored.getId(), stored);
+        return TaskCodec.copy(stored);
+    }
+    
+    @Override
+    public Task update(Task task) {
+        Task existing = current(task.getId());
+        if (existing == null) {
+            throw new TaskNotFoundException(task.getId());
+        }
+        Task stored = TaskCodec.copy(task);
+        stored.setCreatedAt(existing.getCreatedAt());
+        stored.setUpdatedAt(LocalDateTime.now());
+        stored.setVersion(existing.getVersion() + 1);
+        stage(stored.getId(), stored);
+        return TaskCodec.copy(stored);
+    }
+    
+    @Override
+    public void delete(Long id) {
+        if (current(id) != null) {
+            stage(id, null);
+        }
+    }
+    
+    @Override
+    public List<Long> insertAll(List<Task> newTasks) {
+        List<Long> ids = new ArrayList<>(newTasks.size());
+        for (Task task : newTasks) {
+            Task stored = TaskCodec.copy(task);
+            stored.setId(lastId.incrementAndGet());
+            stored.setVersion(0L);
+            stage(stored.getId(), stored);
+            ids.add(stored.getId());
+        }
+        return ids;
+    }
+    
+    @Override
+    public void updateAll(List<Task> updates) {
+        for (Task task : updates) {
+            Task existing = current(task.getId());
+            if (existing == null) {
+                continue;
+            }
+            Task stored = TaskCodec.copy(task);
+            if (stored.getStatus() == null) {
+                stored.setStatus(existing.getStatus());
+            }
+            stored.setCreatedAt(existing.getCreatedAt());
+            stored.setVersion(existing.getVersion() + 1);
+            stage(stored.getId(), stored);
+        }
+    }
+    
+    @Override
+    public void deleteAll(List<Long> ids) {
+        ids.forEach(this::delete);
+    }
+    
+    @Override
+    public ProgressUpdate updateProgress(Long id, boolean setStatus, TaskStatus status,
+                                         boolean setCompletion, Integer completionPercentage,
+                                         Long expectedVersion, long changeSeq, LocalDateTime updatedAt) {
+        Task existing = current(id);
+        if (existing == null || (expectedVersion != null && !expectedVersion.equals(existing.getVersion()))) {
+            return null;
+        }
+        Task stored = TaskCodec.copy(existing);
+        if (setStatus) {
+            stored.setStatus(status);
+        }
+        if (setCompletion) {
+            stored.setCompletionPercentage(completionPercentage);
+        }
+        stored.setChangeSeq(changeSeq);
+        stored.setUpdatedAt(updatedAt);
+        stored.setVersion(existing.getVersion() + 1);
+        stage(id, stored);
+        return new ProgressUpdate(TaskCodec.copy(stored), TaskCodec.copy(existing));
+    }
+    
+    /**
+     * Scans every task, keeping the best {@code limit} in a bounded heap.
+     */
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit) {
+        Comparator<Task> order = JpaTaskStore.pageOrder(sort);
+        Task after = null;
+        if (cursor != null) {
+            after = new Task();
+            after.setId(cursor.getLastId());
+            after.setUpdatedAt(cursor.getLastUpdatedAt());
+        }
+        Task position = after;
+        PriorityQueue<Task> page = new PriorityQueue<>(limit + 1, order.reversed());
+        lock.readLock().lock();
+        try {
+            tasks.forEach(task -> {
+                if (matches(filter, task) && (position == null || order.compare(task, position) > 0)) {
+                    page.add(task);
+                    if (page.size() > limit) {
+                        page.poll();
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return page.stream().sorted(order).map(TaskCodec::copy).collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Task> findChanged(long since, long upTo, int limit) {
+        List<Task> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : idsByChangeSeq.subMap(since, false, upTo, true).values()) {
+                if (changed.size() >= limit) {
+                    break;
+                }
+                changed.add(TaskCodec.copy(tasks.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return changed;
+    }
+    
+    @Override
+    public Stream<Task> streamAll(TaskFilter filter) {
+        List<Task> matching = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            tasks.forEach(task -> {
+                if (matches(filter, task)) {
+                    matching.add(task);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matching.sort(Comparator.comparing(Task::getId));
+        return matching.stream().map(TaskCodec::copy);
+    }
+    
+    /**
+     * Every word of {@code text} must be a prefix of a word in the task name,
+     * responsible or remarks. Scores weight name and responsible matches
+     * above remarks, like the FTS5 ranking, but without BM25's term rarity.
+     */
+    @Override
+    public List<TaskSearchHitDTO> search(String text, int limit) {
+        List<String> terms = searchTerms(text);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Task, Double> scores = new HashMap<>();
+        PriorityQueue<Task> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(scores::get));
+        lock.readLock().lock();
+        try {
+            tasks.forEach(task -> {
+                double score = score(task, terms);
+                if (score > 0) {
+                    scores.put(task, score);
+                    best.add(task);
+                    if (best.size() > limit) {
+                        scores.remove(best.poll());
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<Task> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(scores::get).reversed());
+        List<TaskSearchHitDTO> hits = new ArrayList<>(ranked.size());
+        for (Task task : ranked) {
+            TaskDTO id = new TaskDTO();
+            id.setId(task.getId());
+            TaskSearchHitDTO hit = new TaskSearchHitDTO();
+            hit.setTask(id);
+            hit.setScore(scores.get(task));
+            hit.setTaskNameHighlight(highlight(task.getTaskName(), terms, Integer.MAX_VALUE));
+            hit.setRemarksSnippet(highlight(task.getRemarks(), terms, SNIPPET_WORDS));
+            hit.setResponsibleHighlight(highlight(task.getResponsible(), terms, Integer.MAX_VALUE));
+            hits.add(hit);
+        }
+        return hits;
+    }
+    
+    @Override
+    public Map<TaskStatus, Long> countByStatus() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        lock.readLock().lock();
+        try {
+            tasks.forEach(task -> {
+                if (task.getStatus() != null) {
+                    counts.merge(task.getStatus(), 1L, Long::sum);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+    
+    @Override
+    public List<TaskRollupCell> aggregateRollups() {
+        Map<String, TaskRollupCell> cells = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            tasks.forEach(task -> {
+                TaskRollupCell cell = TaskRollupCell.of(task);
+                cells.merge(cell.key(), cell, (a, b) -> a.plus(b, 1));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(cells.values());
+    }
+    
+    @Override
+    public Long findMaxChangeSeq() {
+        lock.readLock().lock();
+        try {
+            return idsByChangeSeq.isEmpty() ? null : idsByChangeSeq.lastKey();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public Task findArchived(Long id) {
+        return null;
+    }
+    
+    @Override
+    public void deleteArchived(Long id) {
+        // No archive tier
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private long journalBytes() {
+        commitLock.lock();
+        try {
+            return journal.size();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+    
+    // The writer thread sees its own uncommitted writes; everyone else sees committed state
+    private Task current(long id) {
+        PendingWrites pending = pending();
+        if (pending != null && pending.writes.containsKey(id)) {
+            return pending.writes.get(id);
+        }
+        lock.readLock().lock();
+        try {
+            return tasks.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private PendingWrites pending() {
+        return (PendingWrites) TransactionSynchronizationManager.getResource(this);
+    }
+    
+    private void stage(long id, Task task) {
+        PendingWrites pending = pending();
+        if (pending == null) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                throw new IllegalStateException("Task writes must run inside a transaction");
+            }
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.put(id, task);
+    }
+    
+    // Caller holds the write lock
+    private void apply(long id, Task task) {
+        Task previous = task != null ? tasks.put(id, task) : tasks.remove(id);
+        if (previous != null && previous.getChangeSeq() != null) {
+            idsByChangeSeq.remove(previous.getChangeSeq());
+        }
+        if (task != null && task.getChangeSeq() != null) {
+            idsByChangeSeq.put(task.getChangeSeq(), id);
+        }
+        lastId.accumulateAndGet(id, Math::max);
+    }
+    
+    private static byte[] encode(Map<Long, Task> writes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * writes.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(writes.size());
+            for (Map.Entry<Long, Task> write : writes.entrySet()) {
+                if (write.getValue() != null) {
+                    out.writeByte(TaskJournal.PUT);
+                    TaskCodec.write(out, write.getValue());
+                } else {
+                    out.writeByte(TaskJournal.DELETE);
+                    out.writeLong(write.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    // Same defaults as Task's @PrePersist callback
+    private static void applyDefaults(Task task) {
+        if (task.getPriority() == null) {
+            task.setPriority(TaskPriority.MEDIUM);
+        }
+        if (task.getCategory() == null) {
+            task.setCategory("General");
+        }
+        if (task.getEstimatedHours() == null) {
+            task.setEstimatedHours(8);
+        }
+        if (task.getCompletionPercentage() == null) {
+            task.setCompletionPercentage(0);
+        }
+        if (task.getDepartment() == null) {
+            task.setDepartment("Production");
+        }
+        if (task.getIsCritical() == null) {
+            task.setIsCritical(false);
+        }
+    }
+    
+    // Mirrors TaskRepositoryImpl.filterPredicates
+    private static boolean matches(TaskFilter filter, Task task) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getStatus() != null && filter.getStatus() != task.getStatus()) {
+            return false;
+        }
+        if (filter.getPriority() != null && filter.getPriority() != task.getPriority()) {
+            return false;
+        }
+        if (filter.getDepartment() != null && !filter.getDepartment().equals(task.getDepartment())) {
+            return false;
+        }
+        if (filter.getCategory() != null && !filter.getCategory().equals(task.getCategory())) {
+            return false;
+        }
+        if (filter.getIsCritical() != null && !filter.getIsCritical().equals(task.getIsCritical())) {
+            return false;
+        }
+        if (filter.getFrom() != null && (task.getEndDate() == null || task.getEndDate().isBefore(filter.getFrom()))) {
+            return false;
+        }
+        if (filter.getTo() != null && (task.getStartDate() == null || task.getStartDate().isAfter(filter.getTo()))) {
+            return false;
+        }
+        return true;
+    }
+    
+    private static List<String> searchTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        Matcher word = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (word.find()) {
+            terms.add(word.group());
+        }
+        return terms;
+    }
+    
+    // 0 unless every term prefixes some word; otherwise weighted count of matching words
+    private static double score(Task task, List<String> terms) {
+        double score = 0;
+        for (String term : terms) {
+            double termScore = TASK_NAME_WEIGHT * prefixMatches(task.getTaskName(), term)
+                    + RESPONSIBLE_WEIGHT * prefixMatches(task.getResponsible(), term)
+                    + REMARKS_WEIGHT * prefixMatches(task.getRemarks(), term);
+            if (termScore == 0) {
+                return 0;
+            }
+            score += termScore;
+        }
+        return score;
+    }
+    
+    private static int prefixMatches(String field, String term) {
+        if (field == null) {
+            return 0;
+        }
+        int count = 0;
+        Matcher word = WORD.matcher(field);
+        while (word.find()) {
+            if (word.group().toLowerCase(Locale.ROOT).startsWith(term)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Wraps matching words in mark tags. With a word limit, returns a window
+     * of that many words starting near the first match, with "..." where text was cut.
+     */
+    private static String highlight(String field, List<String> terms, int maxWords) {
+        if (field == null) {
+            return null;
+        }
+        List<int[]> words = new ArrayList<>();
+        int firstMatch = -1;
+        Matcher word = WORD.matcher(field);
+        while (word.find()) {
+            String lower = word.group().toLowerCase(Locale.ROOT);
+            boolean match = terms.stream().anyMatch(lower::startsWith);
+            if (match && firstMatch < 0) {
+                firstMatch = words.size();
+            }
+            words.add(new int[] {word.start(), word.end(), match ? 1 : 0});
+        }
+        if (words.isEmpty()) {
+            return field;
+        }
+        int from = 0;
+        int to = words.size();
+        if (words.size() > maxWords) {
+            from = Math.max(0, Math.min(Math.max(firstMatch, 0) - 2, words.size() - maxWords));
+            to = from + maxWords;
+        }
+        
+        StringBuilder result = new StringBuilder();
+        int textStart = from == 0 ? 0 : words.get(from)[0];
+        int textEnd = to == words.size() ? field.length() : words.get(to - 1)[1];
+        if (from > 0) {
+            result.append("...");
+        }
+        int cursor = textStart;
+        for (int i = from; i < to; i++) {
+            int[] span = words.get(i);
+            if (span[2] == 1) {
+                result.append(field, cursor, span[0]).append("<mark>").append(field, span[0], span[1]).append("</mark>");
+                cursor = span[1];
+            }
+        }
+        result.append(field, cursor, textEnd);
+        if (to < words.size()) {
+            result.append("...");
+        }
+        return result.toString();
+    }
+    
+    /**
+     * One transaction's writes by id; a null task is a delete.
+     */
+    private final class PendingWrites implements TaskWriteQueue.StagedWrites {
+    
+        private final Map<Long, Task> writes = new LinkedHashMap<>();
+        private int journalOffset = -1;
+        private boolean locked;
+        // Since the savepoint: what the ids written held before, and ids first written
+        private Map<Long, Task> replaced;
+        private Set<Long> added;
+        
+        void put(long id, Task task) {
+            if (replaced != null && !replaced.containsKey(id) && !added.contains(id)) {
+                if (writes.containsKey(id)) {
+                    replaced.put(id, writes.get(id));
+                } else {
+                    added.add(id);
+                }
+            }
+            writes.put(id, task);
+        }
+        
+        @Override
+        public void savepoint() {
+            replaced = new HashMap<>();
+            added = new HashSet<>();
+        }
+        
+        @Override
+        public void rollbackToSavepoint() {
+            added.forEach(writes::remove);
+            writes.putAll(replaced);
+            savepoint();
+        }
+        
+        // Before AfterCommit actions, so listeners reading the store see the write
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            commitLock.lock();
+            locked = true;
+            byte[] record = encode(writes);
+            long start = System.nanoTime();
+            try {
+                journalOffset = journal.append(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write task journal", e);
+            }
+            journalSync.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        @Override
+        public void afterCommit() {
+            lock.writeLock().lock();
+            try {
+                writes.forEach(MemoryTaskStore.this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemoryTaskStore.this);
+            try {
+                if (status != STATUS_COMMITTED && journalOffset >= 0) {
+                    journal.rewind(journalOffset);
+                }
+            } finally {
+                if (locked) {
+                    commitLock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.yamaha.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * JDBC access to task_archive (see V8__task_archive.sql), the cold tier old
+ * COMPLETED tasks are moved into. Reads take the same filters and keyset
+ * cursors as the live listing in TaskRepositoryImpl and map rows like
+ * TaskBatchRepository. Writes must run inside a transaction.
+ */
+@Repository
+public class TaskArchiveRepository {
+    
+    private static final String ARCHIVE_COLUMNS = TaskBatchRepository.taskColumns("task_archive");
+    
+    // Columns shared by tasks and task_archive
+    private static final String COPIED_COLUMNS = "id, actual_hours, category_id, completion_percentage, created_at, "
+            + "department_id, end_date, estimated_hours, is_critical, priority, remarks, responsible_id, start_date, "
+            + "status, task_name, updated_at, change_seq, version";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Ids of COMPLETED tasks last updated before {@code cutoff}, lowest first.
+     */
+    public List<Long> findArchivable(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM tasks WHERE status = ? AND updated_at < ? ORDER BY id LIMIT ?",
+                Long.class, TaskStatus.COMPLETED.name(), TaskBatchRepository.toTimestamp(cutoff), limit);
+    }
+    
+    /**
+     * Copies the rows into the archive and removes them from tasks; returns
+     * the number of rows moved.
+     */
+    public int moveToArchive(List<Long> ids, LocalDateTime archivedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(TaskBatchRepository.toTimestamp(archivedAt));
+        args.addAll(ids);
+        int moved = jdbcTemplate.update("INSERT INTO task_archive (" + COPIED_COLUMNS + ", archived_at) "
+                + "SELECT " + COPIED_COLUMNS + ", ? FROM tasks WHERE id IN (" + placeholders + ")", args.toArray());
+        jdbcTemplate.update("DELETE FROM tasks WHERE id IN (" + placeholders + ")", ids.toArray());
+        return moved;
+    }
+    
+    public Task findById(Long id) {
+        List<Task> tasks = jdbcTemplate.query("SELECT " + ARCHIVE_COLUMNS + " FROM task_archive WHERE id = ?",
+                (rs, rowNum) -> TaskBatchRepository.mapTask(rs), id);
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+    
+    public boolean delete(Long id) {
+        return jdbcTemplate.update("DELETE FROM task_archive WHERE id = ?", id) > 0;
+    }
+    
+    /**
+     * One page in the given keyset order; same semantics as TaskRepositoryImpl.findPage.
+     */
+    public List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(ARCHIVE_COLUMNS).append(" FROM task_archive WHERE 1 = 1");
+        appendFilter(sql, args, filter);
+        if (sort == TaskCursor.Sort.UPDATED_AT) {
+            if (cursor != null && cursor.getLastUpdatedAt() == null) {
+                sql.append(" AND updated_at IS NULL AND id < ?");
+                args.add(cursor.getLastId());
+            } else if (cursor != null) {
+                sql.append(" AND (updated_at < ? OR (updated_at = ? AND id < ?))");
+                args.add(TaskBatchRepository.toTimestamp(cursor.getLastUpdatedAt()));
+                args.add(TaskBatchRepository.toTimestamp(cursor.getLastUpdatedAt()));
+                args.add(cursor.getLastId());
+            }
+            sql.append(" ORDER BY updated_at DESC, id DESC");
+        } else {
+            if (cursor != null) {
+                sql.append(" AND id > ?");
+                args.add(cursor.getLastId());
+            }
+            sql.append(" ORDER BY id");
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> TaskBatchRepository.mapTask(rs), args.toArray());
+    }
+    
+    /**
+     * All matching archived tasks by id; the stream holds an open cursor and must be closed.
+     */
+    public Stream<Task> streamAll(TaskFilter filter) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(ARCHIVE_COLUMNS).append(" FROM task_archive WHERE 1 = 1");
+        appendFilter(sql, args, filter);
+        sql.append(" ORDER BY id");
+        return jdbcTemplate.queryForStream(sql.toString(), (rs, rowNum) -> TaskBatchRepository.mapTask(rs), args.toArray());
+    }
+    
+    // Mirrors TaskRepositoryImpl.filterPredicates
+    private static void appendFilter(StringBuilder sql, List<Object> args, TaskFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.getStatus().name());
+        }
+        if (filter.getPriority() != null) {
+            sql.append(" AND priority = ?");
+            args.add(filter.getPriority().name());
+        }
+        if (filter.getDepartment() != null) {
+            sql.append(" AND department_id = ").append(TaskLookupTable.DEPARTMENT.idByName());
+            args.add(filter.getDepartment());
+        }
+        if (filter.getCategory() != null) {
+            sql.append(" AND category_id = ").append(TaskLookupTable.CATEGORY.idByName());
+            args.add(filter.getCategory());
+        }
+        if (filter.getIsCritical() != null) {
+            sql.append(" AND is_critical = ?");
+            args.add(filter.getIsCritical());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND end_date >= ?");
+            args.add(TaskBatchRepository.toDate(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND start_date <= ?");
+            args.add(TaskBatchRepository.toDate(filter.getTo()));
+        }
+    }
+}
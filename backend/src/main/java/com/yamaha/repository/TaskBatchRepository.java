@@ -0,0 +1,337 @@
+package com.yamaha.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.entity.TaskTombstone;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Plain JDBC batch writes for bulk operations. Task ids use IDENTITY
+ * generation, which keeps Hibernate from batching inserts, so bulk paths go
+ * through JdbcTemplate instead. All methods must run inside a transaction.
+ * Spring Data's repository metrics never see these calls, so each public
+ * method is timed as tasks.batch.invocations, tagged by method.
+ */
+@Repository
+public class TaskBatchRepository {
+    
+    // Lookup names are bound as text and resolved to ids in SQL; see insertLookups
+    private static final String INSERT_SQL = "INSERT INTO tasks (task_name, start_date, end_date, responsible_id, status, "
+            + "remarks, priority, category_id, estimated_hours, actual_hours, completion_percentage, department_id, "
+            + "is_critical, change_seq, created_at, updated_at) VALUES ";
+    
+    private static final String INSERT_ROW = "(?,?,?," + TaskLookupTable.RESPONSIBLE.idByName() + ",?,?,?,"
+            + TaskLookupTable.CATEGORY.idByName() + ",?,?,?," + TaskLookupTable.DEPARTMENT.idByName() + ",?,?,?,?)";
+    
+    private static final int INSERT_PARAMETERS = 16;
+    
+    // 16 parameters a row stays well under SQLite's limit of 32766 per statement
+    private static final int ROWS_PER_INSERT = 1000;
+    
+    // A null status keeps the stored one, matching TaskService.updateTask
+    private static final String UPDATE_SQL = "UPDATE tasks SET task_name = ?, start_date = ?, end_date = ?, "
+            + "responsible_id = " + TaskLookupTable.RESPONSIBLE.idByName() + ", status = COALESCE(?, status), "
+            + "remarks = ?, priority = ?, category_id = " + TaskLookupTable.CATEGORY.idByName() + ", "
+            + "estimated_hours = ?, actual_hours = ?, completion_percentage = ?, "
+            + "department_id = " + TaskLookupTable.DEPARTMENT.idByName() + ", "
+            + "is_critical = ?, change_seq = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+    
+    private static final String TASK_COLUMNS = taskColumns("tasks");
+    
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id = ?";
+    
+    private static final String TOMBSTONE_SQL = "INSERT INTO task_tombstones (change_seq, task_id, deleted_at, archived) VALUES (?,?,?,?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TaskLookupRepository lookupRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer insertAllTimer;
+    private Timer updateAllTimer;
+    private Timer deleteAllTimer;
+    private Timer insertTombstonesTimer;
+    private Timer findByIdsTimer;
+    private Timer updateProgressTimer;
+    private Timer existsTimer;
+    
+    @PostConstruct
+    void registerTimers() {
+        insertAllTimer = timer("insertAll");
+        updateAllTimer = timer("updateAll");
+        deleteAllTimer = timer("deleteAll");
+        insertTombstonesTimer = timer("insertTombstones");
+        findByIdsTimer = timer("findByIds");
+        updateProgressTimer = timer("updateProgress");
+        existsTimer = timer("exists");
+    }
+    
+    private Timer timer(String method) {
+        return Timer.builder("tasks.batch.invocations")
+                .description("JDBC calls made by TaskBatchRepository")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Inserts all tasks with multi-row INSERTs and returns their generated
+     * ids in input order. SQLite does not promise RETURNING rows in insert
+     * order, so each id comes back with its row's change_seq and is matched
+     * to its task by that; every task must carry its own change sequence.
+     */
+    public List<Long> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return insertAllTimer.record(() -> insertRows(tasks));
+    }
+    
+    private List<Long> insertRows(List<Task> tasks) {
+        insertLookups(tasks);
+        Map<Long, Long> idsByChangeSeq = new HashMap<>();
+        for (int start = 0; start < tasks.size(); start += ROWS_PER_INSERT) {
+            List<Task> rows = tasks.subList(start, Math.min(start + ROWS_PER_INSERT, tasks.size()));
+            String sql = INSERT_SQL + String.join(",", Collections.nCopies(rows.size(), INSERT_ROW))
+                    + " RETURNING id, change_seq";
+            jdbcTemplate.query(sql, ps -> {
+                for (int i = 0; i < rows.size(); i++) {
+                    Task task = rows.get(i);
+                    int offset = i * INSERT_PARAMETERS;
+                    bindColumns(ps, offset, task);
+                    ps.setObject(offset + 15, toTimestamp(task.getCreatedAt()));
+                    ps.setObject(offset + 16, toTimestamp(task.getUpdatedAt()));
+                }
+            }, (RowCallbackHandler) rs -> idsByChangeSeq.put(rs.getLong(2), rs.getLong(1)));
+        }
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(idsByChangeSeq.get(task.getChangeSeq()));
+        }
+        return ids;
+    }
+    
+    /**
+     * Overwrites all columns of each task by id and bumps its version; returns per-row update counts.
+     */
+    public int[] updateAll(List<Task> tasks) {
+        return updateAllTimer.record(() -> {
+            insertLookups(tasks);
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, tasks, tasks.size(), (ps, task) -> {
+                bindColumns(ps, 0, task);
+                ps.setObject(15, toTimestamp(task.getUpdatedAt()));
+                ps.setLong(16, task.getId());
+            });
+            return counts.length == 0 ? new int[0] : counts[0];
+        });
+    }
+    
+    public int[] deleteAll(List<Long> ids) {
+        return deleteAllTimer.record(() -> {
+            int[][] counts = jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+            return counts.length == 0 ? new int[0] : counts[0];
+        });
+    }
+    
+    public void insertTombstones(List<TaskTombstone> tombstones) {
+        insertTombstonesTimer.record(() -> jdbcTemplate.batchUpdate(TOMBSTONE_SQL, tombstones, tombstones.size(),
+                (ps, tombstone) -> {
+                    ps.setLong(1, tombstone.getChangeSeq());
+                    ps.setLong(2, tombstone.getTaskId());
+                    ps.setObject(3, toTimestamp(tombstone.getDeletedAt()));
+                    ps.setBoolean(4, tombstone.isArchived());
+                }));
+    }
+    
+    /**
+     * Current row of each id that exists.
+     */
+    public Map<Long, Task> findByIds(List<Long> ids) {
+        Map<Long, Task> tasks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return tasks;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        findByIdsTimer.record(() -> jdbcTemplate.query("SELECT " + TASK_COLUMNS + " FROM tasks WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    Task task = mapTask(rs);
+                    tasks.put(task.getId(), task);
+                },
+                ids.toArray()));
+        return tasks;
+    }
+    
+    /**
+     * Sets status and/or completion percentage without loading the row first.
+     * The materialized CTE is evaluated by the WHERE clause before the row
+     * changes, so RETURNING can report the previous values from the same
+     * statement. Returns null when no row matched, i.e. the task does not
+     * exist or {@code expectedVersion} is stale.
+     */
+    public ProgressUpdate updateProgress(Long id, boolean setStatus, TaskStatus status,
+                                         boolean setCompletion, Integer completionPercentage,
+                                         Long expectedVersion, long changeSeq, LocalDateTime updatedAt) {
+        StringBuilder sql = new StringBuilder("WITH previous AS MATERIALIZED (SELECT id, status, completion_percentage FROM tasks WHERE id = ?) ")
+                .append("UPDATE tasks SET ");
+        List<Object> args = new ArrayList<>();
+        args.add(id);
+        if (setStatus) {
+            sql.append("status = ?, ");
+            args.add(status.name());
+        }
+        if (setCompletion) {
+            sql.append("completion_percentage = ?, ");
+            args.add(completionPercentage);
+        }
+        sql.append("change_seq = ?, updated_at = ?, version = version + 1 WHERE id = (SELECT id FROM previous)");
+        args.add(changeSeq);
+        args.add(toTimestamp(updatedAt));
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(" RETURNING ").append(TASK_COLUMNS)
+                .append(", (SELECT status FROM previous), (SELECT completion_percentage FROM previous)");
+        
+        List<ProgressUpdate> rows = updateProgressTimer.record(() -> jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Task previous = mapTask(rs);
+            previous.setStatus(TaskStatus.valueOf(rs.getString(19)));
+            previous.setCompletionPercentage(getInteger(rs, 20));
+            return new ProgressUpdate(mapTask(rs), previous);
+        }, args.toArray()));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+    
+    public boolean exists(Long id) {
+        Integer found = existsTimer.record(
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE id = ?", Integer.class, id));
+        return found != null && found > 0;
+    }
+    
+    // Names new to the lookup tables are added first so the id subqueries resolve
+    private void insertLookups(List<Task> tasks) {
+        List<String> responsibles = new ArrayList<>(tasks.size());
+        List<String> categories = new ArrayList<>(tasks.size());
+        List<String> departments = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            responsibles.add(task.getResponsible());
+            categories.add(task.getCategory());
+            departments.add(task.getDepartment());
+        }
+        lookupRepository.insertMissing(TaskLookupTable.RESPONSIBLE, responsibles);
+        lookupRepository.insertMissing(TaskLookupTable.CATEGORY, categories);
+        lookupRepository.insertMissing(TaskLookupTable.DEPARTMENT, departments);
+    }
+    
+    /**
+     * Select list read by {@link #mapTask}, for tasks or a table with the same layout.
+     */
+    static String taskColumns(String table) {
+        return "id, task_name, start_date, end_date, "
+                + TaskLookupTable.RESPONSIBLE.nameOf(table) + ", status, remarks, created_at, updated_at, priority, "
+                + TaskLookupTable.CATEGORY.nameOf(table) + ", estimated_hours, actual_hours, completion_percentage, "
+                + TaskLookupTable.DEPARTMENT.nameOf(table) + ", is_critical, change_seq, version";
+    }
+    
+    static Task mapTask(ResultSet rs) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getLong(1));
+        task.setTaskName(rs.getString(2));
+        Date startDate = rs.getDate(3);
+        task.setStartDate(startDate != null ? startDate.toLocalDate() : null);
+        Date endDate = rs.getDate(4);
+        task.setEndDate(endDate != null ? endDate.toLocalDate() : null);
+        task.setResponsible(rs.getString(5));
+        task.setStatus(TaskStatus.valueOf(rs.getString(6)));
+        task.setRemarks(rs.getString(7));
+        Timestamp createdAt = rs.getTimestamp(8);
+        task.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        Timestamp updatedAt = rs.getTimestamp(9);
+        task.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        String priority = rs.getString(10);
+        task.setPriority(priority != null ? TaskPriority.valueOf(priority) : null);
+        task.setCategory(rs.getString(11));
+        task.setEstimatedHours(getInteger(rs, 12));
+        task.setActualHours(getInteger(rs, 13));
+        task.setCompletionPercentage(getInteger(rs, 14));
+        task.setDepartment(rs.getString(15));
+        boolean critical = rs.getBoolean(16);
+        task.setIsCritical(rs.wasNull() ? null : critical);
+        long changeSeq = rs.getLong(17);
+        task.setChangeSeq(rs.wasNull() ? null : changeSeq);
+        task.setVersion(rs.getLong(18));
+        return task;
+    }
+    
+    private static Integer getInteger(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+    
+    /**
+     * Row written by {@link #updateProgress} and the same row as it was before.
+     */
+    public static final class ProgressUpdate {
+        private final Task task;
+        private final Task previous;
+        
+        ProgressUpdate(Task task, Task previous) {
+            this.task = task;
+            this.previous = previous;
+        }
+        
+        public Task getTask() { return task; }
+        public Task getPrevious() { return previous; }
+    }
+    
+    private static void bindColumns(PreparedStatement ps, int offset, Task task) throws SQLException {
+        ps.setString(offset + 1, task.getTaskName());
+        ps.setObject(offset + 2, toDate(task.getStartDate()));
+        ps.setObject(offset + 3, toDate(task.getEndDate()));
+        ps.setString(offset + 4, task.getResponsible());
+        ps.setString(offset + 5, task.getStatus() != null ? task.getStatus().name() : null);
+        ps.setString(offset + 6, task.getRemarks());
+        ps.setString(offset + 7, task.getPriority() != null ? task.getPriority().name() : null);
+        ps.setString(offset + 8, task.getCategory());
+        ps.setObject(offset + 9, task.getEstimatedHours());
+        ps.setObject(offset + 10, task.getActualHours());
+        ps.setObject(offset + 11, task.getCompletionPercentage());
+        ps.setString(offset + 12, task.getDepartment());
+        ps.setObject(offset + 13, task.getIsCritical());
+        ps.setObject(offset + 14, task.getChangeSeq());
+    }
+    
+    static Date toDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+    
+    static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
@@ -0,0 +1,229 @@
+package com.yamaha.repository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Binary form of a task for the memory store's journal and snapshots: id,
+ * then a bitmask of the non-null fields, then those fields in order. Dates
+ * are epoch days, timestamps UTC epoch seconds plus nanos, enums ordinals.
+ */
+final class TaskCodec {
+    
+    private static final int TASK_NAME = 1;
+    private static final int START_DATE = 1 << 1;
+    private static final int END_DATE = 1 << 2;
+    private static final int RESPONSIBLE = 1 << 3;
+    private static final int STATUS = 1 << 4;
+    private static final int REMARKS = 1 << 5;
+    private static final int CREATED_AT = 1 << 6;
+    private static final int UPDATED_AT = 1 << 7;
+    private static final int PRIORITY = 1 << 8;
+    private static final int CATEGORY = 1 << 9;
+    private static final int ESTIMATED_HOURS = 1 << 10;
+    private static final int ACTUAL_HOURS = 1 << 11;
+    private static final int COMPLETION = 1 << 12;
+    private static final int DEPARTMENT = 1 << 13;
+    private static final int CRITICAL = 1 << 14;
+    private static final int CHANGE_SEQ = 1 << 15;
+    private static final int VERSION = 1 << 16;
+    
+    private TaskCodec() {}
+    
+    static void write(DataOutput out, Task task) throws IOException {
+        int present = (task.getTaskName() != null ? TASK_NAME : 0)
+                | (task.getStartDate() != null ? START_DATE : 0)
+                | (task.getEndDate() != null ? END_DATE : 0)
+                | (task.getResponsible() != null ? RESPONSIBLE : 0)
+                | (task.getStatus() != null ? STATUS : 0)
+                | (task.getRemarks() != null ? REMARKS : 0)
+                | (task.getCreatedAt() != null ? CREATED_AT : 0)
+                | (task.getUpdatedAt() != null ? UPDATED_AT : 0)
+                | (task.getPriority() != null ? PRIORITY : 0)
+                | (task.getCategory() != null ? CATEGORY : 0)
+                | (task.getEstimatedHours() != null ? ESTIMATED_HOURS : 0)
+                | (task.getActualHours() != null ? ACTUAL_HOURS : 0)
+                | (task.getCompletionPercentage() != null ? COMPLETION : 0)
+                | (task.getDepartment() != null ? DEPARTMENT : 0)
+                | (task.getIsCritical() != null ? CRITICAL : 0)
+                | (task.getChangeSeq() != null ? CHANGE_SEQ : 0)
+                | (task.getVersion() != null ? VERSION : 0);
+        out.writeLong(task.getId());
+        out.writeInt(present);
+        if (task.getTaskName() != null) {
+            writeString(out, task.getTaskName());
+        }
+        if (task.getStartDate() != null) {
+            out.writeInt((int) task.getStartDate().toEpochDay());
+        }
+        if (task.getEndDate() != null) {
+            out.writeInt((int) task.getEndDate().toEpochDay());
+        }
+        if (task.getResponsible() != null) {
+            writeString(out, task.getResponsible());
+        }
+        if (task.getStatus() != null) {
+            out.writeByte(task.getStatus().ordinal());
+        }
+        if (task.getRemarks() != null) {
+            writeString(out, task.getRemarks());
+        }
+        if (task.getCreatedAt() != null) {
+            writeDateTime(out, task.getCreatedAt());
+        }
+        if (task.getUpdatedAt() != null) {
+            writeDateTime(out, task.getUpdatedAt());
+        }
+        if (task.getPriority() != null) {
+            out.writeByte(task.getPriority().ordinal());
+        }
+        if (task.getCategory() != null) {
+            writeString(out, task.getCategory());
+        }
+        if (task.getEstimatedHours() != null) {
+            out.writeInt(task.getEstimatedHours());
+        }
+        if (task.getActualHours() != null) {
+            out.writeInt(task.getActualHours());
+        }
+        if (task.getCompletionPercentage() != null) {
+            out.writeInt(task.getCompletionPercentage());
+        }
+        if (task.getDepartment() != null) {
+            writeString(out, task.getDepartment());
+        }
+        if (task.getIsCritical() != null) {
+            out.writeBoolean(task.getIsCritical());
+        }
+        if (task.getChangeSeq() != null) {
+            out.writeLong(task.getChangeSeq());
+        }
+        if (task.getVersion() != null) {
+            out.writeLong(task.getVersion());
+        }
+    }
+    
+    /**
+     * Reads a task written by {@link #write}. Department, category and
+     * responsible are interned through {@code names} so repeated values share
+     * one String.
+     */
+    static Task read(DataInput in, Map<String, String> names) throws IOException {
+        Task task = new Task();
+        task.setId(in.readLong());
+        int present = in.readInt();
+        if ((present & TASK_NAME) != 0) {
+            task.setTaskName(readString(in));
+        }
+        if ((present & START_DATE) != 0) {
+            task.setStartDate(LocalDate.ofEpochDay(in.readInt()));
+        }
+        if ((present & END_DATE) != 0) {
+            task.setEndDate(LocalDate.ofEpochDay(in.readInt()));
+        }
+        if ((present & RESPONSIBLE) != 0) {
+            task.setResponsible(intern(names, readString(in)));
+        }
+        if ((present & STATUS) != 0) {
+            task.setStatus(TaskStatus.values()[in.readByte()]);
+        }
+        if ((present & REMARKS) != 0) {
+            task.setRemarks(readString(in));
+        }
+        if ((present & CREATED_AT) != 0) {
+            task.setCreatedAt(readDateTime(in));
+        }
+        if ((present & UPDATED_AT) != 0) {
+            task.setUpdatedAt(readDateTime(in));
+        }
+        if ((present & PRIORITY) != 0) {
+            task.setPriority(TaskPriority.values()[in.readByte()]);
+        }
+        if ((present & CATEGORY) != 0) {
+            task.setCategory(intern(names, readString(in)));
+        }
+        if ((present & ESTIMATED_HOURS) != 0) {
+            task.setEstimatedHours(in.readInt());
+        }
+        if ((present & ACTUAL_HOURS) != 0) {
+            task.setActualHours(in.readInt());
+        }
+        if ((present & COMPLETION) != 0) {
+            task.setCompletionPercentage(in.readInt());
+        }
+        if ((present & DEPARTMENT) != 0) {
+            task.setDepartment(intern(names, readString(in)));
+        }
+        if ((present & CRITICAL) != 0) {
+            task.setIsCritical(in.readBoolean());
+        }
+        if ((present & CHANGE_SEQ) != 0) {
+            task.setChangeSeq(in.readLong());
+        }
+        if ((present & VERSION) != 0) {
+            task.setVersion(in.readLong());
+        }
+        return task;
+    }
+    
+    static Task copy(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setTaskName(task.getTaskName());
+        copy.setStartDate(task.getStartDate());
+        copy.setEndDate(task.getEndDate());
+        copy.setResponsible(task.getResponsible());
+        copy.setStatus(task.getStatus());
+        copy.setRemarks(task.getRemarks());
+        copy.setCreatedAt(task.getCreatedAt());
+        copy.setUpdatedAt(task.getUpdatedAt());
+        copy.setPriority(task.getPriority());
+        copy.setCategory(task.getCategory());
+        copy.setEstimatedHours(task.getEstimatedHours());
+        copy.setActualHours(task.getActualHours());
+        copy.setCompletionPercentage(task.getCompletionPercentage());
+        copy.setDepartment(task.getDepartment());
+        copy.setIsCritical(task.getIsCritical());
+        copy.setChangeSeq(task.getChangeSeq());
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+    
+    // writeUTF is limited to 64 KB, which remarks may exceed
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+    
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+    
+    private static String intern(Map<String, String> names, String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+}
@@ -0,0 +1,123 @@
+package com.yamaha.repository;
+
+import java.util.function.Consumer;
+
+import com.yamaha.entity.Task;
+
+/**
+ * Open-addressing hash map from task id to task with linear probing. Keys
+ * are stored as primitive longs, so there is no Long box or map entry per
+ * task. Id 0 marks an empty slot (SQLite and the memory store start ids at
+ * 1). Not thread-safe; {@link MemoryTaskStore} guards it with a lock.
+ */
+final class TaskIdMap {
+    
+    private static final int MIN_CAPACITY = 1024;
+    
+    private long[] keys = new long[MIN_CAPACITY];
+    private Task[] values = new Task[MIN_CAPACITY];
+    private int size;
+    
+    Task get(long id) {
+        int mask = keys.length - 1;
+        for (int slot = mix(id) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+    
+    Task put(long id, Task task) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task id must be positive: " + id);
+        }
+        // Keep the load factor at or below one half
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == id) {
+                Task previous = values[slot];
+                values[slot] = task;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = task;
+        size++;
+        return null;
+    }
+    
+    Task remove(long id) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (keys[slot] != id) {
+            if (keys[slot] == 0) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        Task previous = values[slot];
+        size--;
+        
+        // Backward-shift deletion: move later entries of the probe run into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        return previous;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    void clear() {
+        keys = new long[MIN_CAPACITY];
+        values = new Task[MIN_CAPACITY];
+        size = 0;
+    }
+    
+    void forEach(Consumer<Task> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept(values[slot]);
+            }
+        }
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Task[] oldValues = values;
+        keys = new long[capacity];
+        values = new Task[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    // Ids are dense and sequential; spread them so runs do not cluster
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,321 @@
+package com.yamaha.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yamaha.entity.Task;
+
+/**
+ * Files behind {@link MemoryTaskStore}: a gzipped snapshot of all tasks and
+ * numbered journal generations of committed transactions since.
+ *
+ * A journal is a memory-mapped file of records {@code [length][crc32][payload]},
+ * one per transaction, forced to disk before the transaction commits. A zero
+ * length ends the journal; a record whose checksum does not match is a torn
+ * write from a crash and ends it too. A snapshot names the first journal
+ * generation it does not cover, so recovery loads the snapshot and replays
+ * that generation and every later one.
+ *
+ * Not thread-safe: the store calls append, rewind and rotate under its
+ * commit lock, and recover before it serves requests.
+ */
+final class TaskJournal implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskJournal.class);
+    
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    
+    private static final int SNAPSHOT_MAGIC = 0x54534B53;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final String SNAPSHOT_FILE = "tasks.snapshot";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("journal-(\\d+)\\.log");
+    private static final int HEADER_BYTES = 8;
+    // Mapped buffers are int-indexed; start a new generation well before that
+    private static final int MAX_GENERATION_BYTES = 1 << 30;
+    
+    /**
+     * Receives recovered state in order: snapshot tasks, then journal operations.
+     */
+    interface Replay {
+        void put(Task task);
+        void delete(long id);
+    }
+    
+    private final Path dir;
+    private final int initialSize;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long generation;
+    private int position;
+    
+    TaskJournal(Path dir, int initialSize) {
+        this.dir = dir;
+        this.initialSize = initialSize;
+    }
+    
+    /**
+     * Whether the directory holds a snapshot or journal, i.e. the store has
+     * been opened here before.
+     */
+    boolean exists() throws IOException {
+        return Files.exists(dir.resolve(SNAPSHOT_FILE)) || (Files.isDirectory(dir) && !journalGenerations().isEmpty());
+    }
+    
+    /**
+     * Loads the snapshot and replays the journals after it, then opens the
+     * newest generation for appending. Returns the highest task id ever
+     * handed out as of the snapshot.
+     */
+    long recover(Replay replay) throws IOException {
+        Files.createDirectories(dir);
+        Map<String, String> names = new HashMap<>();
+        long firstGeneration = 0;
+        long lastId = 0;
+        
+        Path snapshot = dir.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(snapshot), 1 << 16)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT) {
+                    throw new IOException("Not a task snapshot: " + snapshot);
+                }
+                firstGeneration = in.readLong();
+                lastId = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    replay.put(TaskCodec.read(in, names));
+                }
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Truncated task snapshot: " + snapshot);
+                }
+            }
+        }
+        
+        List<Long> generations = journalGenerations();
+        for (long gen : generations) {
+            if (gen < firstGeneration) {
+                // Covered by the snapshot; left behind by a crash after it was written
+                Files.deleteIfExists(journalPath(gen));
+                continue;
+            }
+            int end = replayJournal(gen, replay, names);
+            if (gen == generations.get(generations.size() - 1)) {
+                open(gen, end);
+            }
+        }
+        if (channel == null) {
+            open(firstGeneration, 0);
+        }
+        return lastId;
+    }
+    
+    /**
+     * Appends one transaction's record and forces it to disk; returns its
+     * start offset for {@link #rewind}.
+     */
+    int append(byte[] payload) throws IOException {
+        int needed = HEADER_BYTES + payload.length;
+        if ((long) position + needed > MAX_GENERATION_BYTES) {
+            rotate();
+        }
+        ensureCapacity(needed);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int start = position;
+        buffer.putInt(start, payload.length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.put(start + HEADER_BYTES, payload);
+        buffer.force(start, needed);
+        position = start + needed;
+        return start;
+    }
+    
+    /**
+     * Erases records from {@code start} on, for a transaction that was
+     * journaled but then rolled back.
+     */
+    void rewind(int start) {
+        for (int i = start; i < position; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        if (position > start) {
+            buffer.force(start, position - start);
+        }
+        position = start;
+    }
+    
+    /**
+     * Starts a new journal generation and returns its number; everything
+     * committed so far is in earlier generations.
+     */
+    long rotate() throws IOException {
+        closeChannel();
+        open(generation + 1, 0);
+        return generation;
+    }
+    
+    /**
+     * Writes a snapshot of {@code tasks} covering every journal generation
+     * before {@code nextGeneration}, then deletes those journals. The
+     * snapshot replaces the previous one atomically.
+     */
+    void writeSnapshot(long nextGeneration, long lastId, Collection<Task> tasks) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile())) {
+            GZIPOutputStream gzip = new GZIPOutputStream(file, 1 << 16);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(nextGeneration);
+            out.writeLong(lastId);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                TaskCodec.write(out, task);
+            }
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.flush();
+            gzip.finish();
+            file.getFD().sync();
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        for (long gen : journalGenerations()) {
+            if (gen < nextGeneration) {
+                Files.deleteIfExists(journalPath(gen));
+            }
+        }
+    }
+    
+    int size() {
+        return position;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+    
+    private int replayJournal(long gen, Replay replay, Map<String, String> names) throws IOException {
+        try (FileChannel file = FileChannel.open(journalPath(gen), StandardOpenOption.READ)) {
+            MappedByteBuffer records = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            int offset = 0;
+            while (offset + HEADER_BYTES <= records.limit()) {
+                int length = records.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > records.limit()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                records.get(offset + HEADER_BYTES, payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != records.getInt(offset + 4)) {
+                    log.warn("Journal {} ends in a torn record at offset {}; ignoring it", gen, offset);
+                    break;
+                }
+                applyRecord(payload, replay, names);
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+    }
+    
+    private static void applyRecord(byte[] payload, Replay replay, Map<String, String> names) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int operations = in.readInt();
+        for (int i = 0; i < operations; i++) {
+            byte type = in.readByte();
+            if (type == PUT) {
+                replay.put(TaskCodec.read(in, names));
+            } else if (type == DELETE) {
+                replay.delete(in.readLong());
+            } else {
+                throw new IOException("Unknown journal operation " + type);
+            }
+        }
+    }
+    
+    private void open(long gen, int end) throws IOException {
+        channel = FileChannel.open(journalPath(gen), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        // Drop anything after the last good record so later appends are not followed by stale bytes
+        channel.truncate(end);
+        generation = gen;
+        position = end;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, end + HEADER_BYTES));
+    }
+    
+    private void ensureCapacity(int needed) throws IOException {
+        // Keep room for the zero length that terminates the journal
+        long required = (long) position + needed + 4;
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long size = Math.min(Math.max(required, (long) buffer.capacity() * 2), Integer.MAX_VALUE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+    
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            // Trim the zero-filled mapped tail; replay stops at the first zero length anyway
+            channel.truncate(position);
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+    
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the rename itself is still atomic
+            log.debug("Could not sync {}: {}", dir, e.getMessage());
+        }
+    }
+    
+    private List<Long> journalGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                Matcher matcher = JOURNAL_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+    
+    private Path journalPath(long gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+}
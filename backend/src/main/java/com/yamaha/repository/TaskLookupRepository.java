@@ -0,0 +1,79 @@
+package com.yamaha.repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the department, category and responsible lookup tables.
+ * Rows are only ever added, so an id names the same value for the lifetime
+ * of the database. Inserts must run inside the transaction of the task write
+ * that needs them.
+ */
+@Repository
+public class TaskLookupRepository {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    public Map<Integer, String> findAll(TaskLookupTable table) {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + table.getTableName(),
+                rs -> {
+                    names.put(rs.getInt(1), rs.getString(2));
+                });
+        return names;
+    }
+    
+    public Integer findId(TaskLookupTable table, String name) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table.getTableName() + " WHERE name = ?", Integer.class, name);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+    
+    public String findName(TaskLookupTable table, int id) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT name FROM " + table.getTableName() + " WHERE id = ?", String.class, id);
+        return names.isEmpty() ? null : names.get(0);
+    }
+    
+    /**
+     * Ids of the given names that exist, by name.
+     */
+    public Map<String, Integer> findIds(TaskLookupTable table, Collection<String> names) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        String placeholders = names.stream().map(name -> "?").collect(Collectors.joining(","));
+        jdbcTemplate.query("SELECT id, name FROM " + table.getTableName() + " WHERE name IN (" + placeholders + ")",
+                rs -> {
+                    ids.put(rs.getString(2), rs.getInt(1));
+                }, names.toArray());
+        return ids;
+    }
+    
+    public int insert(TaskLookupTable table, String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO " + table.getTableName() + " (name) VALUES (?) RETURNING id", Integer.class, name);
+    }
+    
+    /**
+     * Adds the names that do not exist yet; null names are skipped.
+     */
+    public void insertMissing(TaskLookupTable table, Collection<String> names) {
+        List<String> present = names.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (present.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table.getTableName() + " (name) VALUES (?) ON CONFLICT (name) DO NOTHING",
+                present, present.size(), (ps, name) -> ps.setString(1, name));
+    }
+}
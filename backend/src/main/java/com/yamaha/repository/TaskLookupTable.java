@@ -0,0 +1,38 @@
+package com.yamaha.repository;
+
+/**
+ * Lookup tables behind the task columns that used to hold free text (see
+ * V7__task_lookups.sql). Each table maps a small integer id to a unique name.
+ */
+public enum TaskLookupTable {
+    DEPARTMENT("task_departments", "department_id"),
+    CATEGORY("task_categories", "category_id"),
+    RESPONSIBLE("task_responsibles", "responsible_id");
+    
+    private final String tableName;
+    private final String taskColumn;
+    
+    TaskLookupTable(String tableName, String taskColumn) {
+        this.tableName = tableName;
+        this.taskColumn = taskColumn;
+    }
+    
+    public String getTableName() { return tableName; }
+    public String getTaskColumn() { return taskColumn; }
+    
+    /**
+     * Scalar subquery resolving a bound name parameter to its id.
+     */
+    String idByName() {
+        return "(SELECT id FROM " + tableName + " WHERE name = ?)";
+    }
+    
+    /**
+     * Scalar subquery resolving the referencing column of the current row of
+     * {@code rowTable} (tasks or task_archive) to its name; also valid in a
+     * RETURNING clause.
+     */
+    String nameOf(String rowTable) {
+        return "(SELECT name FROM " + tableName + " WHERE " + tableName + ".id = " + rowTable + "." + taskColumn + ")";
+    }
+}
@@ -2,7 +2,9 @@ package com.yamaha.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query; // Add this import
 import org.springframework.stereotype.Repository;
 
@@ -11,12 +13,17 @@ import com.yamaha.entity.TaskPriority;
 import com.yamaha.entity.TaskStatus;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByStatus(TaskStatus status);
     
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     Long countByStatus(TaskStatus status);
     
+    // Live and archived tasks in one statement, so both tiers come from the same snapshot
+    @Query(value = "SELECT status, COUNT(*) FROM (SELECT status FROM tasks UNION ALL SELECT status FROM task_archive) "
+            + "GROUP BY status", nativeQuery = true)
+    List<Object[]> countGroupByStatus();
+    
     List<Task> findByDepartment(String department);
     
     List<Task> findByPriority(TaskPriority priority);
@@ -24,4 +31,14 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByCategory(String category);
     
     List<Task> findByIsCritical(Boolean isCritical);
+    
+    List<Task> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(Long since, Long upTo, Pageable page);
+    
+    @Query("SELECT MAX(t.changeSeq) FROM Task t")
+    Long findMaxChangeSeq();
+    
+    // Rows written before change tracking existed
+    @Modifying
+    @Query("UPDATE Task t SET t.changeSeq = t.id WHERE t.changeSeq IS NULL")
+    int backfillChangeSeq();
 }
\ No newline at end of file
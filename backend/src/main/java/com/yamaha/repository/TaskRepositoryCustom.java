@@ -0,0 +1,24 @@
+package com.yamaha.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.entity.Task;
+
+public interface TaskRepositoryCustom {
+    
+    /**
+     * Returns at most {@code limit} tasks matching the filter, positioned
+     * after {@code cursor} (or from the start when it is null).
+     */
+    List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit);
+    
+    /**
+     * Streams all tasks matching the filter in id order. Rows are detached as
+     * they are read so the persistence context does not grow; the caller must
+     * hold a transaction and close the stream.
+     */
+    Stream<Task> streamAll(TaskFilter filter);
+}
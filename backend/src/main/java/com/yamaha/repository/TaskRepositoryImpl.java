@@ -0,0 +1,111 @@
+package com.yamaha.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.entity.Task;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${tasks.export.fetch-size:500}")
+    private int exportFetchSize;
+    
+    @Override
+    public List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        
+        List<Predicate> predicates = filterPredicates(cb, task, filter);
+        
+        if (sort == TaskCursor.Sort.UPDATED_AT) {
+            if (cursor != null && cursor.getLastUpdatedAt() == null) {
+                // Past the dated rows: NULLs sort last, by id
+                predicates.add(cb.and(cb.isNull(task.get("updatedAt")),
+                        cb.lessThan(task.<Long>get("id"), cursor.getLastId())));
+            } else if (cursor != null) {
+                // (updated_at, id) < (lastUpdatedAt, lastId), newest first
+                predicates.add(cb.or(
+                        cb.lessThan(task.<LocalDateTime>get("updatedAt"), cursor.getLastUpdatedAt()),
+                        cb.and(cb.equal(task.get("updatedAt"), cursor.getLastUpdatedAt()),
+                               cb.lessThan(task.<Long>get("id"), cursor.getLastId()))));
+            }
+            query.orderBy(cb.desc(task.get("updatedAt")), cb.desc(task.get("id")));
+        } else {
+            if (cursor != null) {
+                predicates.add(cb.greaterThan(task.<Long>get("id"), cursor.getLastId()));
+            }
+            query.orderBy(cb.asc(task.get("id")));
+        }
+        
+        query.select(task).where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public Stream<Task> streamAll(TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(task)
+                .where(filterPredicates(cb, task, filter).toArray(new Predicate[0]))
+                .orderBy(cb.asc(task.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", exportFetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .map(row -> {
+                    entityManager.detach(row);
+                    return row;
+                });
+    }
+    
+    static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Task> task, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter == null) {
+            return predicates;
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+        if (filter.getDepartment() != null) {
+            predicates.add(cb.equal(task.get("department"), filter.getDepartment()));
+        }
+        if (filter.getCategory() != null) {
+            predicates.add(cb.equal(task.get("category"), filter.getCategory()));
+        }
+        if (filter.getIsCritical() != null) {
+            predicates.add(cb.equal(task.get("isCritical"), filter.getIsCritical()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDate>get("endDate"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.<LocalDate>get("startDate"), filter.getTo()));
+        }
+        return predicates;
+    }
+}
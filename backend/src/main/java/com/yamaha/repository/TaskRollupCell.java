@@ -0,0 +1,101 @@
+package com.yamaha.repository;
+
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * One row of task_rollup_cells: the tasks sharing a department, category,
+ * status, priority and critical flag, with their summed measures. Unset
+ * dimensions are '' to match the table. Cells are immutable; a delta is a
+ * cell whose measures may be negative.
+ */
+public final class TaskRollupCell {
+    
+    private final String department;
+    private final String category;
+    private final TaskStatus status;
+    private final String priority;
+    private final boolean critical;
+    
+    private final long taskCount;
+    private final long estimatedHours;
+    private final long actualHours;
+    private final long completionSum;
+    private final long completionCount;
+    
+    public TaskRollupCell(String department, String category, TaskStatus status, String priority, boolean critical,
+                          long taskCount, long estimatedHours, long actualHours, long completionSum, long completionCount) {
+        this.department = department;
+        this.category = category;
+        this.status = status;
+        this.priority = priority;
+        this.critical = critical;
+        this.taskCount = taskCount;
+        this.estimatedHours = estimatedHours;
+        this.actualHours = actualHours;
+        this.completionSum = completionSum;
+        this.completionCount = completionCount;
+    }
+    
+    /**
+     * The contribution of a single task.
+     */
+    public static TaskRollupCell of(Task task) {
+        return new TaskRollupCell(
+                task.getDepartment() != null ? task.getDepartment() : "",
+                task.getCategory() != null ? task.getCategory() : "",
+                task.getStatus(),
+                task.getPriority() != null ? task.getPriority().name() : "",
+                Boolean.TRUE.equals(task.getIsCritical()),
+                1,
+                task.getEstimatedHours() != null ? task.getEstimatedHours() : 0,
+                task.getActualHours() != null ? task.getActualHours() : 0,
+                task.getCompletionPercentage() != null ? task.getCompletionPercentage() : 0,
+                task.getCompletionPercentage() != null ? 1 : 0);
+    }
+    
+    /**
+     * Identifies the cell; equal keys mean the same dimensions.
+     */
+    public String key() {
+        return department + '\u0000' + category + '\u0000' + status + '\u0000' + priority + '\u0000' + critical;
+    }
+    
+    /**
+     * Measures of this cell plus {@code sign} times the other's.
+     */
+    public TaskRollupCell plus(TaskRollupCell other, int sign) {
+        return new TaskRollupCell(department, category, status, priority, critical,
+                taskCount + sign * other.taskCount,
+                estimatedHours + sign * other.estimatedHours,
+                actualHours + sign * other.actualHours,
+                completionSum + sign * other.completionSum,
+                completionCount + sign * other.completionCount);
+    }
+    
+    public TaskRollupCell negate() {
+        return new TaskRollupCell(department, category, status, priority, critical, 0, 0, 0, 0, 0).plus(this, -1);
+    }
+    
+    public boolean sameMeasures(TaskRollupCell other) {
+        return taskCount == other.taskCount && estimatedHours == other.estimatedHours
+                && actualHours == other.actualHours && completionSum == other.completionSum
+                && completionCount == other.completionCount;
+    }
+    
+    public boolean isZero() {
+        return taskCount == 0 && estimatedHours == 0 && actualHours == 0 && completionSum == 0 && completionCount == 0;
+    }
+    
+    // Getters
+    public String getDepartment() { return department; }
+    public String getCategory() { return category; }
+    public TaskStatus getStatus() { return status; }
+    public String getPriority() { return priority; }
+    public boolean isCritical() { return critical; }
+    public long getTaskCount() { return taskCount; }
+    public long getEstimatedHours() { return estimatedHours; }
+    public long getActualHours() { return actualHours; }
+    public long getCompletionSum() { return completionSum; }
+    public long getCompletionCount() { return completionCount; }
+}
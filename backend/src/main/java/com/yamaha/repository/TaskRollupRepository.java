@@ -0,0 +1,86 @@
+package com.yamaha.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * JDBC access to task_rollup_cells (see V6__task_rollups.sql). Writes must run
+ * inside the transaction of the task write they account for.
+ */
+@Repository
+public class TaskRollupRepository {
+    
+    private static final String CELL_COLUMNS = "department, category, status, priority, is_critical, "
+            + "task_count, estimated_hours, actual_hours, completion_sum, completion_count";
+    
+    private static final String UPSERT_SQL = "INSERT INTO task_rollup_cells (" + CELL_COLUMNS + ") "
+            + "VALUES (?,?,?,?,?,?,?,?,?,?) "
+            + "ON CONFLICT (department, category, status, priority, is_critical) DO UPDATE SET "
+            + "task_count = task_count + excluded.task_count, "
+            + "estimated_hours = estimated_hours + excluded.estimated_hours, "
+            + "actual_hours = actual_hours + excluded.actual_hours, "
+            + "completion_sum = completion_sum + excluded.completion_sum, "
+            + "completion_count = completion_count + excluded.completion_count";
+    
+    // Same grouping as the V6 migration's initial fill, over both tiers; cells stay keyed by name
+    private static final String AGGREGATE_SQL = "SELECT COALESCE(d.name, ''), COALESCE(c.name, ''), t.status, "
+            + "COALESCE(t.priority, ''), COALESCE(t.is_critical, 0), COUNT(*), COALESCE(SUM(t.estimated_hours), 0), "
+            + "COALESCE(SUM(t.actual_hours), 0), COALESCE(SUM(t.completion_percentage), 0), COUNT(t.completion_percentage) "
+            + "FROM (SELECT department_id, category_id, status, priority, is_critical, estimated_hours, actual_hours, "
+            + "completion_percentage FROM tasks UNION ALL SELECT department_id, category_id, status, priority, "
+            + "is_critical, estimated_hours, actual_hours, completion_percentage FROM task_archive) t "
+            + "LEFT JOIN task_departments d ON d.id = t.department_id "
+            + "LEFT JOIN task_categories c ON c.id = t.category_id "
+            + "GROUP BY 1, 2, 3, 4, 5";
+    
+    private static final RowMapper<TaskRollupCell> CELL_MAPPER = (rs, rowNum) -> new TaskRollupCell(
+            rs.getString(1), rs.getString(2), TaskStatus.valueOf(rs.getString(3)), rs.getString(4), rs.getInt(5) != 0,
+            rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getLong(9), rs.getLong(10));
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Adds each delta to its cell, creating cells as needed.
+     */
+    public void applyDeltas(Collection<TaskRollupCell> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, deltas, deltas.size(), (ps, cell) -> {
+            ps.setString(1, cell.getDepartment());
+            ps.setString(2, cell.getCategory());
+            ps.setString(3, cell.getStatus().name());
+            ps.setString(4, cell.getPriority());
+            ps.setInt(5, cell.isCritical() ? 1 : 0);
+            ps.setLong(6, cell.getTaskCount());
+            ps.setLong(7, cell.getEstimatedHours());
+            ps.setLong(8, cell.getActualHours());
+            ps.setLong(9, cell.getCompletionSum());
+            ps.setLong(10, cell.getCompletionCount());
+        });
+    }
+    
+    public List<TaskRollupCell> findAll() {
+        return jdbcTemplate.query("SELECT " + CELL_COLUMNS + " FROM task_rollup_cells WHERE task_count <> 0", CELL_MAPPER);
+    }
+    
+    /**
+     * Recomputes every cell with a full scan of tasks.
+     */
+    public List<TaskRollupCell> aggregateFromTasks() {
+        return jdbcTemplate.query(AGGREGATE_SQL, CELL_MAPPER);
+    }
+    
+    public void replaceAll(Collection<TaskRollupCell> cells) {
+        jdbcTemplate.update("DELETE FROM task_rollup_cells");
+        applyDeltas(cells);
+    }
+}
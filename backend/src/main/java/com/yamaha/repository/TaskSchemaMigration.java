@@ -0,0 +1,44 @@
+package com.yamaha.repository;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the Flyway migrations. Databases from before Flyway have no schema
+ * history and are baselined at version 0, so V1 and V2 run against them;
+ * but ddl-auto=update already added change_seq and task_tombstones to those
+ * created while delta sync existed, and V2's ALTER TABLE would fail there.
+ * Those are baselined past V2 instead.
+ */
+@Component
+public class TaskSchemaMigration implements FlywayMigrationStrategy {
+    
+    static final String CHANGE_TRACKING_VERSION = "2";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskSchemaMigration.class);
+    
+    @Override
+    public void migrate(Flyway flyway) {
+        if (flyway.info().applied().length == 0 && hasChangeTracking(flyway)) {
+            logger.info("Schema without history already has change tracking, baselining at version {}",
+                    CHANGE_TRACKING_VERSION);
+            flyway = Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .baselineVersion(CHANGE_TRACKING_VERSION)
+                    .load();
+        }
+        flyway.migrate();
+    }
+    
+    private static boolean hasChangeTracking(Flyway flyway) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        List<String> columns = jdbcTemplate.queryForList("SELECT name FROM pragma_table_info('tasks')", String.class);
+        return columns.contains("change_seq");
+    }
+}
@@ -0,0 +1,72 @@
+package com.yamaha.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskSearchHitDTO;
+
+/**
+ * Queries the tasks_fts FTS5 index (see V4__task_search.sql). Hits are
+ * ranked by BM25 with task_name weighted above responsible and remarks.
+ */
+@Repository
+public class TaskSearchRepository {
+    
+    private static final String SEARCH_SQL = "SELECT rowid, -bm25(tasks_fts, 10.0, 1.0, 5.0) AS score, "
+            + "highlight(tasks_fts, 0, '<mark>', '</mark>'), "
+            + "snippet(tasks_fts, 1, '<mark>', '</mark>', '...', 12), "
+            + "highlight(tasks_fts, 2, '<mark>', '</mark>') "
+            + "FROM tasks_fts WHERE tasks_fts MATCH ? "
+            + "ORDER BY bm25(tasks_fts, 10.0, 1.0, 5.0) LIMIT ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Returns hits in rank order with only the task id set on {@code task}.
+     */
+    public List<TaskSearchHitDTO> search(String text, int limit) {
+        String match = toMatchExpression(text);
+        if (match.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(SEARCH_SQL, (rs, rowNum) -> {
+            TaskDTO task = new TaskDTO();
+            task.setId(rs.getLong(1));
+            TaskSearchHitDTO hit = new TaskSearchHitDTO();
+            hit.setTask(task);
+            hit.setScore(rs.getDouble(2));
+            hit.setTaskNameHighlight(rs.getString(3));
+            hit.setRemarksSnippet(rs.getString(4));
+            hit.setResponsibleHighlight(rs.getString(5));
+            return hit;
+        }, match, limit);
+    }
+    
+    /**
+     * Turns free text into an FTS5 query: every word becomes a quoted prefix
+     * term and all terms must match. Quoting keeps user input from being
+     * parsed as FTS5 syntax.
+     */
+    static String toMatchExpression(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(word).append("\"*");
+        }
+        return match.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.yamaha.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskSearchHitDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskBatchRepository.ProgressUpdate;
+
+/**
+ * Storage engine for task rows, selected with {@code tasks.store.type}:
+ * {@link JpaTaskStore} (SQLite, the default) or {@link MemoryTaskStore}.
+ * Lookups, tombstones and rollup cells stay in SQLite with either engine.
+ *
+ * Writes must run on the writer queue, inside its transaction; they become
+ * visible to other threads when it commits. Tasks passed in or returned are
+ * the caller's to modify.
+ */
+public interface TaskStore {
+    
+    Optional<Task> findById(Long id);
+    
+    /**
+     * Current row of each id that exists.
+     */
+    Map<Long, Task> findByIds(Collection<Long> ids);
+    
+    boolean existsById(Long id);
+    
+    long count();
+    
+    /**
+     * Stores a new task with the entity defaults applied and returns it with
+     * its generated id and version 0.
+     */
+    Task insert(Task task);
+    
+    /**
+     * Overwrites a loaded task, bumps its version and updated_at, and returns the stored row.
+     */
+    Task update(Task task);
+    
+    void delete(Long id);
+    
+    /**
+     * Inserts the tasks as given (timestamps and a distinct change sequence
+     * each) and returns their ids in input order.
+     */
+    List<Long> insertAll(List<Task> tasks);
+    
+    /**
+     * Overwrites each existing task by id and bumps its version; a null status keeps the stored one.
+     */
+    void updateAll(List<Task> tasks);
+    
+    void deleteAll(List<Long> ids);
+    
+    /**
+     * Sets status and/or completion percentage without a read by the caller.
+     * Returns null when the task does not exist or {@code expectedVersion} is stale.
+     */
+    ProgressUpdate updateProgress(Long id, boolean setStatus, TaskStatus status,
+                                  boolean setCompletion, Integer completionPercentage,
+                                  Long expectedVersion, long changeSeq, LocalDateTime updatedAt);
+    
+    /**
+     * At most {@code limit} tasks matching the filter, positioned after
+     * {@code cursor}; archived tasks are included when the filter asks for them.
+     */
+    List<Task> findPage(TaskFilter filter, TaskCursor.Sort sort, TaskCursor cursor, int limit);
+    
+    /**
+     * Tasks whose change sequence is in ({@code since}, {@code upTo}], in sequence order.
+     */
+    List<Task> findChanged(long since, long upTo, int limit);
+    
+    /**
+     * All matching tasks in id order (live, then archived when asked for).
+     * The caller must hold a transaction and close the stream.
+     */
+    Stream<Task> streamAll(TaskFilter filter);
+    
+    /**
+     * Hits in rank order with only the task id set on {@code task}.
+     */
+    List<TaskSearchHitDTO> search(String text, int limit);
+    
+    /**
+     * Task counts per status across live and archived tasks.
+     */
+    Map<TaskStatus, Long> countByStatus();
+    
+    /**
+     * Rollup cells recomputed from live and archived tasks.
+     */
+    List<TaskRollupCell> aggregateRollups();
+    
+    Long findMaxChangeSeq();
+    
+    /**
+     * An archived task by id, or null; stores without an archive tier always return null.
+     */
+    Task findArchived(Long id);
+    
+    void deleteArchived(Long id);
+}
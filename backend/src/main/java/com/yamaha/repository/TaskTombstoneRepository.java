@@ -0,0 +1,19 @@
+package com.yamaha.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.yamaha.entity.TaskTombstone;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    
+    List<TaskTombstone> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(Long since, Long upTo, Pageable page);
+    
+    @Query("SELECT MAX(t.changeSeq) FROM TaskTombstone t")
+    Long findMaxChangeSeq();
+}
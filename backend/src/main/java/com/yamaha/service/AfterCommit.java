@@ -0,0 +1,46 @@
+package com.yamaha.service;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (counters, caches, notifications) until the
+ * surrounding transaction commits, so a rolled-back write leaves no trace.
+ * Runs the action immediately when no transaction is active.
+ */
+final class AfterCommit {
+    
+    private AfterCommit() {}
+    
+    static void run(Runnable action) {
+        register(action, 0);
+    }
+    
+    /**
+     * Like {@link #run}, but ordered after every other after-commit action of
+     * the transaction; used to publish the change sequence only once all
+     * derived state reflects the write.
+     */
+    static void runLast(Runnable action) {
+        register(action, Ordered.LOWEST_PRECEDENCE);
+    }
+    
+    private static void register(Runnable action, int order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return order;
+            }
+            
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
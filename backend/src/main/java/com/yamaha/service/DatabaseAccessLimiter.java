@@ -0,0 +1,131 @@
+package com.yamaha.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Caps concurrent database access when requests run on virtual threads.
+ * Without a platform thread pool in front of it, every request could reach
+ * SQLite at once; instead callers queue on a fair semaphore before a
+ * connection is checked out and the permit is returned when the connection
+ * is closed. The single writer thread takes its turn in the same queue.
+ * Startup fails on a runtime older than Java 21.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DatabaseAccessLimiter {
+    
+    private static final Logger log = LoggerFactory.getLogger(DatabaseAccessLimiter.class);
+    
+    static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+    
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Timer waitTimer;
+    
+    public DatabaseAccessLimiter(@Value("${tasks.db.max-concurrent-access:8}") int maxConcurrentAccess,
+                                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                 @Value("${tasks.db.acquire-timeout-ms:5000}") long acquireTimeoutMs,
+                                 MeterRegistry registry) {
+        // More permits than pooled connections would just move the queue into Hikari
+        int limit = Math.max(1, Math.min(maxConcurrentAccess, poolSize));
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.waitTimer = Timer.builder("tasks.db.access.wait")
+                .description("Time spent waiting for a database access permit")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("tasks.db.access.waiting", permits, Semaphore::getQueueLength)
+                .description("Callers queued for a database access permit")
+                .register(registry);
+        Gauge.builder("tasks.db.access.available", permits, Semaphore::availablePermits)
+                .description("Free database access permits")
+                .register(registry);
+        
+        // Spring ignores the property below 21; refuse to start rather than run on platform threads
+        if (Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+            throw new IllegalStateException("spring.threads.virtual.enabled is set but Java "
+                    + Runtime.version().feature() + " has no virtual threads; run on Java "
+                    + VIRTUAL_THREADS_JAVA_VERSION + " (mvn -Pvirtual-threads, or the Dockerfile's virtual target)");
+        }
+        log.info("Database access limited to {} concurrent connections", limit);
+    }
+    
+    public DataSource limit(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                acquire();
+                return releaseOnClose(() -> super.getConnection());
+            }
+            
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                acquire();
+                return releaseOnClose(() -> super.getConnection(username, password));
+            }
+        };
+    }
+    
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeoutMs + "ms waiting for database access");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for database access", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private Connection releaseOnClose(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(DatabaseAccessLimiter.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+    
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
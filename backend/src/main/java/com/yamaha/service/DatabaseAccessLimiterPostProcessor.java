@@ -0,0 +1,32 @@
+package com.yamaha.service;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts {@link DatabaseAccessLimiter} in front of the application DataSource,
+ * so JPA, JdbcTemplate and the export cursor all queue for the same permits.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DatabaseAccessLimiterPostProcessor implements BeanPostProcessor {
+    
+    // Resolved lazily: post-processors are created before the MeterRegistry
+    private final ObjectProvider<DatabaseAccessLimiter> limiter;
+    
+    public DatabaseAccessLimiterPostProcessor(ObjectProvider<DatabaseAccessLimiter> limiter) {
+        this.limiter = limiter;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return limiter.getObject().limit(dataSource);
+        }
+        return bean;
+    }
+}
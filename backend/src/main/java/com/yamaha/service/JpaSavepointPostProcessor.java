@@ -0,0 +1,104 @@
+package com.yamaha.service;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Gives JPA transactions JDBC savepoints, so {@link TaskWriteQueue} can run
+ * each mutation of a group commit as a PROPAGATION_NESTED transaction. The
+ * stock HibernateJpaDialect has none. The EntityManager is flushed before a
+ * savepoint is taken and cleared when rolling back to one, so it never holds
+ * state the database no longer has.
+ */
+@Component
+public class JpaSavepointPostProcessor implements BeanPostProcessor {
+    
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // Before afterPropertiesSet, which would fall back to the vendor adapter's dialect
+        if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+            entityManagerFactory.setJpaDialect(new SavepointJpaDialect());
+        }
+        return bean;
+    }
+    
+    private static class SavepointJpaDialect extends HibernateJpaDialect {
+    
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws PersistenceException, SQLException, TransactionException {
+            return new SavepointTransactionData(super.beginTransaction(entityManager, definition), entityManager);
+        }
+        
+        @Override
+        public void cleanupTransaction(Object transactionData) {
+            super.cleanupTransaction(transactionData instanceof SavepointTransactionData data
+                    ? data.delegate : transactionData);
+        }
+    }
+    
+    private static class SavepointTransactionData implements SavepointManager {
+    
+        private static final Logger log = LoggerFactory.getLogger(SavepointTransactionData.class);
+        
+        private final Object delegate;
+        private final EntityManager entityManager;
+        private int savepointCounter;
+        
+        SavepointTransactionData(Object delegate, EntityManager entityManager) {
+            this.delegate = delegate;
+            this.entityManager = entityManager;
+        }
+        
+        @Override
+        public Object createSavepoint() {
+            try {
+                entityManager.flush();
+                String name = "SAVEPOINT_" + ++savepointCounter;
+                return session().doReturningWork(connection -> connection.setSavepoint(name));
+            } catch (PersistenceException e) {
+                throw new CannotCreateTransactionException("Could not create JDBC savepoint", e);
+            }
+        }
+        
+        @Override
+        public void rollbackToSavepoint(Object savepoint) {
+            try {
+                session().doWork(connection -> connection.rollback((Savepoint) savepoint));
+            } catch (PersistenceException e) {
+                throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+            }
+            entityManager.clear();
+        }
+        
+        @Override
+        public void releaseSavepoint(Object savepoint) {
+            try {
+                session().doWork(connection -> connection.releaseSavepoint((Savepoint) savepoint));
+            } catch (PersistenceException e) {
+                // Released at commit anyway
+                log.debug("Could not explicitly release JDBC savepoint", e);
+            }
+        }
+        
+        private Session session() {
+            return entityManager.unwrap(Session.class);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.yamaha.service;
+
+/**
+ * JDBC work done on behalf of one request: statements executed, rows read
+ * and time spent inside the driver. The profile is attached to the request
+ * thread, and {@link TaskWriteQueue} re-attaches it on the writer thread
+ * while that request's mutation runs. Statements Hibernate defers to the
+ * group commit's flush, and the commit itself, belong to no single request
+ * and are not counted.
+ */
+public final class QueryProfile {
+    
+    private static final ThreadLocal<QueryProfile> CURRENT = new ThreadLocal<>();
+    
+    private long statements;
+    private long rowsRead;
+    private long jdbcNanos;
+    
+    /**
+     * The profile attached to this thread, or null.
+     */
+    public static QueryProfile current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Attaches {@code profile} (null detaches) and returns the previous one,
+     * to be restored when the caller is done.
+     */
+    public static QueryProfile attach(QueryProfile profile) {
+        QueryProfile previous = CURRENT.get();
+        if (profile == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(profile);
+        }
+        return previous;
+    }
+    
+    // Recorded from the writer thread too, hence synchronized
+    synchronized void statementExecuted(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+    
+    synchronized void rowFetched(boolean row, long nanos) {
+        if (row) {
+            rowsRead++;
+        }
+        jdbcNanos += nanos;
+    }
+    
+    public synchronized long getStatements() {
+        return statements;
+    }
+    
+    public synchronized long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public synchronized long getJdbcNanos() {
+        return jdbcNanos;
+    }
+}
@@ -0,0 +1,114 @@
+package com.yamaha.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the application DataSource in a JDBC proxy that records statement
+ * executions, fetched rows and time in the driver into the thread's
+ * {@link QueryProfile}. Without an attached profile a statement costs one
+ * thread-local lookup and its result set is not wrapped.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.query-profile.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryProfilingPostProcessor implements BeanPostProcessor {
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return profiled(super.getConnection());
+                }
+                
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return profiled(super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+    
+    private static Connection profiled(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            // createStatement, prepareStatement, prepareCall
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return profiled(statement, method.getReturnType());
+            }
+            return result;
+        });
+    }
+    
+    private static Object profiled(Statement statement, Class<?> type) {
+        return proxy(type, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                QueryProfile profile = QueryProfile.current();
+                if (profile == null) {
+                    return invoke(statement, method, args);
+                }
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = invoke(statement, method, args);
+                } finally {
+                    profile.statementExecuted(System.nanoTime() - start);
+                }
+                return result instanceof ResultSet resultSet ? profiled(resultSet, profile) : result;
+            }
+            if ("getResultSet".equals(name)) {
+                QueryProfile profile = QueryProfile.current();
+                Object result = invoke(statement, method, args);
+                return profile != null && result instanceof ResultSet resultSet ? profiled(resultSet, profile) : result;
+            }
+            return invoke(statement, method, args);
+        });
+    }
+    
+    private static ResultSet profiled(ResultSet resultSet, QueryProfile profile) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            if (!"next".equals(method.getName())) {
+                return invoke(resultSet, method, args);
+            }
+            // SQLite steps the query inside next(), so its time counts as JDBC time
+            long start = System.nanoTime();
+            boolean row = false;
+            try {
+                row = (Boolean) invoke(resultSet, method, args);
+                return row;
+            } finally {
+                profile.rowFetched(row, System.nanoTime() - start);
+            }
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryProfilingPostProcessor.class.getClassLoader(),
+                new Class<?>[] {type}, handler);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
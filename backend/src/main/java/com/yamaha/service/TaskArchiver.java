@@ -0,0 +1,107 @@
+package com.yamaha.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.yamaha.entity.TaskTombstone;
+import com.yamaha.repository.TaskArchiveRepository;
+import com.yamaha.repository.TaskBatchRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves COMPLETED tasks that have not been updated for
+ * {@code tasks.archive.completed-age-days} from tasks into task_archive.
+ * Each batch of {@code tasks.archive.batch-size} rows is its own mutation on
+ * the writer queue, so queued writes run between batches instead of waiting
+ * for the whole sweep.
+ *
+ * Archived tasks drop out of the live listing, search and facets but are
+ * still returned by id and, on request, by listing and export. Summary
+ * counts and rollups cover both tiers and do not change. Each archived id
+ * gets a tombstone marked archived and an ARCHIVED change event.
+ */
+@Component
+// The archive tier lives in SQLite next to the tasks table, so it needs the JPA store
+@ConditionalOnExpression("${tasks.archive.enabled:true} and '${tasks.store.type:jpa}' == 'jpa'")
+public class TaskArchiver {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+    
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+    
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private TaskChangeSequence changeSequence;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tasks.archive.completed-age-days:90}")
+    private int completedAgeDays;
+    
+    @Value("${tasks.archive.batch-size:200}")
+    private int batchSize;
+    
+    private Counter archived;
+    
+    @PostConstruct
+    public void init() {
+        archived = Counter.builder("tasks.archive.moved")
+                .description("Tasks moved from tasks to task_archive")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(initialDelayString = "${tasks.archive.interval-ms:3600000}",
+               fixedDelayString = "${tasks.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(completedAgeDays);
+        long total = 0;
+        int moved;
+        do {
+            moved = writeQueue.execute(() -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} completed tasks last updated before {}", total, cutoff);
+        }
+    }
+    
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = archiveRepository.findArchivable(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        archiveRepository.moveToArchive(ids, now);
+        List<TaskTombstone> tombstones = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            TaskTombstone tombstone = new TaskTombstone(changeSequence.next(), id, now, true);
+            tombstones.add(tombstone);
+            taskService.publishAfterCommit(TaskChangeEvent.archived(id, tombstone.getChangeSeq()));
+        }
+        taskBatchRepository.insertTombstones(tombstones);
+        AfterCommit.run(() -> archived.increment(ids.size()));
+        return ids.size();
+    }
+}
@@ -0,0 +1,278 @@
+package com.yamaha.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.yamaha.dto.BulkItemResultDTO;
+import com.yamaha.dto.BulkResultDTO;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.entity.TaskTombstone;
+import com.yamaha.repository.TaskBatchRepository;
+import com.yamaha.repository.TaskRollupCell;
+import com.yamaha.repository.TaskStore;
+
+/**
+ * Bulk create/update/delete. Input is split into chunks; each chunk is one
+ * batch write submitted to the single-writer queue. Items that fail validation are reported
+ * individually; a chunk that fails in the database is reported as failed
+ * item by item and does not affect the other chunks.
+ *
+ * Updates honour each item's {@code version} like a single update does:
+ * a stale item is reported as a conflict and the rest of its chunk is
+ * still written.
+ */
+@Service
+public class TaskBulkService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskBulkService.class);
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+    
+    @Autowired
+    private TaskSummaryCounters summaryCounters;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private TaskChangeSequence changeSequence;
+    
+    @Autowired
+    private TaskRollups rollups;
+    
+    @Value("${tasks.bulk.chunk-size:500}")
+    private int chunkSize;
+    
+    public BulkResultDTO createTasks(List<TaskDTO> tasks) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[tasks.size()];
+        
+        List<Integer> indexes = new ArrayList<>();
+        List<Task> entities = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskDTO dto = tasks.get(i);
+            String error = validate(dto);
+            if (error != null) {
+                results[i] = BulkItemResultDTO.failed(i, null, error);
+                continue;
+            }
+            taskService.applyCreateDefaults(dto);
+            Task task = taskService.convertToEntity(dto);
+            LocalDateTime now = LocalDateTime.now();
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            indexes.add(i);
+            entities.add(task);
+        }
+        
+        for (int start = 0; start < entities.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, entities.size());
+            List<Task> chunk = entities.subList(start, end);
+            List<Integer> chunkIndexes = indexes.subList(start, end);
+            try {
+                List<Long> ids = writeQueue.execute(() -> {
+                    chunk.forEach(task -> task.setChangeSeq(changeSequence.next()));
+                    List<Long> inserted = taskStore.insertAll(chunk);
+                    rollups.recordAll(List.of(), chunk.stream().map(TaskRollupCell::of).collect(Collectors.toList()));
+                    AfterCommit.run(() -> chunk.forEach(task -> summaryCounters.created(task.getStatus())));
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Task task = chunk.get(i);
+                        task.setId(inserted.get(i));
+                        task.setVersion(0L);
+                        taskService.publishAfterCommit(TaskChangeEvent.created(taskService.convertToDTO(task), task.getChangeSeq()));
+                    }
+                    return inserted;
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunkIndexes.get(i)] = BulkItemResultDTO.ok(chunkIndexes.get(i), ids.get(i));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bulk create chunk of {} failed: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunkIndexes) {
+                    results[index] = BulkItemResultDTO.failed(index, null, e.getMessage());
+                }
+            }
+        }
+        return new BulkResultDTO(List.of(results));
+    }
+    
+    public BulkResultDTO updateTasks(List<TaskDTO> tasks) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[tasks.size()];
+        
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskDTO dto = tasks.get(i);
+            String error = dto.getId() == null ? "id is required" : validate(dto);
+            if (error != null) {
+                results[i] = BulkItemResultDTO.failed(i, dto.getId(), error);
+            } else {
+                indexes.add(i);
+            }
+        }
+        
+        for (int start = 0; start < indexes.size(); start += chunkSize) {
+            List<Integer> chunkIndexes = indexes.subList(start, Math.min(start + chunkSize, indexes.size()));
+            List<Long> ids = new ArrayList<>(chunkIndexes.size());
+            for (Integer index : chunkIndexes) {
+                ids.add(tasks.get(index).getId());
+            }
+            try {
+                Map<Integer, String> failures = writeQueue.execute(() -> {
+                    Map<Long, Task> current = taskStore.findByIds(ids);
+                    Map<Integer, String> rejected = new HashMap<>();
+                    List<Task> found = new ArrayList<>();
+                    List<TaskStatus[]> transitions = new ArrayList<>();
+                    List<TaskRollupCell> removed = new ArrayList<>();
+                    LocalDateTime now = LocalDateTime.now();
+                    for (Integer index : chunkIndexes) {
+                        TaskDTO dto = tasks.get(index);
+                        Task before = current.get(dto.getId());
+                        if (before == null) {
+                            rejected.put(index, taskStore.findArchived(dto.getId()) != null
+                                    ? "Task is archived" : "Task not found");
+                            continue;
+                        }
+                        // Same check as TaskService.updateTask; a null version skips it
+                        if (dto.getVersion() != null && !dto.getVersion().equals(before.getVersion())) {
+                            rejected.put(index, "Version conflict: expected " + dto.getVersion()
+                                    + ", current " + before.getVersion());
+                            continue;
+                        }
+                        Task task = taskService.convertToEntity(dto);
+                        task.setId(dto.getId());
+                        task.setUpdatedAt(now);
+                        task.setChangeSeq(changeSequence.next());
+                        task.setVersion(before.getVersion() + 1);
+                        // Track the latest row in case the same id appears twice in a chunk
+                        TaskStatus after = dto.getStatus() != null ? dto.getStatus() : before.getStatus();
+                        task.setStatus(after);
+                        current.put(dto.getId(), task);
+                        transitions.add(new TaskStatus[] {before.getStatus(), after});
+                        removed.add(TaskRollupCell.of(before));
+                        found.add(task);
+                        taskService.publishAfterCommit(TaskChangeEvent.updated(taskService.convertToDTO(task), task.getChangeSeq()));
+                    }
+                    taskStore.updateAll(found);
+                    rollups.recordAll(removed, found.stream().map(TaskRollupCell::of).collect(Collectors.toList()));
+                    AfterCommit.run(() -> {
+                        transitions.forEach(t -> summaryCounters.transitioned(t[0], t[1]));
+                        found.forEach(task -> evict(task.getId()));
+                    });
+                    return rejected;
+                });
+                for (Integer index : chunkIndexes) {
+                    Long id = tasks.get(index).getId();
+                    String error = failures.get(index);
+                    results[index] = error == null ? BulkItemResultDTO.ok(index, id) : BulkItemResultDTO.failed(index, id, error);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bulk update chunk of {} failed: {}", chunkIndexes.size(), e.getMessage());
+                for (Integer index : chunkIndexes) {
+                    results[index] = BulkItemResultDTO.failed(index, tasks.get(index).getId(), e.getMessage());
+                }
+            }
+        }
+        return new BulkResultDTO(List.of(results));
+    }
+    
+    public BulkResultDTO deleteTasks(List<Long> ids) {
+        BulkItemResultDTO[] results = new BulkItemResultDTO[ids.size()];
+        
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, ids.size());
+            List<Long> chunk = ids.subList(start, end);
+            try {
+                Map<Long, Task> previous = writeQueue.execute(() -> {
+                    Map<Long, Task> existing = new LinkedHashMap<>(taskStore.findByIds(chunk));
+                    // Not live: like deleteTask, they may have been archived
+                    List<Long> archived = new ArrayList<>();
+                    for (Long id : chunk) {
+                        if (!existing.containsKey(id)) {
+                            Task task = taskStore.findArchived(id);
+                            if (task != null) {
+                                existing.put(id, task);
+                                archived.add(id);
+                            }
+                        }
+                    }
+                    List<TaskTombstone> tombstones = new ArrayList<>(existing.size());
+                    LocalDateTime now = LocalDateTime.now();
+                    for (Long id : existing.keySet()) {
+                        TaskTombstone tombstone = new TaskTombstone(changeSequence.next(), id, now);
+                        tombstones.add(tombstone);
+                        taskService.publishAfterCommit(TaskChangeEvent.deleted(id, tombstone.getChangeSeq()));
+                    }
+                    List<Long> live = new ArrayList<>(existing.keySet());
+                    live.removeAll(archived);
+                    taskStore.deleteAll(live);
+                    archived.forEach(taskStore::deleteArchived);
+                    taskBatchRepository.insertTombstones(tombstones);
+                    rollups.recordAll(existing.values().stream().map(TaskRollupCell::of).collect(Collectors.toList()), List.of());
+                    AfterCommit.run(() -> {
+                        existing.values().forEach(task -> summaryCounters.deleted(task.getStatus()));
+                        existing.keySet().forEach(this::evict);
+                    });
+                    return new HashMap<>(existing);
+                });
+                for (int i = start; i < end; i++) {
+                    // remove() so a repeated id is only reported once
+                    if (previous.remove(ids.get(i)) == null) {
+                        results[i] = BulkItemResultDTO.failed(i, ids.get(i), "Task not found");
+                    } else {
+                        results[i] = BulkItemResultDTO.ok(i, ids.get(i));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bulk delete chunk of {} failed: {}", chunk.size(), e.getMessage());
+                for (int i = start; i < end; i++) {
+                    results[i] = BulkItemResultDTO.failed(i, ids.get(i), e.getMessage());
+                }
+            }
+        }
+        return new BulkResultDTO(List.of(results));
+    }
+    
+    private void evict(Long id) {
+        Cache cache = cacheManager.getCache(TaskService.TASK_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+    
+    private String validate(TaskDTO dto) {
+        if (dto == null) {
+            return "task is required";
+        }
+        if (dto.getTaskName() == null) {
+            return "taskName is required";
+        }
+        if (dto.getResponsible() == null) {
+            return "responsible is required";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.yamaha.service;
+
+import com.yamaha.dto.TaskDTO;
+
+/**
+ * Published after a task write commits. {@code task} is the state after the
+ * write and is null for deletions and archivals (the task left the live table).
+ */
+public class TaskChangeEvent {
+    
+    public enum Type { CREATED, UPDATED, DELETED, ARCHIVED }
+    
+    private final Type type;
+    private final Long taskId;
+    private final TaskDTO task;
+    private final long changeSeq;
+    
+    public TaskChangeEvent(Type type, Long taskId, TaskDTO task, long changeSeq) {
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+        this.changeSeq = changeSeq;
+    }
+    
+    public static TaskChangeEvent created(TaskDTO task, long changeSeq) {
+        return new TaskChangeEvent(Type.CREATED, task.getId(), task, changeSeq);
+    }
+    
+    public static TaskChangeEvent updated(TaskDTO task, long changeSeq) {
+        return new TaskChangeEvent(Type.UPDATED, task.getId(), task, changeSeq);
+    }
+    
+    public static TaskChangeEvent deleted(Long taskId, long changeSeq) {
+        return new TaskChangeEvent(Type.DELETED, taskId, null, changeSeq);
+    }
+    
+    public static TaskChangeEvent archived(Long taskId, long changeSeq) {
+        return new TaskChangeEvent(Type.ARCHIVED, taskId, null, changeSeq);
+    }
+    
+    public Type getType() { return type; }
+    public Long getTaskId() { return taskId; }
+    public TaskDTO getTask() { return task; }
+    public long getChangeSeq() { return changeSeq; }
+}
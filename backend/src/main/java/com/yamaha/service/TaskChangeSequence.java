@@ -0,0 +1,64 @@
+package com.yamaha.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.repository.TaskRepository;
+import com.yamaha.repository.TaskStore;
+import com.yamaha.repository.TaskTombstoneRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Monotonic change sequence stamped on every task write and tombstone.
+ * Values are handed out on the single writer thread, so they commit in
+ * order; {@link #committed()} only advances after commit and is what
+ * change tokens and ETags are derived from.
+ */
+@Component
+public class TaskChangeSequence {
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final AtomicLong last = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> taskRepository.backfillChangeSeq());
+        long max = Math.max(orZero(taskStore.findMaxChangeSeq()), orZero(tombstoneRepository.findMaxChangeSeq()));
+        last.set(max);
+        committed.set(max);
+    }
+    
+    /**
+     * Allocates the next sequence value; it becomes visible through
+     * {@link #committed()} once the surrounding transaction commits.
+     */
+    public long next() {
+        long seq = last.incrementAndGet();
+        AfterCommit.runLast(() -> committed.accumulateAndGet(seq, Math::max));
+        return seq;
+    }
+    
+    public long committed() {
+        return committed.get();
+    }
+    
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,228 @@
+package com.yamaha.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory index of open (not COMPLETED) tasks by end date, keyed by epoch
+ * day. Built from the task store at startup and kept current from committed
+ * {@link TaskChangeEvent}s, so overdue and due-soon views are a range scan
+ * of the sorted map instead of a query over tasks.
+ *
+ * A task is overdue once the day after its end date begins. A single timer
+ * is armed for the next local midnight; when it fires, the tasks whose end
+ * date just passed are announced as a {@link TaskOverdueEvent}.
+ */
+@Component
+public class TaskDeadlineIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskDeadlineIndex.class);
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // epoch day -> ids of open tasks ending that day, in insertion order
+    private final NavigableMap<Long, Set<Long>> byDay = new TreeMap<>();
+    // task id -> epoch day, to find a task's bucket on update/delete
+    private final Map<Long, Long> dayById = new HashMap<>();
+    
+    // Day the last overdue check ran for; only the timer thread advances it
+    private LocalDate checkedDay;
+    private ScheduledFuture<?> timer;
+    private Counter overdueTransitions;
+    
+    @PostConstruct
+    public void rebuild() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        lock.writeLock().lock();
+        try {
+            byDay.clear();
+            dayById.clear();
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Task> tasks = taskStore.streamAll(null)) {
+                    tasks.filter(task -> task.getStatus() != TaskStatus.COMPLETED)
+                            .forEach(task -> add(task.getId(), task.getEndDate()));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Deadline index built over {} open tasks", dayById.size());
+        
+        Gauge.builder("tasks.deadline.open", this, TaskDeadlineIndex::size)
+                .description("Open tasks with an end date in the deadline index")
+                .register(meterRegistry);
+        overdueTransitions = Counter.builder("tasks.deadline.overdue")
+                .description("Open tasks that passed their end date")
+                .register(meterRegistry);
+        checkedDay = LocalDate.now();
+        arm();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.cancel(false);
+        }
+    }
+    
+    @EventListener
+    public void onTaskChange(TaskChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getTaskId());
+            TaskDTO task = event.getTask();
+            if (task != null && task.getStatus() != TaskStatus.COMPLETED) {
+                add(task.getId(), task.getEndDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Whether a task with this status and end date is overdue today, by the
+     * rule {@link #overdue} and the midnight check use. Judged from the task
+     * rather than looked up by id, so a write's own result reflects the row
+     * it wrote before the index hears of the change.
+     */
+    public boolean isOverdue(Task task) {
+        return task.getStatus() != TaskStatus.COMPLETED && task.getEndDate() != null
+                && task.getEndDate().isBefore(LocalDate.now());
+    }
+    
+    /**
+     * Ids of open tasks whose end date is before today, earliest first.
+     */
+    public List<Long> overdue(int limit) {
+        return idsBetween(Long.MIN_VALUE, LocalDate.now().toEpochDay() - 1, limit);
+    }
+    
+    /**
+     * Ids of open tasks ending today or within the next {@code days} days,
+     * earliest first.
+     */
+    public List<Long> dueWithin(int days, int limit) {
+        long today = LocalDate.now().toEpochDay();
+        return idsBetween(today, today + days, limit);
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return dayById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private List<Long> idsBetween(long fromDay, long toDay, int limit) {
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Set<Long> bucket : byDay.subMap(fromDay, true, toDay, true).values()) {
+                for (Long id : bucket) {
+                    if (ids.size() >= limit) {
+                        return ids;
+                    }
+                    ids.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+    
+    private void arm() {
+        ZoneId zone = ZoneId.systemDefault();
+        timer = taskScheduler.schedule(this::fire, LocalDate.now().plusDays(1).atStartOfDay(zone).toInstant());
+    }
+    
+    private void fire() {
+        try {
+            LocalDate today = LocalDate.now();
+            // Covers every day since the last check, in case the timer ran late
+            if (today.isAfter(checkedDay)) {
+                List<Long> ids = idsBetween(checkedDay.toEpochDay(), today.toEpochDay() - 1, Integer.MAX_VALUE);
+                checkedDay = today;
+                if (!ids.isEmpty()) {
+                    log.info("{} open tasks became overdue on {}", ids.size(), today);
+                    overdueTransitions.increment(ids.size());
+                    eventPublisher.publishEvent(new TaskOverdueEvent(today, ids));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Overdue check failed: {}", e.getMessage());
+        } finally {
+            arm();
+        }
+    }
+    
+    private void add(Long id, LocalDate endDate) {
+        if (endDate == null) {
+            return;
+        }
+        long day = endDate.toEpochDay();
+        byDay.computeIfAbsent(day, d -> new LinkedHashSet<>()).add(id);
+        dayById.put(id, day);
+    }
+    
+    private void remove(Long id) {
+        Long day = dayById.remove(id);
+        if (day == null) {
+            return;
+        }
+        Set<Long> bucket = byDay.get(day);
+        bucket.remove(id);
+        if (bucket.isEmpty()) {
+            byDay.remove(day);
+        }
+    }
+}
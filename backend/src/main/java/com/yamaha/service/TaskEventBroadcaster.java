@@ -0,0 +1,359 @@
+package com.yamaha.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed task changes and summary updates to Server-Sent Events
+ * subscribers. Connections are held by servlet async I/O, not threads; a
+ * small dispatcher pool writes to subscribers that have pending events.
+ *
+ * Change events arrive on the writer thread, which only drops them into a
+ * bounded fan-out queue; one fan-out thread copies them to the subscribers.
+ * If that queue fills, the events are dropped and every subscriber is told
+ * to resync. A send can still block when a client stops reading, so a
+ * subscriber whose send has not returned within
+ * {@code tasks.events.send-timeout-ms} is unsubscribed and its dispatcher
+ * thread replaced (up to {@code tasks.events.max-blocked-sends}); the
+ * blocked thread closes the stream once the write fails.
+ *
+ * Each subscriber has a bounded buffer keyed by task id, so repeated changes
+ * to one task coalesce into its latest state and the summary is sent at most
+ * once per drain. Clients should treat created/updated as upserts. A
+ * subscriber whose buffer still overflows is told to resync via
+ * /api/tasks/changes instead of receiving every event. Tasks passing their
+ * end date are announced as one "task-overdue" event per day.
+ */
+@Component
+public class TaskEventBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+    
+    private static final String SUMMARY_KEY = "summary";
+    private static final String HEARTBEAT_KEY = "heartbeat";
+    private static final String RESYNC_KEY = "resync";
+    
+    @Autowired
+    private TaskSummaryCounters summaryCounters;
+    
+    @Autowired
+    private TaskChangeSequence changeSequence;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tasks.events.buffer-size:256}")
+    private int bufferSize;
+    
+    @Value("${tasks.events.max-subscribers:5000}")
+    private int maxSubscribers;
+    
+    @Value("${tasks.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+    
+    @Value("${tasks.events.dispatch-threads:4}")
+    private int dispatchThreads;
+    
+    @Value("${tasks.events.fanout-queue-size:10000}")
+    private int fanoutQueueSize;
+    
+    @Value("${tasks.events.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+    
+    @Value("${tasks.events.max-blocked-sends:64}")
+    private int maxBlockedSends;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private BlockingQueue<Object> fanout;
+    // Set when fanout was full and events were dropped
+    private final AtomicBoolean fanoutOverflowed = new AtomicBoolean();
+    private Thread fanoutThread;
+    private ThreadPoolExecutor dispatcher;
+    private int blockedSends;
+    private Counter overflows;
+    private Counter stuck;
+    
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "task-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        fanout = new ArrayBlockingQueue<>(fanoutQueueSize);
+        fanoutThread = new Thread(this::fanoutLoop, "task-events-fanout");
+        fanoutThread.setDaemon(true);
+        fanoutThread.start();
+        Gauge.builder("tasks.events.subscribers", subscribers, Set::size)
+                .description("Open task event streams")
+                .register(meterRegistry);
+        overflows = Counter.builder("tasks.events.overflows")
+                .description("Subscriber buffers that overflowed and were asked to resync")
+                .register(meterRegistry);
+        stuck = Counter.builder("tasks.events.stuck")
+                .description("Subscribers dropped because a send did not return within the send timeout")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        fanoutThread.interrupt();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+    
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMs));
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many event subscribers");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        
+        // Start every stream with the current summary
+        offer(subscriber, SUMMARY_KEY, SUMMARY_KEY);
+        return emitter;
+    }
+    
+    // Published after commit on the writer thread: never block it, never loop over subscribers on it
+    @EventListener
+    public void onTaskChange(TaskChangeEvent event) {
+        enqueue(event);
+    }
+    
+    @EventListener
+    public void onTaskOverdue(TaskOverdueEvent event) {
+        enqueue(event);
+    }
+    
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, HEARTBEAT_KEY, HEARTBEAT_KEY);
+        }
+    }
+    
+    /**
+     * Unsubscribes subscribers whose current send has not returned within the
+     * send timeout, so they get no further events, and lends the pool a thread
+     * for each one while its dispatcher thread is blocked. The emitter is not
+     * touched here: it is locked by the blocked send.
+     */
+    @Scheduled(fixedDelayString = "${tasks.events.send-timeout-ms:10000}")
+    public void dropStuckSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)
+                    && subscribers.remove(subscriber)) {
+                log.debug("Dropping event subscriber blocked in a send for over {} ms", sendTimeoutMs);
+                stuck.increment();
+                synchronized (subscriber) {
+                    subscriber.pending.clear();
+                    subscriber.replaced = lendThread();
+                }
+            }
+        }
+    }
+    
+    private void enqueue(Object event) {
+        if (!fanout.offer(event)) {
+            if (fanoutOverflowed.compareAndSet(false, true)) {
+                log.warn("Task event fan-out queue is full, asking subscribers to resync");
+            }
+        }
+    }
+    
+    private void fanoutLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Object event = fanout.poll(1, TimeUnit.SECONDS);
+                if (fanoutOverflowed.getAndSet(false)) {
+                    // Dropped events are somewhere after each subscriber's last id; /changes has them all
+                    fanout.clear();
+                    for (Subscriber subscriber : subscribers) {
+                        resync(subscriber);
+                    }
+                    continue;
+                }
+                if (event instanceof TaskChangeEvent change) {
+                    String key = "task:" + change.getTaskId();
+                    for (Subscriber subscriber : subscribers) {
+                        offer(subscriber, key, change);
+                        offer(subscriber, SUMMARY_KEY, SUMMARY_KEY);
+                    }
+                } else if (event instanceof TaskOverdueEvent overdue) {
+                    String key = "overdue:" + overdue.getDate();
+                    for (Subscriber subscriber : subscribers) {
+                        offer(subscriber, key, overdue);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Task event fan-out failed", e);
+            }
+        }
+    }
+    
+    private void resync(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.pending.clear();
+            subscriber.pending.put(RESYNC_KEY, RESYNC_KEY);
+            overflows.increment();
+            schedule(subscriber);
+        }
+    }
+    
+    private void offer(Subscriber subscriber, String key, Object item) {
+        synchronized (subscriber) {
+            if (!subscriber.pending.containsKey(key) && subscriber.pending.size() >= bufferSize) {
+                subscriber.pending.clear();
+                subscriber.pending.put(RESYNC_KEY, RESYNC_KEY);
+                overflows.increment();
+            }
+            subscriber.pending.put(key, item);
+            schedule(subscriber);
+        }
+    }
+    
+    // Caller holds the subscriber's lock
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled) {
+            subscriber.scheduled = true;
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+    
+    private synchronized boolean lendThread() {
+        if (blockedSends >= maxBlockedSends) {
+            log.warn("{} event sends are blocked; not adding dispatcher threads", blockedSends);
+            return false;
+        }
+        blockedSends++;
+        dispatcher.setMaximumPoolSize(dispatchThreads + blockedSends);
+        dispatcher.setCorePoolSize(dispatchThreads + blockedSends);
+        return true;
+    }
+    
+    private synchronized void returnThread() {
+        blockedSends--;
+        dispatcher.setCorePoolSize(dispatchThreads + blockedSends);
+        dispatcher.setMaximumPoolSize(dispatchThreads + blockedSends);
+    }
+    
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            List<Object> batch;
+            synchronized (subscriber) {
+                if (subscriber.pending.isEmpty()) {
+                    subscriber.scheduled = false;
+                    return;
+                }
+                batch = new ArrayList<>(subscriber.pending.values());
+                subscriber.pending.clear();
+            }
+            try {
+                for (Object item : batch) {
+                    subscriber.sendingSince = System.nanoTime();
+                    send(subscriber.emitter, item);
+                    subscriber.sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping event subscriber: {}", e.getMessage());
+                subscriber.sendingSince = 0;
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                finishDropped(subscriber);
+                return;
+            }
+            if (!subscribers.contains(subscriber)) {
+                // Dropped as stuck while this send was blocked, or completed by the client
+                subscriber.emitter.complete();
+                finishDropped(subscriber);
+                return;
+            }
+        }
+    }
+    
+    private void finishDropped(Subscriber subscriber) {
+        boolean replaced;
+        synchronized (subscriber) {
+            subscriber.pending.clear();
+            subscriber.scheduled = false;
+            replaced = subscriber.replaced;
+            subscriber.replaced = false;
+        }
+        if (replaced) {
+            returnThread();
+        }
+    }
+    
+    private void send(SseEmitter emitter, Object item) throws IOException {
+        if (item instanceof TaskChangeEvent event) {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getChangeSeq()))
+                    .name("task-" + event.getType().name().toLowerCase())
+                    .data(event));
+        } else if (item instanceof TaskOverdueEvent event) {
+            emitter.send(SseEmitter.event().name("task-overdue").data(event));
+        } else if (SUMMARY_KEY.equals(item)) {
+            emitter.send(SseEmitter.event().name(SUMMARY_KEY).data(summaryCounters.snapshot()));
+        } else if (RESYNC_KEY.equals(item)) {
+            emitter.send(SseEmitter.event().name(RESYNC_KEY).data(changeSequence.committed()));
+        } else {
+            emitter.send(SseEmitter.event().comment(HEARTBEAT_KEY));
+        }
+    }
+    
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // Insertion-ordered; re-putting a key keeps its slot and replaces the value
+        private final Map<String, Object> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        // System.nanoTime() when the send in progress started, 0 between sends
+        private volatile long sendingSince;
+        // Dropped as stuck and given a stand-in dispatcher thread, returned when the send ends
+        private boolean replaced;
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
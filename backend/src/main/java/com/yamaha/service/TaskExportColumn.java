@@ -0,0 +1,66 @@
+package com.yamaha.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.yamaha.entity.Task;
+
+/**
+ * Columns available to the export endpoint, in default output order.
+ */
+public enum TaskExportColumn {
+    ID("id", Task::getId),
+    TASK_NAME("taskName", Task::getTaskName),
+    START_DATE("startDate", Task::getStartDate),
+    END_DATE("endDate", Task::getEndDate),
+    RESPONSIBLE("responsible", Task::getResponsible),
+    STATUS("status", Task::getStatus),
+    REMARKS("remarks", Task::getRemarks),
+    PRIORITY("priority", Task::getPriority),
+    CATEGORY("category", Task::getCategory),
+    ESTIMATED_HOURS("estimatedHours", Task::getEstimatedHours),
+    ACTUAL_HOURS("actualHours", Task::getActualHours),
+    COMPLETION_PERCENTAGE("completionPercentage", Task::getCompletionPercentage),
+    DEPARTMENT("department", Task::getDepartment),
+    IS_CRITICAL("isCritical", Task::getIsCritical),
+    CREATED_AT("createdAt", Task::getCreatedAt),
+    UPDATED_AT("updatedAt", Task::getUpdatedAt);
+    
+    private final String fieldName;
+    private final Function<Task, Object> extractor;
+    
+    TaskExportColumn(String fieldName, Function<Task, Object> extractor) {
+        this.fieldName = fieldName;
+        this.extractor = extractor;
+    }
+    
+    public String getFieldName() { return fieldName; }
+    
+    public Object valueOf(Task task) {
+        return extractor.apply(task);
+    }
+    
+    /**
+     * Resolves a list of DTO field names; null or empty selects every column.
+     */
+    public static List<TaskExportColumn> parse(List<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty()) {
+            return List.of(values());
+        }
+        List<TaskExportColumn> columns = new ArrayList<>(fieldNames.size());
+        for (String name : fieldNames) {
+            columns.add(byFieldName(name.trim()));
+        }
+        return columns;
+    }
+    
+    private static TaskExportColumn byFieldName(String name) {
+        for (TaskExportColumn column : values()) {
+            if (column.fieldName.equals(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export field: " + name);
+    }
+}
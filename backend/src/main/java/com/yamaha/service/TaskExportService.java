@@ -0,0 +1,127 @@
+package com.yamaha.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.entity.Task;
+import com.yamaha.repository.TaskStore;
+
+/**
+ * Streams tasks from the task store (a database cursor with the default
+ * store) to the response, one row at a time, so memory use does not depend
+ * on the table size.
+ */
+@Service
+public class TaskExportService {
+    
+    public enum Format { NDJSON, CSV }
+    
+    // Rows between explicit flushes; the first row is flushed immediately
+    private static final int FLUSH_INTERVAL = 1000;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public void export(TaskFilter filter, List<TaskExportColumn> columns, Format format, OutputStream out) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Task> tasks = taskStore.streamAll(filter)) {
+                if (format == Format.CSV) {
+                    writeCsv(tasks.iterator(), columns, out);
+                } else {
+                    writeNdjson(tasks.iterator(), columns, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private void writeNdjson(Iterator<Task> tasks, List<TaskExportColumn> columns, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        long rows = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            json.writeStartObject();
+            for (TaskExportColumn column : columns) {
+                json.writeFieldName(column.getFieldName());
+                json.writeObject(column.valueOf(task));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+            if (++rows == 1 || rows % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        }
+        json.flush();
+    }
+    
+    private void writeCsv(Iterator<Task> tasks, List<TaskExportColumn> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).getFieldName());
+        }
+        writer.write("\r\n");
+        writer.flush();
+        
+        long rows = 0;
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).valueOf(task);
+                if (value != null) {
+                    writeCsvValue(writer, value.toString());
+                }
+            }
+            writer.write("\r\n");
+            if (++rows % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+    
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
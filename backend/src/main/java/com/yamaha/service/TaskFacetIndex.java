@@ -0,0 +1,196 @@
+package com.yamaha.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.dto.FacetQueryDTO;
+import com.yamaha.dto.FacetResultDTO;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.repository.TaskStore;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory facet index: one compressed (Roaring) bitmap of task ids per
+ * value of status, priority, department, category and isCritical. Built
+ * from the task store at startup and kept current from committed
+ * {@link TaskChangeEvent}s; facet queries never touch SQLite.
+ */
+@Component
+public class TaskFacetIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskFacetIndex.class);
+    
+    static final List<String> FACETS = List.of("status", "priority", "department", "category", "isCritical");
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${tasks.page.max-size:1000}")
+    private int maxIds;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    // facet name -> facet value -> task ids
+    private final Map<String, Map<String, RoaringBitmap>> facets = new HashMap<>();
+    
+    public TaskFacetIndex() {
+        for (String facet : FACETS) {
+            facets.put(facet, new HashMap<>());
+        }
+    }
+    
+    @PostConstruct
+    public void rebuild() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            facets.values().forEach(Map::clear);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Task> tasks = taskStore.streamAll(null)) {
+                    tasks.forEach(task -> add(toIntId(task.getId()), task.getStatus(), task.getPriority(),
+                            task.getDepartment(), task.getCategory(), task.getIsCritical()));
+                }
+            });
+            facets.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index built over {} tasks", all.getCardinality());
+    }
+    
+    @EventListener
+    public void onTaskChange(TaskChangeEvent event) {
+        int id = toIntId(event.getTaskId());
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            TaskDTO task = event.getTask();
+            if (task != null) {
+                add(id, task.getStatus(), task.getPriority(), task.getDepartment(), task.getCategory(), task.getIsCritical());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Evaluates the expression and returns the match count, up to
+     * {@code limit} matching ids in ascending order, and per-facet value
+     * counts within the matches.
+     */
+    public FacetResultDTO query(FacetQueryDTO query, Integer limit) {
+        int idLimit = limit == null ? 100 : Math.max(0, Math.min(limit, maxIds));
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = evaluate(query);
+            
+            List<Long> ids = new ArrayList<>(Math.min(idLimit, matches.getCardinality()));
+            IntIterator it = matches.getIntIterator();
+            while (it.hasNext() && ids.size() < idLimit) {
+                ids.add((long) it.next());
+            }
+            
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                Map<String, Long> valueCounts = new LinkedHashMap<>();
+                facets.get(facet).forEach((value, bitmap) -> {
+                    long count = RoaringBitmap.andCardinality(matches, bitmap);
+                    if (count > 0) {
+                        valueCounts.put(value, count);
+                    }
+                });
+                counts.put(facet, valueCounts);
+            }
+            return new FacetResultDTO(matches.getLongCardinality(), ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Returned bitmaps may be index-owned; callers must not mutate them
+    private RoaringBitmap evaluate(FacetQueryDTO query) {
+        if (query == null) {
+            return all;
+        }
+        if (query.getAnd() != null) {
+            RoaringBitmap result = all;
+            for (FacetQueryDTO term : query.getAnd()) {
+                result = RoaringBitmap.and(result, evaluate(term));
+            }
+            return result;
+        }
+        if (query.getOr() != null) {
+            RoaringBitmap result = new RoaringBitmap();
+            for (FacetQueryDTO term : query.getOr()) {
+                result = RoaringBitmap.or(result, evaluate(term));
+            }
+            return result;
+        }
+        if (query.getNot() != null) {
+            return RoaringBitmap.andNot(all, evaluate(query.getNot()));
+        }
+        if (query.getField() == null) {
+            return all;
+        }
+        Map<String, RoaringBitmap> values = facets.get(query.getField());
+        if (values == null) {
+            throw new IllegalArgumentException("Unknown facet: " + query.getField());
+        }
+        RoaringBitmap bitmap = values.get(query.getValue());
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+    
+    private void add(int id, Object status, Object priority, Object department, Object category, Object isCritical) {
+        all.add(id);
+        addValue("status", status, id);
+        addValue("priority", priority, id);
+        addValue("department", department, id);
+        addValue("category", category, id);
+        addValue("isCritical", isCritical, id);
+    }
+    
+    private void addValue(String facet, Object value, int id) {
+        if (value != null) {
+            facets.get(facet).computeIfAbsent(String.valueOf(value), v -> new RoaringBitmap()).add(id);
+        }
+    }
+    
+    private void remove(int id) {
+        if (!all.checkedRemove(id)) {
+            return;
+        }
+        for (Map<String, RoaringBitmap> values : facets.values()) {
+            values.values().removeIf(bitmap -> {
+                bitmap.remove(id);
+                return bitmap.isEmpty();
+            });
+        }
+    }
+    
+    private static int toIntId(Long id) {
+        return Math.toIntExact(id);
+    }
+}
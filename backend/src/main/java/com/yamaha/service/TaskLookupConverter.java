@@ -0,0 +1,59 @@
+package com.yamaha.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.yamaha.repository.TaskLookupTable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps the name-valued Task attributes onto their lookup table ids through
+ * {@link TaskLookups}. Hibernate obtains converters from the Spring context;
+ * the dictionary is injected lazily because it is needed only once queries
+ * run, after the EntityManagerFactory it would otherwise wait on.
+ */
+public abstract class TaskLookupConverter implements AttributeConverter<String, Integer> {
+    
+    private final TaskLookupTable table;
+    
+    @Autowired
+    @Lazy
+    private TaskLookups lookups;
+    
+    protected TaskLookupConverter(TaskLookupTable table) {
+        this.table = table;
+    }
+    
+    @Override
+    public Integer convertToDatabaseColumn(String name) {
+        return name != null ? lookups.idOf(table, name) : null;
+    }
+    
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id != null ? lookups.nameOf(table, id) : null;
+    }
+    
+    @Converter
+    public static class Department extends TaskLookupConverter {
+        public Department() {
+            super(TaskLookupTable.DEPARTMENT);
+        }
+    }
+    
+    @Converter
+    public static class Category extends TaskLookupConverter {
+        public Category() {
+            super(TaskLookupTable.CATEGORY);
+        }
+    }
+    
+    @Converter
+    public static class Responsible extends TaskLookupConverter {
+        public Responsible() {
+            super(TaskLookupTable.RESPONSIBLE);
+        }
+    }
+}
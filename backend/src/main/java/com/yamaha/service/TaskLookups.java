@@ -0,0 +1,135 @@
+package com.yamaha.service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.yamaha.entity.Task;
+import com.yamaha.repository.TaskLookupRepository;
+import com.yamaha.repository.TaskLookupTable;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory interning dictionary over the department, category and
+ * responsible lookup tables. Each distinct name is held as one String
+ * instance that every task loaded through JPA shares (see
+ * {@link TaskLookupConverter}), and ids resolve without touching the database.
+ *
+ * Misses fall back to the database, e.g. for names added by the JDBC bulk
+ * paths. A name that does not exist yet is only inserted inside a read-write
+ * transaction, i.e. by a write on the writer thread; filters on unknown names
+ * get {@link #UNKNOWN_ID}, which matches no task. Entries found or created
+ * inside a transaction are cached once it commits, since a rolled-back id can
+ * be handed out again.
+ */
+@Service
+public class TaskLookups {
+    
+    public static final int UNKNOWN_ID = -1;
+    
+    @Autowired
+    private TaskLookupRepository lookupRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<TaskLookupTable, Dictionary> dictionaries = new EnumMap<>(TaskLookupTable.class);
+    
+    @PostConstruct
+    public void load() {
+        for (TaskLookupTable table : TaskLookupTable.values()) {
+            Dictionary dictionary = new Dictionary();
+            lookupRepository.findAll(table).forEach(dictionary::put);
+            dictionaries.put(table, dictionary);
+            Gauge.builder("tasks.lookups.size", dictionary.names, Map::size)
+                    .description("Distinct names held by the lookup dictionary")
+                    .tag("table", table.getTableName())
+                    .register(meterRegistry);
+        }
+    }
+    
+    public int idOf(TaskLookupTable table, String name) {
+        Dictionary dictionary = dictionaries.get(table);
+        Integer id = dictionary.ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        id = lookupRepository.findId(table, name);
+        if (id == null) {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()
+                    || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return UNKNOWN_ID;
+            }
+            id = lookupRepository.insert(table, name);
+        }
+        remember(dictionary, id, name);
+        return id;
+    }
+    
+    /**
+     * Adds the department, category and responsible names of {@code tasks}
+     * that the dictionary does not know yet, in one batch per table, ahead of
+     * a JDBC batch write. Without it the names reach the tables behind the
+     * dictionary's back, and the next reads resolve each one with a query.
+     * Must run in the write's transaction, like inserts through {@link #idOf}.
+     */
+    public void internAll(List<Task> tasks) {
+        internAll(TaskLookupTable.RESPONSIBLE, tasks.stream().map(Task::getResponsible).collect(Collectors.toList()));
+        internAll(TaskLookupTable.CATEGORY, tasks.stream().map(Task::getCategory).collect(Collectors.toList()));
+        internAll(TaskLookupTable.DEPARTMENT, tasks.stream().map(Task::getDepartment).collect(Collectors.toList()));
+    }
+    
+    private void internAll(TaskLookupTable table, Collection<String> names) {
+        Dictionary dictionary = dictionaries.get(table);
+        List<String> missing = names.stream()
+                .filter(Objects::nonNull)
+                .filter(name -> !dictionary.ids.containsKey(name))
+                .distinct()
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        lookupRepository.insertMissing(table, missing);
+        lookupRepository.findIds(table, missing).forEach((name, id) -> remember(dictionary, id, name));
+    }
+    
+    public String nameOf(TaskLookupTable table, int id) {
+        Dictionary dictionary = dictionaries.get(table);
+        String name = dictionary.names.get(id);
+        if (name != null) {
+            return name;
+        }
+        name = lookupRepository.findName(table, id);
+        if (name == null) {
+            throw new IllegalStateException("No " + table.getTableName() + " row with id " + id);
+        }
+        remember(dictionary, id, name);
+        return name;
+    }
+    
+    private static void remember(Dictionary dictionary, int id, String name) {
+        AfterCommit.run(() -> dictionary.put(id, name));
+    }
+    
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final Map<Integer, String> names = new ConcurrentHashMap<>();
+        
+        void put(Integer id, String name) {
+            // Keep the first instance so earlier readers and later ones share it
+            String canonical = names.putIfAbsent(id, name);
+            ids.putIfAbsent(canonical != null ? canonical : name, id);
+        }
+    }
+}
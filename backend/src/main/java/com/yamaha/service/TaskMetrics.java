@@ -0,0 +1,38 @@
+package com.yamaha.service;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application-level meters for the task service. Request latency per endpoint
+ * (http.server.requests) and repository call timings
+ * (spring.data.repository.invocations) are recorded by Spring Boot Actuator,
+ * and the JdbcTemplate bulk paths by TaskBatchRepository
+ * (tasks.batch.invocations); everything is scraped from /actuator/prometheus.
+ */
+@Component
+public class TaskMetrics {
+    
+    private final DistributionSummary rowsReturned;
+    private final Counter dtoConversions;
+    
+    public TaskMetrics(MeterRegistry registry) {
+        this.rowsReturned = DistributionSummary.builder("tasks.list.rows")
+                .description("Rows returned per task list page")
+                .register(registry);
+        this.dtoConversions = Counter.builder("tasks.dto.conversions")
+                .description("Task entities converted to DTOs")
+                .register(registry);
+    }
+    
+    public void rowsReturned(int rows) {
+        rowsReturned.record(rows);
+    }
+    
+    public void dtoConverted() {
+        dtoConversions.increment();
+    }
+}
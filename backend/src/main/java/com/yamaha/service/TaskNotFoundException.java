@@ -0,0 +1,11 @@
+package com.yamaha.service;
+
+/**
+ * No live or archived task has the requested id.
+ */
+public class TaskNotFoundException extends RuntimeException {
+    
+    public TaskNotFoundException(Long id) {
+        super("Task not found with id: " + id);
+    }
+}
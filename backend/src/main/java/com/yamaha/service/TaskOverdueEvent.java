@@ -0,0 +1,28 @@
+package com.yamaha.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published when open tasks pass their end date: {@code taskIds} were not
+ * COMPLETED when {@code date} began and have an end date before it.
+ *
+ * Nothing is written when a task becomes overdue, so no TaskChangeEvent or
+ * change sequence marks it; this event is what tells holders of a
+ * {@code TaskDTO} that its {@code overdue} flag is now true. TaskService
+ * drops the cached DTOs, and TaskEventBroadcaster sends it to SSE clients as
+ * "task-overdue" so they can flag the tasks they hold without refetching.
+ */
+public class TaskOverdueEvent {
+    
+    private final LocalDate date;
+    private final List<Long> taskIds;
+    
+    public TaskOverdueEvent(LocalDate date, List<Long> taskIds) {
+        this.date = date;
+        this.taskIds = taskIds;
+    }
+    
+    public LocalDate getDate() { return date; }
+    public List<Long> getTaskIds() { return taskIds; }
+}
@@ -0,0 +1,41 @@
+package com.yamaha.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps SQLite's planner statistics for tasks current. Without them the
+ * planner sees every range as a quarter of the table, and an end_date
+ * filter sorted by id always scans the table in id order instead of using
+ * idx_tasks_end_date. ANALYZE also samples index values (sqlite_stat4),
+ * so a selective date searches the index and a broad one keeps the scan.
+ * ANALYZE writes the stat tables, so it runs on the writer queue.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.store.type", havingValue = "jpa", matchIfMissing = true)
+public class TaskQueryStatistics {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskQueryStatistics.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Scheduled(initialDelayString = "${tasks.statistics.initial-delay-ms:60000}",
+               fixedDelayString = "${tasks.statistics.interval-ms:3600000}")
+    public void analyze() {
+        long start = System.nanoTime();
+        writeQueue.execute(() -> {
+            jdbcTemplate.execute("ANALYZE tasks");
+            return null;
+        });
+        log.debug("Analyzed tasks in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
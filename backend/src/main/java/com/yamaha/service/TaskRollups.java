@@ -0,0 +1,197 @@
+package com.yamaha.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.yamaha.dto.TaskRollupDTO;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskRollupCell;
+import com.yamaha.repository.TaskRollupRepository;
+import com.yamaha.repository.TaskStore;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-department and per-category analytics kept as rollup cells (one per
+ * department, category, status, priority and critical flag). Every task
+ * write records its before/after contribution: the delta is upserted into
+ * task_rollup_cells inside the write's transaction and merged into the
+ * in-memory snapshot after commit. Breakdowns are then a pass over a few
+ * hundred cells instead of a scan of tasks.
+ *
+ * Archived tasks stay counted: moving a task to task_archive is not a
+ * write here. A scheduled job recomputes the cells from both tiers on the
+ * writer thread and corrects the table and the snapshot if either has drifted.
+ */
+@Component
+public class TaskRollups {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskRollups.class);
+    
+    @Autowired
+    private TaskRollupRepository rollupRepository;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    // Replaced wholesale after each commit; only the writer thread assigns it
+    private volatile Map<String, TaskRollupCell> cells = Collections.emptyMap();
+    
+    @PostConstruct
+    public void load() {
+        cells = index(rollupRepository.findAll());
+    }
+    
+    /**
+     * Accounts for one task write; {@code before} is null for a create and
+     * {@code after} is null for a delete. Must be called inside the write's
+     * transaction.
+     */
+    public void record(TaskRollupCell before, TaskRollupCell after) {
+        recordAll(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+    
+    public void recordAll(Collection<TaskRollupCell> before, Collection<TaskRollupCell> after) {
+        Map<String, TaskRollupCell> deltas = new HashMap<>();
+        before.forEach(cell -> deltas.merge(cell.key(), cell.negate(), (a, b) -> a.plus(b, 1)));
+        after.forEach(cell -> deltas.merge(cell.key(), cell, (a, b) -> a.plus(b, 1)));
+        deltas.values().removeIf(TaskRollupCell::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        rollupRepository.applyDeltas(deltas.values());
+        AfterCommit.run(() -> merge(deltas.values()));
+    }
+    
+    @Scheduled(initialDelayString = "${tasks.rollups.reconcile-interval-ms:600000}",
+               fixedDelayString = "${tasks.rollups.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        // On the writer so no delta lands between the scan and the comparison
+        writeQueue.execute(() -> {
+            Map<String, TaskRollupCell> actual = index(taskStore.aggregateRollups());
+            if (!sameCells(actual, index(rollupRepository.findAll()))) {
+                log.warn("Rollup table drifted from tasks, rewriting {} cells", actual.size());
+                rollupRepository.replaceAll(actual.values());
+            }
+            AfterCommit.run(() -> {
+                if (!sameCells(actual, cells)) {
+                    log.warn("Rollup snapshot drifted from tasks, replacing");
+                    cells = actual;
+                }
+            });
+            return null;
+        });
+    }
+    
+    public List<TaskRollupDTO> byDepartment() {
+        return groupBy(TaskRollupCell::getDepartment);
+    }
+    
+    public List<TaskRollupDTO> byCategory() {
+        return groupBy(TaskRollupCell::getCategory);
+    }
+    
+    private List<TaskRollupDTO> groupBy(Function<TaskRollupCell, String> dimension) {
+        Map<String, TaskRollupDTO> groups = new TreeMap<>();
+        Map<String, long[]> completion = new HashMap<>();
+        for (TaskRollupCell cell : cells.values()) {
+            String key = dimension.apply(cell);
+            TaskRollupDTO group = groups.computeIfAbsent(key, TaskRollups::emptyGroup);
+            group.setTotalTasks(group.getTotalTasks() + cell.getTaskCount());
+            group.getTasksByStatus().merge(cell.getStatus(), cell.getTaskCount(), Long::sum);
+            if (!cell.getPriority().isEmpty()) {
+                group.getTasksByPriority().merge(TaskPriority.valueOf(cell.getPriority()), cell.getTaskCount(), Long::sum);
+            }
+            group.setEstimatedHours(group.getEstimatedHours() + cell.getEstimatedHours());
+            group.setActualHours(group.getActualHours() + cell.getActualHours());
+            if (cell.isCritical()) {
+                group.setCriticalTasks(group.getCriticalTasks() + cell.getTaskCount());
+            }
+            long[] sumAndCount = completion.computeIfAbsent(key, k -> new long[2]);
+            sumAndCount[0] += cell.getCompletionSum();
+            sumAndCount[1] += cell.getCompletionCount();
+        }
+        
+        List<TaskRollupDTO> result = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> {
+            long[] sumAndCount = completion.get(key);
+            group.setAverageCompletion(sumAndCount[1] > 0 ? (double) sumAndCount[0] / sumAndCount[1] : null);
+            result.add(group);
+        });
+        return result;
+    }
+    
+    private static TaskRollupDTO emptyGroup(String key) {
+        TaskRollupDTO group = new TaskRollupDTO();
+        group.setKey(key.isEmpty() ? null : key);
+        group.setTotalTasks(0L);
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        group.setTasksByStatus(byStatus);
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, 0L);
+        }
+        group.setTasksByPriority(byPriority);
+        group.setEstimatedHours(0L);
+        group.setActualHours(0L);
+        group.setCriticalTasks(0L);
+        return group;
+    }
+    
+    private void merge(Collection<TaskRollupCell> deltas) {
+        Map<String, TaskRollupCell> next = new LinkedHashMap<>(cells);
+        for (TaskRollupCell delta : deltas) {
+            TaskRollupCell merged = next.containsKey(delta.key()) ? next.get(delta.key()).plus(delta, 1) : delta;
+            if (merged.getTaskCount() == 0) {
+                next.remove(delta.key());
+            } else {
+                next.put(delta.key(), merged);
+            }
+        }
+        cells = next;
+    }
+    
+    private static Map<String, TaskRollupCell> index(List<TaskRollupCell> list) {
+        Map<String, TaskRollupCell> byKey = new LinkedHashMap<>();
+        for (TaskRollupCell cell : list) {
+            if (cell.getTaskCount() != 0) {
+                byKey.put(cell.key(), cell);
+            }
+        }
+        return byKey;
+    }
+    
+    private static boolean sameCells(Map<String, TaskRollupCell> a, Map<String, TaskRollupCell> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (TaskRollupCell cell : a.values()) {
+            TaskRollupCell other = b.get(cell.key());
+            if (other == null || !cell.sameMeasures(other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,77 +1,297 @@
 package com.yamaha.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import com.yamaha.dto.TaskChangesDTO;
+import com.yamaha.dto.TaskCursor;
 import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.dto.TaskPageDTO;
+import com.yamaha.dto.TaskSearchHitDTO;
 import com.yamaha.dto.TaskSummaryDTO;
 import com.yamaha.entity.Task;
 import com.yamaha.entity.TaskPriority;
 import com.yamaha.entity.TaskStatus;
-import com.yamaha.repository.TaskRepository;
+import com.yamaha.entity.TaskTombstone;
+import com.yamaha.repository.TaskBatchRepository.ProgressUpdate;
+import com.yamaha.repository.TaskRollupCell;
+import com.yamaha.repository.TaskStore;
+import com.yamaha.repository.TaskTombstoneRepository;
 
 @Service
 public class TaskService {
     
+    private static final Logger log = LoggerFactory.getLogger(TaskService.class);
+    
+    // Cache of TaskDTO by id; configured by spring.cache.* in application.properties
+    public static final String TASK_CACHE = "tasks";
+    
+    // Fields a PATCH may name; id and version are read but never written
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("taskName", "startDate", "endDate", "responsible",
+            "status", "remarks", "priority", "category", "estimatedHours", "actualHours", "completionPercentage",
+            "department", "isCritical");
+    
+    // Patches limited to these skip loading the entity
+    private static final Set<String> PROGRESS_FIELDS = Set.of("status", "completionPercentage");
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskSummaryCounters summaryCounters;
+    
+    @Autowired
+    private TaskMetrics taskMetrics;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private TaskChangeSequence changeSequence;
+    
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+    
     @Autowired
-    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
     
-    public List<TaskDTO> getAllTasks() {
-        List<Task> tasks = taskRepository.findAll();
-        System.out.println("=== GET ALL TASKS ===");
-        System.out.println("Found " + tasks.size() + " tasks");
+    @Autowired
+    private TaskRollups rollups;
+    
+    @Autowired
+    private TaskDeadlineIndex deadlineIndex;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Value("${tasks.page.default-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${tasks.page.max-size:1000}")
+    private int maxPageSize;
+    
+    public TaskPageDTO getTasks(TaskFilter filter, String cursor, Integer limit, TaskCursor.Sort sort) {
+        TaskCursor after = cursor != null && !cursor.isEmpty() ? TaskCursor.decode(cursor) : null;
+        if (after != null) {
+            sort = after.getSort();
+        } else if (sort == null) {
+            sort = TaskCursor.Sort.ID;
+        }
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
         
-        tasks.forEach(task -> {
-            System.out.println("Task: " + task.getTaskName() + 
-                             " | Status: " + task.getStatus() + 
-                             " | Status Class: " + (task.getStatus() != null ? task.getStatus().getClass() : "NULL"));
-        });
+        // Fetch one extra row to learn whether another page exists
+        List<Task> tasks = taskStore.findPage(filter, sort, after, pageSize + 1);
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            nextCursor = TaskCursor.after(sort, tasks.get(pageSize - 1)).encode();
+        }
+        
+        taskMetrics.rowsReturned(tasks.size());
+        log.debug("Listed page of {} tasks, more: {}", tasks.size(), nextCursor != null);
         
-        return tasks.stream()
+        List<TaskDTO> page = tasks.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return new TaskPageDTO(page, nextCursor);
     }
     
+    /**
+     * Tasks written and deleted after the {@code since} token, in change
+     * order. The returned token is passed back as {@code since} next time.
+     */
+    public TaskChangesDTO getChanges(Long since, Integer limit) {
+        long from = since != null ? since : 0L;
+        long upTo = changeSequence.committed();
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        
+        List<Task> tasks = taskStore.findChanged(from, upTo, pageSize + 1);
+        List<TaskTombstone> tombstones = tombstoneRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(from, upTo,
+                PageRequest.of(0, pageSize + 1));
+        
+        // Merge both streams by sequence and keep the first pageSize changes
+        List<TaskDTO> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        List<Long> archived = new ArrayList<>();
+        long token = from;
+        int ti = 0;
+        int di = 0;
+        while (ti + di < pageSize && (ti < tasks.size() || di < tombstones.size())) {
+            boolean nextIsTask = di >= tombstones.size()
+                    || (ti < tasks.size() && tasks.get(ti).getChangeSeq() < tombstones.get(di).getChangeSeq());
+            if (nextIsTask) {
+                Task task = tasks.get(ti++);
+                changed.add(convertToDTO(task));
+                token = task.getChangeSeq();
+            } else {
+                TaskTombstone tombstone = tombstones.get(di++);
+                (tombstone.isArchived() ? archived : deleted).add(tombstone.getTaskId());
+                token = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = ti < tasks.size() || di < tombstones.size();
+        return new TaskChangesDTO(changed, deleted, archived, hasMore ? token : upTo, hasMore);
+    }
+    
+    /**
+     * Full-text search over task name, remarks and responsible, best match first.
+     */
+    public List<TaskSearchHitDTO> searchTasks(String text, Integer limit) {
+        int maxHits = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<TaskSearchHitDTO> hits = taskStore.search(text, maxHits);
+        
+        List<Long> ids = hits.stream().map(hit -> hit.getTask().getId()).collect(Collectors.toList());
+        Map<Long, Task> tasks = taskStore.findByIds(ids);
+        
+        List<TaskSearchHitDTO> results = new ArrayList<>(hits.size());
+        for (TaskSearchHitDTO hit : hits) {
+            Task task = tasks.get(hit.getTask().getId());
+            // Skip rows deleted between the index lookup and the load
+            if (task != null) {
+                hit.setTask(convertToDTO(task));
+                results.add(hit);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Open tasks past their end date, earliest end date first.
+     */
+    public List<TaskDTO> getOverdueTasks(Integer limit) {
+        return loadInOrder(deadlineIndex.overdue(pageSize(limit)));
+    }
+    
+    /**
+     * Open tasks ending today or within the next {@code days} days, earliest first.
+     */
+    public List<TaskDTO> getTasksDueWithin(int days, Integer limit) {
+        if (days < 0) {
+            throw new IllegalArgumentException("days must not be negative");
+        }
+        return loadInOrder(deadlineIndex.dueWithin(days, pageSize(limit)));
+    }
+    
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+    
+    private List<TaskDTO> loadInOrder(List<Long> ids) {
+        Map<Long, Task> tasks = taskStore.findByIds(ids);
+        
+        List<TaskDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Task task = tasks.get(id);
+            // Skip rows deleted between the index lookup and the load
+            if (task != null) {
+                results.add(convertToDTO(task));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Token of the latest committed change; unchanged token means unchanged data.
+     */
+    public long getChangeToken() {
+        return changeSequence.committed();
+    }
+    
+    // Falls through to the archive; live is checked first so a task archived in between is still found
+    @Cacheable(cacheNames = TASK_CACHE, key = "#id")
     public TaskDTO getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        Task task = taskStore.findById(id)
+                .orElseGet(() -> taskStore.findArchived(id));
+        if (task == null) {
+            throw new TaskNotFoundException(id);
+        }
         
-        System.out.println("=== GET TASK BY ID: " + id + " ===");
-        System.out.println("Task: " + task.getTaskName() + " | Status: " + task.getStatus());
+        log.debug("Get task {}: {} | Status: {}", id, task.getTaskName(), task.getStatus());
         
         return convertToDTO(task);
     }
     
     public TaskDTO createTask(TaskDTO taskDTO) {
-        System.out.println("=== CREATE TASK ===");
-        System.out.println("Input DTO Status: " + taskDTO.getStatus());
-        System.out.println("Input DTO Status Class: " + (taskDTO.getStatus() != null ? taskDTO.getStatus().getClass() : "NULL"));
-        
         if (taskDTO.getStatus() == null) {
             taskDTO.setStatus(TaskStatus.NOT_STARTED);
-            System.out.println("Status was null, set to: " + TaskStatus.NOT_STARTED);
         }
         
-        Task task = convertToEntity(taskDTO);
-        Task saved = taskRepository.save(task);
-        
-        System.out.println("Saved Task Status: " + saved.getStatus());
-        System.out.println("Saved Task Status Class: " + saved.getStatus().getClass());
-        
-        return convertToDTO(saved);
+        return writeQueue.execute(() -> {
+            // Built inside the mutation so a retried group starts from a fresh entity
+            Task task = convertToEntity(taskDTO);
+            task.setChangeSeq(changeSequence.next());
+            Task saved = taskStore.insert(task);
+            TaskDTO created = convertToDTO(saved);
+            rollups.record(null, TaskRollupCell.of(saved));
+            AfterCommit.run(() -> {
+                summaryCounters.created(saved.getStatus());
+                cache().put(created.getId(), created);
+            });
+            publishAfterCommit(TaskChangeEvent.created(created, saved.getChangeSeq()));
+            
+            log.debug("Created task {} with status {}", saved.getId(), saved.getStatus());
+            
+            return created;
+        });
+    }
+    
+    /**
+     * Fills in the defaults the /create endpoint promises for new tasks.
+     */
+    public void applyCreateDefaults(TaskDTO taskDTO) {
+        if (taskDTO.getStatus() == null) {
+            taskDTO.setStatus(TaskStatus.NOT_STARTED);
+        }
+        if (taskDTO.getPriority() == null) {
+            taskDTO.setPriority(TaskPriority.MEDIUM);
+        }
+        if (taskDTO.getDepartment() == null) {
+            taskDTO.setDepartment("Production");
+        }
+        if (taskDTO.getIsCritical() == null) {
+            taskDTO.setIsCritical(false);
+        }
+        if (taskDTO.getCompletionPercentage() == null) {
+            taskDTO.setCompletionPercentage(0);
+        }
+        if (taskDTO.getCategory() == null) {
+            taskDTO.setCategory("General");
+        }
+        if (taskDTO.getEstimatedHours() == null) {
+            taskDTO.setEstimatedHours(8);
+        }
     }
     
     public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
-        System.out.println("=== UPDATE TASK: " + id + " ===");
-        System.out.println("New Status: " + taskDTO.getStatus());
-        
-        Task existing = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+        return writeQueue.execute(() -> applyUpdate(id, taskDTO));
+    }
+    
+    private TaskDTO applyUpdate(Long id, TaskDTO taskDTO) {
+        Task existing = taskStore.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        checkVersion(existing, taskDTO.getVersion());
         
-        System.out.println("Existing Status: " + existing.getStatus());
+        TaskStatus previousStatus = existing.getStatus();
+        TaskRollupCell before = TaskRollupCell.of(existing);
         
         // Update fields
         existing.setTaskName(taskDTO.getTaskName());
@@ -81,7 +301,6 @@ public class TaskService {
         
         if (taskDTO.getStatus() != null) {
             existing.setStatus(taskDTO.getStatus());
-            System.out.println("Status updated to: " + existing.getStatus());
         }
         
         existing.setRemarks(taskDTO.getRemarks());
@@ -92,47 +311,183 @@ public class TaskService {
         existing.setCompletionPercentage(taskDTO.getCompletionPercentage());
         existing.setDepartment(taskDTO.getDepartment());
         existing.setIsCritical(taskDTO.getIsCritical());
+        existing.setChangeSeq(changeSequence.next());
         
-        Task updated = taskRepository.save(existing);
-        System.out.println("Final Status after save: " + updated.getStatus());
-        
-        return convertToDTO(updated);
+        return saveUpdate(existing, previousStatus, before);
     }
     
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new RuntimeException("Task not found with id: " + id);
+    /**
+     * Applies only the named fields. A patch of just status and/or
+     * completionPercentage is a single UPDATE ... RETURNING without reading
+     * the row first; anything else loads the entity and Hibernate writes only
+     * the changed columns.
+     */
+    public TaskDTO patchTask(Long id, TaskDTO patch, Set<String> fields) {
+        Set<String> changed = new HashSet<>(fields);
+        changed.remove("id");
+        changed.remove("version");
+        if (changed.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        for (String field : changed) {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
         }
-        taskRepository.deleteById(id);
+        if ((changed.contains("taskName") && patch.getTaskName() == null)
+                || (changed.contains("responsible") && patch.getResponsible() == null)
+                || (changed.contains("status") && patch.getStatus() == null)) {
+            throw new IllegalArgumentException("taskName, responsible and status cannot be null");
+        }
+        
+        if (PROGRESS_FIELDS.containsAll(changed)) {
+            return writeQueue.execute(() -> applyProgressPatch(id, patch, changed));
+        }
+        return writeQueue.execute(() -> applyPatch(id, patch, changed));
     }
     
-    public TaskSummaryDTO getTaskSummary() {
-        System.out.println("=== GET TASK SUMMARY ===");
+    private TaskDTO applyPatch(Long id, TaskDTO patch, Set<String> fields) {
+        Task existing = taskStore.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        checkVersion(existing, patch.getVersion());
         
-        long total = taskRepository.count();
-        long completed = taskRepository.countByStatus(TaskStatus.COMPLETED);
-        long inProgress = taskRepository.countByStatus(TaskStatus.IN_PROGRESS);
-        long onHold = taskRepository.countByStatus(TaskStatus.HOLD);
-        long notStarted = taskRepository.countByStatus(TaskStatus.NOT_STARTED);
+        TaskStatus previousStatus = existing.getStatus();
+        TaskRollupCell before = TaskRollupCell.of(existing);
         
-        System.out.println("Total: " + total);
-        System.out.println("Completed: " + completed);
-        System.out.println("In Progress: " + inProgress);
-        System.out.println("On Hold: " + onHold);
-        System.out.println("Not Started: " + notStarted);
+        if (fields.contains("taskName")) {
+            existing.setTaskName(patch.getTaskName());
+        }
+        if (fields.contains("startDate")) {
+            existing.setStartDate(patch.getStartDate());
+        }
+        if (fields.contains("endDate")) {
+            existing.setEndDate(patch.getEndDate());
+        }
+        if (fields.contains("responsible")) {
+            existing.setResponsible(patch.getResponsible());
+        }
+        if (fields.contains("status")) {
+            existing.setStatus(patch.getStatus());
+        }
+        if (fields.contains("remarks")) {
+            existing.setRemarks(patch.getRemarks());
+        }
+        if (fields.contains("priority")) {
+            existing.setPriority(patch.getPriority());
+        }
+        if (fields.contains("category")) {
+            existing.setCategory(patch.getCategory());
+        }
+        if (fields.contains("estimatedHours")) {
+            existing.setEstimatedHours(patch.getEstimatedHours());
+        }
+        if (fields.contains("actualHours")) {
+            existing.setActualHours(patch.getActualHours());
+        }
+        if (fields.contains("completionPercentage")) {
+            existing.setCompletionPercentage(patch.getCompletionPercentage());
+        }
+        if (fields.contains("department")) {
+            existing.setDepartment(patch.getDepartment());
+        }
+        if (fields.contains("isCritical")) {
+            existing.setIsCritical(patch.getIsCritical());
+        }
+        existing.setChangeSeq(changeSequence.next());
         
-        // Debug: Check what countByStatus returns for each status
-        for (TaskStatus status : TaskStatus.values()) {
-            Long count = taskRepository.countByStatus(status);
-            System.out.println("Count for " + status + ": " + count);
+        return saveUpdate(existing, previousStatus, before);
+    }
+    
+    private TaskDTO applyProgressPatch(Long id, TaskDTO patch, Set<String> fields) {
+        ProgressUpdate update = taskStore.updateProgress(id,
+                fields.contains("status"), patch.getStatus(),
+                fields.contains("completionPercentage"), patch.getCompletionPercentage(),
+                patch.getVersion(), changeSequence.next(), LocalDateTime.now());
+        if (update == null) {
+            if (taskStore.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, id);
+            }
+            throw new TaskNotFoundException(id);
         }
         
-        return new TaskSummaryDTO(total, completed, inProgress, onHold, notStarted);
+        Task updated = update.getTask();
+        TaskStatus previousStatus = update.getPrevious().getStatus();
+        TaskDTO result = convertToDTO(updated);
+        rollups.record(TaskRollupCell.of(update.getPrevious()), TaskRollupCell.of(updated));
+        AfterCommit.run(() -> {
+            summaryCounters.transitioned(previousStatus, updated.getStatus());
+            cache().evict(id);
+        });
+        publishAfterCommit(TaskChangeEvent.updated(result, updated.getChangeSeq()));
+        log.debug("Patched progress of task {}: status {} -> {}", id, previousStatus, updated.getStatus());
+        
+        return result;
+    }
+    
+    private TaskDTO saveUpdate(Task existing, TaskStatus previousStatus, TaskRollupCell before) {
+        Task updated = taskStore.update(existing);
+        TaskDTO result = convertToDTO(updated);
+        rollups.record(before, TaskRollupCell.of(updated));
+        AfterCommit.run(() -> {
+            summaryCounters.transitioned(previousStatus, updated.getStatus());
+            cache().evict(updated.getId());
+        });
+        publishAfterCommit(TaskChangeEvent.updated(result, updated.getChangeSeq()));
+        log.debug("Updated task {}: status {} -> {}", updated.getId(), previousStatus, updated.getStatus());
+        
+        return result;
+    }
+    
+    /**
+     * Rejects a write based on a stale read. A null version skips the check.
+     */
+    private void checkVersion(Task existing, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, existing.getId());
+        }
+    }
+    
+    public void deleteTask(Long id) {
+        writeQueue.execute(() -> {
+            Task existing = taskStore.findById(id).orElse(null);
+            if (existing != null) {
+                taskStore.delete(id);
+            } else {
+                // Not live: it may have been archived
+                existing = taskStore.findArchived(id);
+                if (existing == null) {
+                    throw new TaskNotFoundException(id);
+                }
+                taskStore.deleteArchived(id);
+            }
+            TaskStatus status = existing.getStatus();
+            rollups.record(TaskRollupCell.of(existing), null);
+            long seq = changeSequence.next();
+            tombstoneRepository.save(new TaskTombstone(seq, id, LocalDateTime.now()));
+            AfterCommit.run(() -> {
+                summaryCounters.deleted(status);
+                cache().evict(id);
+            });
+            publishAfterCommit(TaskChangeEvent.deleted(id, seq));
+            return null;
+        });
+    }
+    
+    public TaskSummaryDTO getTaskSummary() {
+        // Served from the in-memory counters; no database round-trip
+        return summaryCounters.snapshot();
     }
     
     public void initializeSampleData() {
-        if (taskRepository.count() == 0) {
-            System.out.println("=== INITIALIZING SAMPLE DATA ===");
+        writeQueue.execute(() -> {
+            insertSampleData();
+            return null;
+        });
+    }
+    
+    private void insertSampleData() {
+        if (taskStore.count() == 0) {
+            log.info("Initializing sample data");
             
             // Create sample tasks with different statuses
             Task[] sampleTasks = {
@@ -142,14 +497,28 @@ public class TaskService {
                 createSampleTask("PC Installation", "Operator D", TaskStatus.HOLD, TaskPriority.MEDIUM, "IT")
             };
             
-            for (Task task : sampleTasks) {
-                Task saved = taskRepository.save(task);
-                System.out.println("Initialized task: " + saved.getTaskName() + " with status: " + saved.getStatus());
+            // One batch, like the bulk endpoint, so the request's statements do not grow per task
+            List<Task> tasks = List.of(sampleTasks);
+            LocalDateTime now = LocalDateTime.now();
+            for (Task task : tasks) {
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                task.setChangeSeq(changeSequence.next());
+            }
+            List<Long> ids = taskStore.insertAll(tasks);
+            rollups.recordAll(List.of(), tasks.stream().map(TaskRollupCell::of).collect(Collectors.toList()));
+            AfterCommit.run(() -> tasks.forEach(task -> summaryCounters.created(task.getStatus())));
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                task.setId(ids.get(i));
+                task.setVersion(0L);
+                publishAfterCommit(TaskChangeEvent.created(convertToDTO(task), task.getChangeSeq()));
+                log.debug("Initialized task: {} with status: {}", task.getTaskName(), task.getStatus());
             }
             
-            System.out.println("Sample data initialization complete");
+            log.info("Sample data initialization complete");
         } else {
-            System.out.println("Database already contains " + taskRepository.count() + " tasks");
+            log.info("Database already contains tasks, skipping sample data");
         }
     }
     
@@ -165,7 +534,28 @@ public class TaskService {
         return task;
     }
     
-    private TaskDTO convertToDTO(Task task) {
+    // Cached DTOs still say not overdue; the row did not change, so nothing else evicts them
+    @EventListener
+    public void onTaskOverdue(TaskOverdueEvent event) {
+        event.getTaskIds().forEach(cache()::evict);
+    }
+    
+    private Cache cache() {
+        return cacheManager.getCache(TASK_CACHE);
+    }
+    
+    /**
+     * Announces a committed write to listeners such as the SSE broadcaster.
+     */
+    void publishAfterCommit(TaskChangeEvent event) {
+        AfterCommit.run(() -> eventPublisher.publishEvent(event));
+    }
+    
+    /**
+     * The API view of a stored task, including its {@code overdue} flag.
+     */
+    public TaskDTO convertToDTO(Task task) {
+        taskMetrics.dtoConverted();
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setTaskName(task.getTaskName());
@@ -182,11 +572,16 @@ public class TaskService {
         dto.setCompletionPercentage(task.getCompletionPercentage());
         dto.setDepartment(task.getDepartment());
         dto.setIsCritical(task.getIsCritical());
+        dto.setVersion(task.getVersion());
+        dto.setOverdue(deadlineIndex.isOverdue(task));
         
         return dto;
     }
     
-    private Task convertToEntity(TaskDTO dto) {
+    /**
+     * A new, unsaved entity from the client-editable fields of a DTO.
+     */
+    public Task convertToEntity(TaskDTO dto) {
         Task task = new Task();
         task.setTaskName(dto.getTaskName());
         task.setStartDate(dto.getStartDate());
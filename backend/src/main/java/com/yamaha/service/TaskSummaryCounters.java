@@ -0,0 +1,116 @@
+package com.yamaha.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.yamaha.dto.TaskSummaryDTO;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskStore;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory per-status task counts over live and archived tasks (archiving
+ * does not change them). Seeded from one GROUP BY query at startup,
+ * kept current by TaskService on every create/update/delete, and periodically
+ * reconciled against the database to correct any drift.
+ *
+ * Increments are applied after their write commits, so a count taken at an
+ * arbitrary moment can include a write whose increment has not landed yet.
+ * Reconciliation therefore counts on the writer and compares after that
+ * group commits: every write the count saw has applied its increment by
+ * then (earlier after-commit actions run first), and no other has.
+ */
+@Component
+public class TaskSummaryCounters {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskSummaryCounters.class);
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    private final Map<TaskStatus, LongAdder> counts = new EnumMap<>(TaskStatus.class);
+    
+    public TaskSummaryCounters() {
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, new LongAdder());
+        }
+    }
+    
+    @PostConstruct
+    public void rebuild() {
+        Map<TaskStatus, Long> actual = loadFromStore();
+        for (TaskStatus status : TaskStatus.values()) {
+            LongAdder adder = counts.get(status);
+            adder.reset();
+            adder.add(actual.get(status));
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${tasks.summary.reconcile-interval-ms:60000}",
+               fixedDelayString = "${tasks.summary.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        writeQueue.execute(() -> {
+            Map<TaskStatus, Long> actual = loadFromStore();
+            AfterCommit.run(() -> correct(actual));
+            return null;
+        });
+    }
+    
+    private void correct(Map<TaskStatus, Long> actual) {
+        for (TaskStatus status : TaskStatus.values()) {
+            long drift = actual.get(status) - counts.get(status).sum();
+            if (drift != 0) {
+                log.warn("Summary counter drift for {}: {}, correcting", status, drift);
+                counts.get(status).add(drift);
+            }
+        }
+    }
+    
+    public void created(TaskStatus status) {
+        if (status != null) {
+            counts.get(status).increment();
+        }
+    }
+    
+    public void deleted(TaskStatus status) {
+        if (status != null) {
+            counts.get(status).decrement();
+        }
+    }
+    
+    public void transitioned(TaskStatus from, TaskStatus to) {
+        if (from != to) {
+            deleted(from);
+            created(to);
+        }
+    }
+    
+    public TaskSummaryDTO snapshot() {
+        long completed = counts.get(TaskStatus.COMPLETED).sum();
+        long inProgress = counts.get(TaskStatus.IN_PROGRESS).sum();
+        long onHold = counts.get(TaskStatus.HOLD).sum();
+        long notStarted = counts.get(TaskStatus.NOT_STARTED).sum();
+        long total = completed + inProgress + onHold + notStarted;
+        return new TaskSummaryDTO(total, completed, inProgress, onHold, notStarted);
+    }
+    
+    private Map<TaskStatus, Long> loadFromStore() {
+        Map<TaskStatus, Long> actual = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            actual.put(status, 0L);
+        }
+        actual.putAll(taskStore.countByStatus());
+        return actual;
+    }
+}
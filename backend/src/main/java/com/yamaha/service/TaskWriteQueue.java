@@ -0,0 +1,310 @@
+package com.yamaha.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single-writer pipeline for SQLite. Request threads enqueue mutations into a
+ * bounded queue; one writer thread drains up to {@code tasks.writer.max-batch}
+ * of them and applies them in a single transaction (group commit), then
+ * completes each caller's future. Each mutation in a group runs in a nested
+ * transaction (a savepoint), so one that throws is rolled back alone and the
+ * rest of the group still commits. If the group transaction itself fails to
+ * commit, its mutations are retried one transaction each.
+ *
+ * Mutations should defer in-memory side effects with {@link AfterCommit} so
+ * that a rolled-back mutation leaves none behind: synchronizations it
+ * registered are dropped with its savepoint, and {@link StagedWrites} roll
+ * back to theirs.
+ */
+@Component
+public class TaskWriteQueue {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteQueue.class);
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${tasks.writer.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    @Value("${tasks.writer.max-batch:100}")
+    private int maxBatch;
+    
+    @Value("${tasks.writer.enqueue-timeout-ms:5000}")
+    private long enqueueTimeoutMs;
+    
+    private BlockingQueue<PendingWrite<?>> queue;
+    private Thread writer;
+    private TransactionTemplate savepointTemplate;
+    private DistributionSummary groupSize;
+    private Counter groupFailures;
+    private Counter retries;
+    private volatile boolean running;
+    
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        savepointTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        groupSize = DistributionSummary.builder("tasks.writer.group.size")
+                .description("Mutations applied per group commit")
+                .register(meterRegistry);
+        groupFailures = Counter.builder("tasks.writer.group.failures")
+                .description("Group transactions that failed to commit and were retried per mutation")
+                .register(meterRegistry);
+        retries = Counter.builder("tasks.writer.retries")
+                .description("Mutations retried in a transaction of their own after a group failure")
+                .register(meterRegistry);
+        Gauge.builder("tasks.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Mutations waiting for the writer thread")
+                .register(meterRegistry);
+        
+        running = true;
+        writer = new Thread(this::drainLoop, "task-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // Enqueued after the writer's last poll
+        PendingWrite<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.fail(new RejectedExecutionException("Write queue is stopped"));
+        }
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> mutation) {
+        PendingWrite<T> pending = new PendingWrite<>(mutation);
+        if (Thread.currentThread() == writer) {
+            // Already on the writer (e.g. a mutation issuing another); run inline
+            pending.apply();
+            pending.complete();
+            return pending.future;
+        }
+        if (!running) {
+            throw new RejectedExecutionException("Write queue is stopped");
+        }
+        try {
+            if (!queue.offer(pending, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the write queue", e);
+        }
+        // Stopped while we waited: take it back unless the writer or stop() already has
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Write queue is stopped");
+        }
+        return pending.future;
+    }
+    
+    /**
+     * Submits the mutation and waits for its group to commit. Exceptions
+     * thrown by the mutation are rethrown unchanged.
+     */
+    public <T> T execute(Supplier<T> mutation) {
+        try {
+            return submit(mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private void drainLoop() {
+        List<PendingWrite<?>> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxBatch - 1);
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Task writer failed to process a group", e);
+                group.forEach(pending -> pending.fail(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+    
+    private void commitGroup(List<PendingWrite<?>> group) {
+        groupSize.record(group.size());
+        if (group.size() == 1) {
+            commitAlone(group.get(0));
+            return;
+        }
+        
+        List<PendingWrite<?>> applied = new ArrayList<>(group.size());
+        List<PendingWrite<?>> failed = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingWrite<?> pending : group) {
+                    if (applyWithSavepoint(pending)) {
+                        applied.add(pending);
+                    } else {
+                        failed.add(pending);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // The commit itself failed (or a mutation doomed the whole transaction)
+            List<PendingWrite<?>> retry = new ArrayList<>(group);
+            retry.removeAll(failed);
+            groupFailures.increment();
+            retries.increment(retry.size());
+            log.warn("Group commit of {} failed ({}), retrying {} individually", group.size(), e.getMessage(),
+                    retry.size());
+            failed.forEach(PendingWrite::reportFailure);
+            retry.forEach(this::commitAlone);
+            return;
+        }
+        applied.forEach(PendingWrite::complete);
+        failed.forEach(PendingWrite::reportFailure);
+    }
+    
+    private void commitAlone(PendingWrite<?> pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> pending.apply());
+            pending.complete();
+        } catch (RuntimeException e) {
+            pending.fail(e);
+        }
+    }
+    
+    /**
+     * Applies the mutation in a nested transaction. If it throws, its
+     * statements are rolled back to the savepoint, the synchronizations it
+     * registered are dropped and staged writes are rolled back, and false is
+     * returned with the error kept for the caller.
+     */
+    private boolean applyWithSavepoint(PendingWrite<?> pending) {
+        List<TransactionSynchronization> before = TransactionSynchronizationManager.getSynchronizations();
+        for (TransactionSynchronization synchronization : before) {
+            if (synchronization instanceof StagedWrites staged) {
+                staged.savepoint();
+            }
+        }
+        try {
+            savepointTemplate.executeWithoutResult(status -> {
+                pending.apply();
+                // Flush inside the savepoint, so a failing statement is this mutation's
+                status.flush();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            pending.error = e;
+            rollBackSynchronizations(before);
+            return false;
+        }
+    }
+    
+    private static void rollBackSynchronizations(List<TransactionSynchronization> before) {
+        List<TransactionSynchronization> registered = TransactionSynchronizationManager.getSynchronizations();
+        Set<TransactionSynchronization> kept = new HashSet<>(before);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        before.forEach(TransactionSynchronizationManager::registerSynchronization);
+        for (TransactionSynchronization synchronization : registered) {
+            if (!kept.contains(synchronization)) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            } else if (synchronization instanceof StagedWrites staged) {
+                staged.rollbackToSavepoint();
+            }
+        }
+    }
+    
+    /**
+     * A transaction synchronization that buffers writes until commit (the
+     * memory store's pending writes). The writer takes a savepoint before each
+     * mutation of a group and rolls back to it if that mutation fails.
+     */
+    public interface StagedWrites extends TransactionSynchronization {
+    
+        /**
+         * Starts recording writes so they can be undone; replaces any earlier savepoint.
+         */
+        void savepoint();
+        
+        /**
+         * Undoes the writes staged since {@link #savepoint()}.
+         */
+        void rollbackToSavepoint();
+    }
+    
+    private static final class PendingWrite<T> {
+        private final Supplier<T> mutation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // The submitting request's profile, so its statements on the writer are counted
+        private final QueryProfile profile = QueryProfile.current();
+        private T result;
+        private RuntimeException error;
+        
+        PendingWrite(Supplier<T> mutation) {
+            this.mutation = mutation;
+        }
+        
+        void apply() {
+            QueryProfile previous = QueryProfile.attach(profile);
+            try {
+                result = mutation.get();
+            } finally {
+                QueryProfile.attach(previous);
+            }
+        }
+        
+        void complete() {
+            future.complete(result);
+        }
+        
+        void fail(Throwable error) {
+            future.completeExceptionally(error);
+        }
+        
+        void reportFailure() {
+            fail(error);
+        }
+    }
+}
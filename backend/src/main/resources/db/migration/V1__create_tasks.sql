@@ -0,0 +1,21 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at version 0, so this is a no-op for them.
+CREATE TABLE IF NOT EXISTS tasks (
+    id integer,
+    actual_hours integer,
+    category varchar(255),
+    completion_percentage integer,
+    created_at timestamp,
+    department varchar(255),
+    end_date date,
+    estimated_hours integer,
+    is_critical boolean,
+    priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    remarks varchar(255),
+    responsible varchar(255) not null,
+    start_date date,
+    status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED','HOLD')),
+    task_name varchar(255) not null,
+    updated_at timestamp,
+    primary key (id)
+);
@@ -0,0 +1,9 @@
+-- Delta sync: per-row change sequence and tombstones for deletes
+ALTER TABLE tasks ADD COLUMN change_seq bigint;
+
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    change_seq bigint not null,
+    task_id bigint not null,
+    deleted_at timestamp,
+    primary key (change_seq)
+);
@@ -0,0 +1,11 @@
+-- Indexes for the filter, sort and count paths in TaskRepository
+CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks (status);
+CREATE INDEX IF NOT EXISTS idx_tasks_department_status ON tasks (department, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_priority ON tasks (priority);
+CREATE INDEX IF NOT EXISTS idx_tasks_category ON tasks (category);
+CREATE INDEX IF NOT EXISTS idx_tasks_is_critical ON tasks (is_critical);
+CREATE INDEX IF NOT EXISTS idx_tasks_end_date ON tasks (end_date);
+
+-- Keyset pagination by (updated_at, id) and delta sync by change_seq
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at_id ON tasks (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_change_seq ON tasks (change_seq);
@@ -0,0 +1,32 @@
+-- Full-text index over task_name, remarks and responsible. External-content
+-- FTS5 table: the text lives in tasks, the index is kept in sync by triggers,
+-- so every write path (JPA or JDBC batch) updates it incrementally.
+CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(
+    task_name,
+    remarks,
+    responsible,
+    content = 'tasks',
+    content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_insert AFTER INSERT ON tasks BEGIN
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, new.responsible);
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_delete AFTER DELETE ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, old.responsible);
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_update AFTER UPDATE OF task_name, remarks, responsible ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, old.responsible);
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, new.responsible);
+END;
+
+-- Index rows that existed before this migration
+INSERT INTO tasks_fts (tasks_fts) VALUES ('rebuild');
@@ -0,0 +1,2 @@
+-- Optimistic locking: bumped on every write (JPA @Version and the JDBC paths)
+ALTER TABLE tasks ADD COLUMN version bigint not null default 0;
@@ -0,0 +1,24 @@
+-- Analytics rollups: aggregates per (department, category, status, priority,
+-- is_critical) cell, maintained by the application in the same transaction
+-- as each task write. Missing dimensions are stored as '' so every cell has
+-- a primary key.
+CREATE TABLE IF NOT EXISTS task_rollup_cells (
+    department varchar(255) not null,
+    category varchar(255) not null,
+    status varchar(255) not null,
+    priority varchar(255) not null,
+    is_critical integer not null,
+    task_count bigint not null,
+    estimated_hours bigint not null,
+    actual_hours bigint not null,
+    completion_sum bigint not null,
+    completion_count bigint not null,
+    primary key (department, category, status, priority, is_critical)
+);
+
+INSERT INTO task_rollup_cells
+SELECT COALESCE(department, ''), COALESCE(category, ''), status, COALESCE(priority, ''), COALESCE(is_critical, 0),
+       COUNT(*), COALESCE(SUM(estimated_hours), 0), COALESCE(SUM(actual_hours), 0),
+       COALESCE(SUM(completion_percentage), 0), COUNT(completion_percentage)
+FROM tasks
+GROUP BY 1, 2, 3, 4, 5;
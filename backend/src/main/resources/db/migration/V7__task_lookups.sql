@@ -0,0 +1,113 @@
+-- Department, category and responsible move out of tasks into lookup tables
+-- referenced by small integer ids (see TaskLookups for the in-memory side).
+CREATE TABLE IF NOT EXISTS task_departments (
+    id integer,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS task_categories (
+    id integer,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS task_responsibles (
+    id integer,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+INSERT INTO task_departments (name) SELECT DISTINCT department FROM tasks WHERE department IS NOT NULL ORDER BY 1;
+INSERT INTO task_categories (name) SELECT DISTINCT category FROM tasks WHERE category IS NOT NULL ORDER BY 1;
+INSERT INTO task_responsibles (name) SELECT DISTINCT responsible FROM tasks ORDER BY 1;
+
+-- The search triggers and indexes reference the text columns; they are
+-- recreated against the new layout below
+DROP TRIGGER IF EXISTS tasks_fts_after_insert;
+DROP TRIGGER IF EXISTS tasks_fts_after_delete;
+DROP TRIGGER IF EXISTS tasks_fts_after_update;
+DROP TABLE IF EXISTS tasks_fts;
+
+-- SQLite cannot change a column's type in place, so tasks is rebuilt
+CREATE TABLE tasks_new (
+    id integer,
+    actual_hours integer,
+    category_id integer references task_categories (id),
+    completion_percentage integer,
+    created_at timestamp,
+    department_id integer references task_departments (id),
+    end_date date,
+    estimated_hours integer,
+    is_critical boolean,
+    priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    remarks varchar(255),
+    responsible_id integer not null references task_responsibles (id),
+    start_date date,
+    status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED','HOLD')),
+    task_name varchar(255) not null,
+    updated_at timestamp,
+    change_seq bigint,
+    version bigint not null default 0,
+    primary key (id)
+);
+
+INSERT INTO tasks_new (id, actual_hours, category_id, completion_percentage, created_at, department_id, end_date,
+                       estimated_hours, is_critical, priority, remarks, responsible_id, start_date, status,
+                       task_name, updated_at, change_seq, version)
+SELECT t.id, t.actual_hours, c.id, t.completion_percentage, t.created_at, d.id, t.end_date,
+       t.estimated_hours, t.is_critical, t.priority, t.remarks, r.id, t.start_date, t.status,
+       t.task_name, t.updated_at, t.change_seq, t.version
+FROM tasks t
+LEFT JOIN task_categories c ON c.name = t.category
+LEFT JOIN task_departments d ON d.name = t.department
+JOIN task_responsibles r ON r.name = t.responsible;
+
+DROP TABLE tasks;
+ALTER TABLE tasks_new RENAME TO tasks;
+
+-- Indexes from V3, with the lookup columns switched to their ids
+CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks (status);
+CREATE INDEX IF NOT EXISTS idx_tasks_department_status ON tasks (department_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_priority ON tasks (priority);
+CREATE INDEX IF NOT EXISTS idx_tasks_category ON tasks (category_id);
+CREATE INDEX IF NOT EXISTS idx_tasks_is_critical ON tasks (is_critical);
+CREATE INDEX IF NOT EXISTS idx_tasks_end_date ON tasks (end_date);
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at_id ON tasks (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_change_seq ON tasks (change_seq);
+
+-- Full-text index from V4. Its external content is now a view that resolves
+-- the responsible name, so highlight() and snippet() still see the text.
+CREATE VIEW IF NOT EXISTS task_search_content AS
+SELECT t.id, t.task_name, t.remarks, r.name AS responsible
+FROM tasks t
+JOIN task_responsibles r ON r.id = t.responsible_id;
+
+CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(
+    task_name,
+    remarks,
+    responsible,
+    content = 'task_search_content',
+    content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_insert AFTER INSERT ON tasks BEGIN
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, (SELECT name FROM task_responsibles WHERE id = new.responsible_id));
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_delete AFTER DELETE ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, (SELECT name FROM task_responsibles WHERE id = old.responsible_id));
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_update AFTER UPDATE OF task_name, remarks, responsible_id ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, (SELECT name FROM task_responsibles WHERE id = old.responsible_id));
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, (SELECT name FROM task_responsibles WHERE id = new.responsible_id));
+END;
+
+INSERT INTO tasks_fts (tasks_fts) VALUES ('rebuild');
@@ -0,0 +1,103 @@
+-- Cold tier: COMPLETED tasks moved out of tasks by TaskArchiver. Rows keep
+-- their id and the tasks layout; archived_at records when they moved.
+CREATE TABLE IF NOT EXISTS task_archive (
+    id integer,
+    actual_hours integer,
+    category_id integer references task_categories (id),
+    completion_percentage integer,
+    created_at timestamp,
+    department_id integer references task_departments (id),
+    end_date date,
+    estimated_hours integer,
+    is_critical boolean,
+    priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    remarks varchar(255),
+    responsible_id integer not null references task_responsibles (id),
+    start_date date,
+    status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED','HOLD')),
+    task_name varchar(255) not null,
+    updated_at timestamp,
+    change_seq bigint,
+    version bigint not null default 0,
+    archived_at timestamp,
+    primary key (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_archive_updated_at_id ON task_archive (updated_at, id);
+
+-- Delta sync reports archived tasks separately from deleted ones
+ALTER TABLE task_tombstones ADD COLUMN archived boolean not null default 0;
+
+-- Plain rowid tables reuse the highest id once that row is gone, which would
+-- collide with an archived task of the same id. AUTOINCREMENT never reuses
+-- an id; SQLite only accepts it in CREATE TABLE, so tasks is rebuilt again.
+DROP VIEW IF EXISTS task_search_content;
+
+CREATE TABLE tasks_new (
+    id integer primary key autoincrement,
+    actual_hours integer,
+    category_id integer references task_categories (id),
+    completion_percentage integer,
+    created_at timestamp,
+    department_id integer references task_departments (id),
+    end_date date,
+    estimated_hours integer,
+    is_critical boolean,
+    priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH','URGENT')),
+    remarks varchar(255),
+    responsible_id integer not null references task_responsibles (id),
+    start_date date,
+    status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED','HOLD')),
+    task_name varchar(255) not null,
+    updated_at timestamp,
+    change_seq bigint,
+    version bigint not null default 0
+);
+
+INSERT INTO tasks_new (id, actual_hours, category_id, completion_percentage, created_at, department_id, end_date,
+                       estimated_hours, is_critical, priority, remarks, responsible_id, start_date, status,
+                       task_name, updated_at, change_seq, version)
+SELECT id, actual_hours, category_id, completion_percentage, created_at, department_id, end_date,
+       estimated_hours, is_critical, priority, remarks, responsible_id, start_date, status,
+       task_name, updated_at, change_seq, version
+FROM tasks;
+
+DROP TABLE tasks;
+ALTER TABLE tasks_new RENAME TO tasks;
+
+-- Ids of deleted tasks are not handed out again either
+DELETE FROM sqlite_sequence WHERE name IN ('tasks', 'tasks_new');
+INSERT INTO sqlite_sequence (name, seq)
+SELECT 'tasks', COALESCE(MAX(id), 0) FROM (SELECT MAX(id) AS id FROM tasks UNION ALL SELECT MAX(task_id) FROM task_tombstones);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_status ON tasks (status);
+CREATE INDEX IF NOT EXISTS idx_tasks_department_status ON tasks (department_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_priority ON tasks (priority);
+CREATE INDEX IF NOT EXISTS idx_tasks_category ON tasks (category_id);
+CREATE INDEX IF NOT EXISTS idx_tasks_is_critical ON tasks (is_critical);
+CREATE INDEX IF NOT EXISTS idx_tasks_end_date ON tasks (end_date);
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at_id ON tasks (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_change_seq ON tasks (change_seq);
+
+-- Search content view and triggers from V7; the FTS index itself is unchanged
+CREATE VIEW IF NOT EXISTS task_search_content AS
+SELECT t.id, t.task_name, t.remarks, r.name AS responsible
+FROM tasks t
+JOIN task_responsibles r ON r.id = t.responsible_id;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_insert AFTER INSERT ON tasks BEGIN
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, (SELECT name FROM task_responsibles WHERE id = new.responsible_id));
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_delete AFTER DELETE ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, (SELECT name FROM task_responsibles WHERE id = old.responsible_id));
+END;
+
+CREATE TRIGGER IF NOT EXISTS tasks_fts_after_update AFTER UPDATE OF task_name, remarks, responsible_id ON tasks BEGIN
+    INSERT INTO tasks_fts (tasks_fts, rowid, task_name, remarks, responsible)
+    VALUES ('delete', old.id, old.task_name, old.remarks, (SELECT name FROM task_responsibles WHERE id = old.responsible_id));
+    INSERT INTO tasks_fts (rowid, task_name, remarks, responsible)
+    VALUES (new.id, new.task_name, new.remarks, (SELECT name FROM task_responsibles WHERE id = new.responsible_id));
+END;
@@ -0,0 +1,10 @@
+-- Keyset pagination by (updated_at, id) cannot step past a NULL updated_at.
+-- Rows from before @PrePersist set it fall back to created_at, else now;
+-- stored like the JDBC driver binds timestamps, as epoch milliseconds.
+UPDATE tasks
+SET updated_at = COALESCE(created_at, CAST(strftime('%s', 'now') AS INTEGER) * 1000)
+WHERE updated_at IS NULL;
+
+UPDATE task_archive
+SET updated_at = COALESCE(created_at, CAST(strftime('%s', 'now') AS INTEGER) * 1000)
+WHERE updated_at IS NULL;
@@ -0,0 +1,113 @@
+package com.yamaha.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link TaskAdmissionFilter} permits for async responses and the export
+ * class, and the slow-read signal that backs writes off.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "tasks.admission.export.limit=1",
+        "tasks.admission.export.queue-capacity=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskAdmissionFilterTest {
+    
+    @Autowired
+    private TaskAdmissionFilter filter;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-admission");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @Test
+    void asyncResponseHoldsItsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setAsyncSupported(true);
+        int limit = limit("read");
+        
+        // The handler returns while the body is still being written
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(inFlight("read")).isEqualTo(1);
+        
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(inFlight("read")).isEqualTo(0);
+        // No latency sample from an async response
+        assertThat(limit("read")).isEqualTo(limit);
+    }
+    
+    @Test
+    void exportsHaveTheirOwnLimit() throws Exception {
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/tasks/export");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(inFlight("export")).isEqualTo(1);
+        assertThat(inFlight("read")).isEqualTo(0);
+        
+        // The one export permit is taken; a second export is turned away, a list request is not
+        MockHttpServletResponse secondExport = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks/export"), secondExport, (req, res) -> {});
+        assertThat(secondExport.getStatus()).isEqualTo(429);
+        MockHttpServletResponse list = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), list, (req, res) -> {});
+        assertThat(list.getStatus()).isEqualTo(200);
+        
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        assertThat(inFlight("export")).isEqualTo(0);
+    }
+    
+    @Test
+    void oneSlowReadIsNotCongestion() throws Exception {
+        TaskAdmissionFilter.SlowReads slowReads = new TaskAdmissionFilter.SlowReads(
+                TimeUnit.MILLISECONDS.toNanos(200), 0.5, 10);
+        for (int i = 0; i < 20; i++) {
+            assertThat(slowReads.record(i == 0)).isFalse();
+        }
+        Thread.sleep(250);
+        assertThat(slowReads.record(false)).isFalse();
+    }
+    
+    @Test
+    void mostlySlowWindowIsCongestion() throws Exception {
+        TaskAdmissionFilter.SlowReads slowReads = new TaskAdmissionFilter.SlowReads(
+                TimeUnit.MILLISECONDS.toNanos(200), 0.5, 10);
+        for (int i = 0; i < 20; i++) {
+            assertThat(slowReads.record(i % 4 != 0)).isFalse();
+        }
+        Thread.sleep(250);
+        assertThat(slowReads.record(false)).isTrue();
+        // Reported once per window
+        assertThat(slowReads.record(true)).isFalse();
+    }
+    
+    private double inFlight(String requestClass) {
+        return meterRegistry.get("tasks.admission.in-flight").tag("class", requestClass).gauge().value();
+    }
+    
+    private int limit(String requestClass) {
+        return (int) meterRegistry.get("tasks.admission.limit").tag("class", requestClass).gauge().value();
+    }
+}
@@ -0,0 +1,87 @@
+package com.yamaha.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.yamaha.service.TaskService;
+
+/**
+ * Content negotiation between JSON and {@link TaskColumnarMessageConverter},
+ * which Spring consults before Jackson: the columnar form only on an
+ * explicit Accept, JSON for a wildcard or no Accept header.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+@AutoConfigureMockMvc
+class TaskColumnarMessageConverterTest {
+    
+    @Autowired
+    private MockMvc mvc;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-columnar");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @BeforeEach
+    void seed() {
+        taskService.initializeSampleData();
+    }
+    
+    @Test
+    void wildcardAcceptGetsJson() throws Exception {
+        assertJson(perform(get("/api/tasks").header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE)));
+        assertJson(perform(get("/api/tasks/overdue").header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE)));
+        assertJson(perform(get("/api/tasks/due-soon").param("days", "365").header(HttpHeaders.ACCEPT, "*/*")));
+    }
+    
+    @Test
+    void missingAcceptGetsJson() throws Exception {
+        assertJson(perform(get("/api/tasks")));
+        assertJson(perform(get("/api/tasks/overdue")));
+    }
+    
+    @Test
+    void columnarAcceptGetsColumns() throws Exception {
+        MvcResult result = perform(get("/api/tasks").accept(TaskColumnarMessageConverter.COLUMNAR));
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(result.getResponse().getContentType()))
+                .matches(type -> type.equalsTypeAndSubtype(TaskColumnarMessageConverter.COLUMNAR));
+        assertThat(result.getResponse().getContentAsString()).contains("\"columns\"");
+    }
+    
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mvc.perform(request).andReturn();
+    }
+    
+    private static void assertJson(MvcResult result) throws Exception {
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(result.getResponse().getContentType()))
+                .matches(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_JSON));
+        assertThat(result.getResponse().getContentAsString()).startsWith("[");
+    }
+}
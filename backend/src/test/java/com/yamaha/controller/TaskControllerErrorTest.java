@@ -0,0 +1,108 @@
+package com.yamaha.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.yamaha.service.TaskWriteQueue;
+
+/**
+ * Status codes of the single-task endpoints: 404 only for an id no task
+ * has, 503 with Retry-After when the writer queue turns a write away, and
+ * other failures left to surface as server errors.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "tasks.retry-after-seconds=3",
+        "logging.level.com.yamaha=WARN"
+})
+@AutoConfigureMockMvc
+class TaskControllerErrorTest {
+    
+    private static final String TASK = "{\"taskName\": \"Error case\", \"responsible\": \"Operator A\","
+            + " \"status\": \"NOT_STARTED\"}";
+    
+    @Autowired
+    private MockMvc mvc;
+    
+    @SpyBean
+    private TaskWriteQueue writeQueue;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-errors");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @AfterEach
+    void resetWriteQueue() {
+        reset(writeQueue);
+    }
+    
+    @Test
+    void unknownTaskIsNotFound() throws Exception {
+        assertThat(status(get("/api/tasks/987654"))).isEqualTo(404);
+        assertThat(status(put("/api/tasks/987654").contentType(MediaType.APPLICATION_JSON).content(TASK))).isEqualTo(404);
+        assertThat(status(patch("/api/tasks/987654").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"completionPercentage\": 10}"))).isEqualTo(404);
+        assertThat(status(delete("/api/tasks/987654"))).isEqualTo(404);
+    }
+    
+    @Test
+    void fullWriteQueueIsServiceUnavailable() throws Exception {
+        doThrow(new RejectedExecutionException("Write queue is full")).when(writeQueue).execute(any());
+        
+        assertRetryLater(mvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON).content(TASK))
+                .andReturn());
+        assertRetryLater(mvc.perform(post("/api/tasks/create").contentType(MediaType.APPLICATION_JSON).content(TASK))
+                .andReturn());
+        assertRetryLater(mvc.perform(put("/api/tasks/1").contentType(MediaType.APPLICATION_JSON).content(TASK))
+                .andReturn());
+        assertRetryLater(mvc.perform(delete("/api/tasks/1")).andReturn());
+    }
+    
+    @Test
+    void storageFailureIsNotReportedAsNotFound() {
+        doThrow(new DataAccessResourceFailureException("disk I/O error")).when(writeQueue).execute(any());
+        
+        assertThatThrownBy(() -> mvc.perform(delete("/api/tasks/1")))
+                .hasRootCauseInstanceOf(DataAccessResourceFailureException.class);
+    }
+    
+    private int status(MockHttpServletRequestBuilder request) throws Exception {
+        return mvc.perform(request).andReturn().getResponse().getStatus();
+    }
+    
+    private static void assertRetryLater(MvcResult result) {
+        assertThat(result.getResponse().getStatus()).isEqualTo(503);
+        assertThat(result.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+}
@@ -0,0 +1,200 @@
+package com.yamaha.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls every {@link QueryBudget} endpoint through {@link TaskQueryProfilingFilter}
+ * against a fresh SQLite database and checks the statements it reports in
+ * {@code X-Query-Profile} stay within the budget. A change that adds round
+ * trips to an endpoint fails here instead of only warning in production.
+ */
+@SpringBootTest(properties = {
+        "tasks.query-profile.header=true",
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+@AutoConfigureMockMvc
+class TaskQueryBudgetTest {
+    
+    private static final Pattern PROFILE = Pattern.compile("statements=(\\d+);.*; budget=(\\d+)");
+    
+    private static final Set<String> covered = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    private MockMvc mvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-budget");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @BeforeEach
+    void seed() throws Exception {
+        withinBudget(post("/api/tasks/initialize"));
+    }
+    
+    @Test
+    void reads() throws Exception {
+        long id = anyTaskId();
+        withinBudget(get("/api/tasks"));
+        withinBudget(get("/api/tasks").param("status", "IN_PROGRESS").param("limit", "2"));
+        withinBudget(get("/api/tasks/" + id));
+        withinBudget(get("/api/tasks/summary"));
+        withinBudget(get("/api/tasks/summary/departments"));
+        withinBudget(get("/api/tasks/summary/categories"));
+        withinBudget(get("/api/tasks/overdue"));
+        withinBudget(get("/api/tasks/due-soon").param("days", "30"));
+        withinBudget(get("/api/tasks/search").param("q", "installation"));
+        withinBudget(post("/api/tasks/facets").contentType(MediaType.APPLICATION_JSON).content("{}"));
+        withinBudget(get("/api/tasks/changes").param("since", "0"));
+    }
+    
+    @Test
+    void singleWrites() throws Exception {
+        JsonNode created = json(withinBudget(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(task("Budget create"))));
+        long id = created.get("id").asLong();
+        
+        JsonNode updated = json(withinBudget(put("/api/tasks/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(task("Budget update"))));
+        withinBudget(patch("/api/tasks/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"completionPercentage\": 40, \"version\": " + updated.get("version").asLong() + "}"));
+        withinBudget(delete("/api/tasks/" + id));
+        
+        withinBudget(post("/api/tasks/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(task("Budget create with defaults")));
+    }
+    
+    @Test
+    void bulkWrites() throws Exception {
+        String tasks = "[" + task("Bulk one") + "," + task("Bulk two") + "," + task("Bulk three") + "]";
+        JsonNode created = json(withinBudget(post("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(tasks)));
+        assertThat(created.get("succeeded").asInt()).isEqualTo(3);
+        List<Long> ids = ids(created);
+        
+        String updates = ids.stream()
+                .map(id -> "{\"id\": " + id + ", " + task("Bulk renamed").substring(1))
+                .collect(Collectors.joining(",", "[", "]"));
+        JsonNode updated = json(withinBudget(put("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updates)));
+        assertThat(updated.get("succeeded").asInt()).isEqualTo(3);
+        JsonNode deleted = json(withinBudget(post("/api/tasks/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ids))));
+        assertThat(deleted.get("succeeded").asInt()).isEqualTo(3);
+    }
+    
+    @Test
+    void bulkWritesWithNewLookupNames() throws Exception {
+        String tasks = "[" + task("Bulk new names").replace("Operator A", "Operator Z").replace("Production", "Assembly")
+                .replace("Electrical", "Mechanical") + "]";
+        JsonNode created = json(withinBudget(post("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(tasks)));
+        assertThat(created.get("succeeded").asInt()).isEqualTo(1);
+        // Names added by the batch are known to the lookup dictionary, so reading them back costs no extra query
+        withinBudget(get("/api/tasks/" + ids(created).get(0)));
+        withinBudget(get("/api/tasks").param("limit", "1000"));
+    }
+    
+    @AfterAll
+    static void everyBudgetedEndpointIsCalled() {
+        Set<String> budgeted = Arrays.stream(TaskController.class.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(QueryBudget.class))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertThat(covered).containsAll(budgeted);
+    }
+    
+    private MvcResult withinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request).andReturn();
+        assertThat(result.getResponse().getStatus()).as("status of %s", describe(result)).isLessThan(400);
+        assertThat(result.getHandler()).isInstanceOf(HandlerMethod.class);
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        assertThat(handler.hasMethodAnnotation(QueryBudget.class))
+                .as("%s declares a QueryBudget", describe(result)).isTrue();
+        
+        String profile = result.getResponse().getHeader(TaskQueryProfilingFilter.PROFILE_HEADER);
+        assertThat(profile).as("profile of %s", describe(result)).isNotNull();
+        Matcher matcher = PROFILE.matcher(profile);
+        assertThat(matcher.find()).as("profile of %s: %s", describe(result), profile).isTrue();
+        int statements = Integer.parseInt(matcher.group(1));
+        int budget = Integer.parseInt(matcher.group(2));
+        assertThat(statements).as("statements issued by %s (%s)", describe(result), profile).isLessThanOrEqualTo(budget);
+        
+        covered.add(handler.getMethod().getName());
+        return result;
+    }
+    
+    private long anyTaskId() throws Exception {
+        JsonNode page = json(mvc.perform(get("/api/tasks").param("limit", "1")).andReturn());
+        return page.get(0).get("id").asLong();
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+    
+    private static List<Long> ids(JsonNode bulkResult) {
+        return bulkResult.findValues("id").stream()
+                .filter(JsonNode::canConvertToLong)
+                .map(JsonNode::asLong)
+                .collect(Collectors.toList());
+    }
+    
+    private static String task(String name) {
+        return "{\"taskName\": \"" + name + "\", \"responsible\": \"Operator A\", \"status\": \"NOT_STARTED\","
+                + " \"priority\": \"MEDIUM\", \"category\": \"Electrical\", \"department\": \"Production\","
+                + " \"startDate\": \"2026-01-05\", \"endDate\": \"2026-02-05\"}";
+    }
+    
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
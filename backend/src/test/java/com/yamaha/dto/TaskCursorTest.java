@@ -0,0 +1,33 @@
+package com.yamaha.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link TaskCursor} tokens survive a round trip, including a position on a
+ * row without updated_at.
+ */
+class TaskCursorTest {
+    
+    @Test
+    void updatedAtCursorRoundTrips() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+        TaskCursor cursor = TaskCursor.decode(new TaskCursor(TaskCursor.Sort.UPDATED_AT, 42L, updatedAt).encode());
+        
+        assertThat(cursor.getSort()).isEqualTo(TaskCursor.Sort.UPDATED_AT);
+        assertThat(cursor.getLastUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(cursor.getLastId()).isEqualTo(42L);
+    }
+    
+    @Test
+    void missingUpdatedAtRoundTrips() {
+        TaskCursor cursor = TaskCursor.decode(new TaskCursor(TaskCursor.Sort.UPDATED_AT, 42L, null).encode());
+        
+        assertThat(cursor.getSort()).isEqualTo(TaskCursor.Sort.UPDATED_AT);
+        assertThat(cursor.getLastUpdatedAt()).isNull();
+        assertThat(cursor.getLastId()).isEqualTo(42L);
+    }
+}
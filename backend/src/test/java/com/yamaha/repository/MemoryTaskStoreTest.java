@@ -0,0 +1,224 @@
+package com.yamaha.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link MemoryTaskStore} reopened on the files of a store that was never
+ * closed, as after a crash: it must come back with exactly the committed
+ * state, without transactions that rolled back after being journaled.
+ */
+class MemoryTaskStoreTest {
+    
+    @TempDir
+    Path dir;
+    
+    private final FlakyTransactionManager transactionManager = new FlakyTransactionManager();
+    private final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    private TaskRepository taskRepository;
+    private long changeSeq;
+    
+    @BeforeEach
+    void emptyDatabase() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.streamAll(null)).thenAnswer(invocation -> Stream.empty());
+    }
+    
+    @Test
+    void replayRestoresThePreCrashState() {
+        MemoryTaskStore store = open();
+        Random random = new Random(42);
+        List<Long> ids = new ArrayList<>();
+        for (int round = 0; round < 200; round++) {
+            if (round == 120) {
+                // Part of the state comes from a snapshot, the rest from the journal after it
+                store.snapshot();
+            }
+            int operation = ids.size() < 10 ? 0 : random.nextInt(6);
+            write(() -> {
+                switch (operation) {
+                    case 0 -> ids.add(store.insert(task("Task " + ids.size(), random)).getId());
+                    case 1 -> {
+                        Task task = store.findById(ids.get(random.nextInt(ids.size()))).orElseThrow();
+                        task.setTaskName(task.getTaskName() + " edited");
+                        task.setChangeSeq(++changeSeq);
+                        store.update(task);
+                    }
+                    case 2 -> store.delete(ids.remove(random.nextInt(ids.size())));
+                    case 3 -> store.updateProgress(ids.get(random.nextInt(ids.size())), true, TaskStatus.IN_PROGRESS,
+                            true, random.nextInt(101), null, ++changeSeq, LocalDateTime.now());
+                    case 4 -> {
+                        List<Task> batch = List.of(task("Batch a", random), task("Batch b", random));
+                        batch.forEach(task -> task.setCreatedAt(LocalDateTime.now()));
+                        ids.addAll(store.insertAll(batch));
+                    }
+                    default -> {
+                        // Several writes to one task in one transaction; the last one wins
+                        long id = ids.get(random.nextInt(ids.size()));
+                        Task first = store.findById(id).orElseThrow();
+                        first.setRemarks("first");
+                        first.setChangeSeq(++changeSeq);
+                        store.updateAll(List.of(first));
+                        Task second = store.findById(id).orElseThrow();
+                        second.setRemarks("second");
+                        second.setChangeSeq(++changeSeq);
+                        store.updateAll(List.of(second));
+                    }
+                }
+                return null;
+            });
+        }
+        List<Task> before = all(store);
+        long maxId = before.stream().mapToLong(Task::getId).max().orElse(0);
+        
+        MemoryTaskStore recovered = open();
+        assertThat(all(recovered)).usingRecursiveFieldByFieldElementComparator().isEqualTo(before);
+        assertThat(recovered.findMaxChangeSeq()).isEqualTo(store.findMaxChangeSeq());
+        assertThat(recovered.findChanged(0, changeSeq, Integer.MAX_VALUE))
+                .usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(store.findChanged(0, changeSeq, Integer.MAX_VALUE));
+        // Ids are not handed out again, even those of tasks deleted before the crash
+        long next = write(() -> recovered.insert(task("After crash", random)).getId());
+        assertThat(next).isGreaterThan(maxId);
+    }
+    
+    @Test
+    void transactionRolledBackAfterJournalingIsNotReplayed() {
+        MemoryTaskStore store = open();
+        Random random = new Random(7);
+        long kept = write(() -> store.insert(task("Kept", random)).getId());
+        
+        transactionManager.failNextCommit = true;
+        List<Long> rolledBack = new ArrayList<>();
+        assertThatThrownBy(() -> write(() -> rolledBack.add(store.insert(task("Rolled back", random)).getId())))
+                .isInstanceOf(TransactionSystemException.class);
+        assertThat(store.findById(rolledBack.get(0))).isEmpty();
+        
+        long after = write(() -> store.insert(task("After rollback", random)).getId());
+        
+        MemoryTaskStore recovered = open();
+        assertThat(all(recovered)).extracting(Task::getId).containsExactly(kept, after);
+        assertThat(recovered.findById(rolledBack.get(0))).isEmpty();
+    }
+    
+    @Test
+    void freshStoreImportsDatabaseTasks() {
+        Task first = task("Imported one", new Random(1));
+        first.setId(5L);
+        Task second = task("Imported two", new Random(2));
+        second.setId(9L);
+        when(taskRepository.streamAll(null)).thenAnswer(invocation -> Stream.of(first, second));
+        
+        MemoryTaskStore store = open();
+        assertThat(all(store)).extracting(Task::getId).containsExactly(5L, 9L);
+        
+        // Reopened, the store loads its own snapshot and does not import again
+        taskRepository = mock(TaskRepository.class);
+        MemoryTaskStore reopened = open();
+        verify(taskRepository, never()).streamAll(any());
+        assertThat(all(reopened)).usingRecursiveFieldByFieldElementComparator().isEqualTo(all(store));
+        assertThat(write(() -> reopened.insert(task("New", new Random(3))).getId())).isEqualTo(10L);
+    }
+    
+    private MemoryTaskStore open() {
+        MemoryTaskStore store = new MemoryTaskStore();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "transactionTemplate", tx);
+        ReflectionTestUtils.setField(store, "dir", dir.toString());
+        ReflectionTestUtils.setField(store, "journalSizeMb", 1);
+        store.open();
+        return store;
+    }
+    
+    private <T> T write(Supplier<T> mutation) {
+        return tx.execute(status -> mutation.get());
+    }
+    
+    private static List<Task> all(MemoryTaskStore store) {
+        try (Stream<Task> tasks = store.streamAll(null)) {
+            return tasks.collect(Collectors.toList());
+        }
+    }
+    
+    private Task task(String name, Random random) {
+        Task task = new Task(name, "Operator " + (char) ('A' + random.nextInt(4)),
+                TaskStatus.values()[random.nextInt(TaskStatus.values().length)], random.nextBoolean() ? "Remarks" : null);
+        task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+        task.setStartDate(LocalDate.of(2026, 1, 1).plusDays(random.nextInt(60)));
+        task.setEndDate(task.getStartDate().plusDays(random.nextInt(30)));
+        task.setCategory(random.nextBoolean() ? "IT" : "Electrical");
+        task.setChangeSeq(++changeSeq);
+        return task;
+    }
+    
+    /**
+     * Runs transaction synchronizations like a real manager, with no
+     * database behind it; can fail a commit after beforeCommit has run.
+     */
+    private static final class FlakyTransactionManager extends AbstractPlatformTransactionManager {
+        private boolean failNextCommit;
+        
+        FlakyTransactionManager() {
+            setRollbackOnCommitFailure(true);
+        }
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failNextCommit) {
+                failNextCommit = false;
+                throw new TransactionSystemException("Database commit failed");
+            }
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.yamaha.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * Recovery of {@link TaskJournal} after the crashes it is meant to survive:
+ * a torn last record, a crash between writing a snapshot and deleting the
+ * journals it covers, and a record rewound after its transaction rolled back.
+ */
+class TaskJournalTest {
+    
+    private static final int INITIAL_SIZE = 64 * 1024;
+    
+    @TempDir
+    Path dir;
+    
+    private final List<TaskJournal> opened = new ArrayList<>();
+    
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (TaskJournal journal : opened) {
+            journal.close();
+        }
+    }
+    
+    @Test
+    void corruptedLastRecordEndsTheJournal() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(delete(1));
+        journal.append(delete(2));
+        int last = journal.append(delete(3));
+        journal.close();
+        
+        // Flip a payload byte of the last record, as a write torn by a crash would leave it
+        try (RandomAccessFile file = new RandomAccessFile(journalFile(0).toFile(), "rw")) {
+            file.seek(last + 8 + 5);
+            file.write(file.read() ^ 0xFF);
+        }
+        
+        Recorded recovered = new Recorded();
+        TaskJournal reopened = open();
+        reopened.recover(recovered);
+        assertThat(recovered.deleted).containsExactly(1L, 2L);
+        
+        // The torn bytes are dropped, so a new record directly follows the last good one
+        reopened.append(delete(4));
+        reopened.close();
+        Recorded again = new Recorded();
+        open().recover(again);
+        assertThat(again.deleted).containsExactly(1L, 2L, 4L);
+    }
+    
+    @Test
+    void truncatedLastRecordEndsTheJournal() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(delete(1));
+        int last = journal.append(delete(2));
+        journal.close();
+        
+        try (RandomAccessFile file = new RandomAccessFile(journalFile(0).toFile(), "rw")) {
+            file.setLength(last + 8 + 3);
+        }
+        
+        Recorded recovered = new Recorded();
+        open().recover(recovered);
+        assertThat(recovered.deleted).containsExactly(1L);
+    }
+    
+    @Test
+    void journalsLeftBehindBySnapshotAreNotReplayed() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(put(task(1, "before snapshot")));
+        long generation = journal.rotate();
+        journal.append(delete(1));
+        journal.append(put(task(2, "after snapshot")));
+        
+        // Crash after the snapshot is in place but before the journal it covers is deleted
+        byte[] covered = Files.readAllBytes(journalFile(0));
+        journal.writeSnapshot(generation, 1, List.of(task(1, "before snapshot")));
+        assertThat(journalFile(0)).doesNotExist();
+        Files.write(journalFile(0), covered);
+        
+        Recorded recovered = new Recorded();
+        long lastId = open().recover(recovered);
+        assertThat(lastId).isEqualTo(1);
+        assertThat(recovered.operations).containsExactly("put 1 before snapshot", "delete 1", "put 2 after snapshot");
+        assertThat(journalFile(0)).doesNotExist();
+    }
+    
+    @Test
+    void unfinishedSnapshotIsIgnored() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(put(task(1, "journaled")));
+        journal.rotate();
+        journal.close();
+        
+        // Crash while the snapshot was still being written under its temporary name
+        Files.write(dir.resolve("tasks.snapshot.tmp"), new byte[] {0x1f, (byte) 0x8b, 0, 1});
+        
+        Recorded recovered = new Recorded();
+        open().recover(recovered);
+        assertThat(recovered.operations).containsExactly("put 1 journaled");
+    }
+    
+    @Test
+    void rewoundRecordIsNotReplayed() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(delete(1));
+        int rolledBack = journal.append(delete(2));
+        journal.rewind(rolledBack);
+        journal.append(delete(3));
+        
+        // No close: recovery must not depend on a clean shutdown
+        Recorded recovered = new Recorded();
+        open().recover(recovered);
+        assertThat(recovered.deleted).containsExactly(1L, 3L);
+    }
+    
+    @Test
+    void rewindToTheEndLeavesNothingBehind() throws IOException {
+        TaskJournal journal = open();
+        journal.recover(new Recorded());
+        journal.append(delete(1));
+        int rolledBack = journal.append(delete(2));
+        journal.rewind(rolledBack);
+        assertThat(journal.size()).isEqualTo(rolledBack);
+        
+        Recorded recovered = new Recorded();
+        open().recover(recovered);
+        assertThat(recovered.deleted).containsExactly(1L);
+    }
+    
+    private TaskJournal open() {
+        TaskJournal journal = new TaskJournal(dir, INITIAL_SIZE);
+        opened.add(journal);
+        return journal;
+    }
+    
+    private Path journalFile(long generation) {
+        return dir.resolve("journal-" + generation + ".log");
+    }
+    
+    private static Task task(long id, String name) {
+        Task task = new Task(name, "Operator A", TaskStatus.NOT_STARTED, null);
+        task.setId(id);
+        return task;
+    }
+    
+    private static byte[] put(Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(1);
+            out.writeByte(TaskJournal.PUT);
+            TaskCodec.write(out, task);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] delete(long id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(1);
+            out.writeByte(TaskJournal.DELETE);
+            out.writeLong(id);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static final class Recorded implements TaskJournal.Replay {
+        private final List<String> operations = new ArrayList<>();
+        private final List<Long> deleted = new ArrayList<>();
+        
+        @Override
+        public void put(Task task) {
+            operations.add("put " + task.getId() + " " + task.getTaskName());
+        }
+        
+        @Override
+        public void delete(long id) {
+            operations.add("delete " + id);
+            deleted.add(id);
+        }
+    }
+}
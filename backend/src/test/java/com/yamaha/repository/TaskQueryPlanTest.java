@@ -0,0 +1,196 @@
+package com.yamaha.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.yamaha.dto.TaskCursor;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskFilter;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskPriority;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.service.TaskBulkService;
+import com.yamaha.service.TaskQueryStatistics;
+
+/**
+ * Runs the SQL Hibernate generates for the filter, sort, count and delta
+ * sync queries through EXPLAIN QUERY PLAN against the migrated schema, with
+ * planner statistics as {@link TaskQueryStatistics} keeps them, and checks
+ * SQLite answers each from the index V3 (and V8) created for it rather
+ * than a scan of tasks.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.yamaha.repository.TaskQueryPlanTest$RecordingInspector",
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskQueryPlanTest {
+    
+    private static final int TASKS = 2000;
+    
+    private static final LocalDate FIRST_END_DATE = LocalDate.of(2026, 1, 1);
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TaskBulkService bulkService;
+    
+    @Autowired
+    private TaskQueryStatistics statistics;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-plans");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @BeforeEach
+    void seed() {
+        if (taskRepository.count() > 0) {
+            return;
+        }
+        List<TaskDTO> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            TaskDTO task = new TaskDTO();
+            task.setTaskName("Plan task " + i);
+            task.setResponsible("Operator " + (char) ('A' + i % 8));
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            task.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+            task.setCategory(i % 3 == 0 ? "IT" : i % 3 == 1 ? "Electrical" : "Mechanical");
+            task.setDepartment(i % 5 == 0 ? "IT" : i % 5 == 1 ? "Production" : "Assembly " + i % 5);
+            task.setIsCritical(i % 20 == 0);
+            task.setStartDate(FIRST_END_DATE.minusDays(7).plusDays(i));
+            task.setEndDate(FIRST_END_DATE.plusDays(i));
+            tasks.add(task);
+        }
+        assertThat(bulkService.createTasks(tasks).getSucceeded()).isEqualTo(TASKS);
+        statistics.analyze();
+    }
+    
+    @Test
+    void statusFilter() {
+        assertPlan(filter(f -> f.setStatus(TaskStatus.IN_PROGRESS)), "idx_tasks_status", "IN_PROGRESS", 100);
+    }
+    
+    @Test
+    void departmentAndStatusFilter() {
+        assertPlan(filter(f -> {
+            f.setDepartment("Production");
+            f.setStatus(TaskStatus.IN_PROGRESS);
+        }), "idx_tasks_department_status", "IN_PROGRESS", departmentId("Production"), 100);
+    }
+    
+    @Test
+    void priorityFilter() {
+        assertPlan(filter(f -> f.setPriority(TaskPriority.HIGH)), "idx_tasks_priority", "HIGH", 100);
+    }
+    
+    @Test
+    void categoryFilter() {
+        assertPlan(filter(f -> f.setCategory("Electrical")), "idx_tasks_category",
+                jdbcTemplate.queryForObject("SELECT id FROM task_categories WHERE name = 'Electrical'", Integer.class), 100);
+    }
+    
+    @Test
+    void criticalFilter() {
+        assertPlan(filter(f -> f.setIsCritical(true)), "idx_tasks_is_critical", true, 100);
+    }
+    
+    @Test
+    void endDateFilter() {
+        LocalDate from = FIRST_END_DATE.plusDays(TASKS - 10);
+        String sql = filter(f -> f.setFrom(from));
+        // The stored value, bound as Hibernate binds it
+        Object stored = jdbcTemplate.queryForObject("SELECT MIN(end_date) FROM tasks WHERE end_date >= ?",
+                Object.class, Date.valueOf(from));
+        assertPlan(sql, "idx_tasks_end_date", stored, 100);
+    }
+    
+    @Test
+    void keysetPageByUpdatedAt() {
+        Task newest = taskRepository.findPage(null, TaskCursor.Sort.UPDATED_AT, null, 1).get(0);
+        String sql = record(() -> taskRepository.findPage(null, TaskCursor.Sort.UPDATED_AT,
+                TaskCursor.after(TaskCursor.Sort.UPDATED_AT, newest), 100));
+        Object updatedAt = jdbcTemplate.queryForObject("SELECT updated_at FROM tasks WHERE id = ?", Object.class,
+                newest.getId());
+        assertPlan(sql, "idx_tasks_updated_at_id", updatedAt, updatedAt, newest.getId(), 100);
+    }
+    
+    @Test
+    void countByStatus() {
+        assertPlan(record(() -> taskRepository.countByStatus(TaskStatus.COMPLETED)), "idx_tasks_status", "COMPLETED");
+    }
+    
+    @Test
+    void changesSince() {
+        long max = taskRepository.findMaxChangeSeq();
+        assertPlan(record(() -> taskRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeq(
+                max - 50, max, PageRequest.ofSize(100))), "idx_tasks_change_seq", max - 50, max, 100, 0);
+    }
+    
+    @Test
+    void maxChangeSeq() {
+        assertPlan(record(() -> taskRepository.findMaxChangeSeq()), "idx_tasks_change_seq");
+    }
+    
+    private int departmentId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM task_departments WHERE name = ?", Integer.class, name);
+    }
+    
+    private String filter(Consumer<TaskFilter> criteria) {
+        TaskFilter filter = new TaskFilter();
+        criteria.accept(filter);
+        return record(() -> taskRepository.findPage(filter, TaskCursor.Sort.ID, null, 100));
+    }
+    
+    private String record(Runnable query) {
+        RecordingInspector.statements.clear();
+        query.run();
+        assertThat(RecordingInspector.statements).hasSize(1);
+        return RecordingInspector.statements.get(0);
+    }
+    
+    private void assertPlan(String sql, String index, Object... parameters) {
+        // Bound like the real query: with sqlite_stat4 the plan for a range depends on the value
+        List<String> plan = jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, row) -> rs.getString("detail"),
+                parameters);
+        assertThat(plan).as("plan of %s", sql)
+                .anyMatch(step -> step.matches("(SEARCH|SCAN) t1_0 USING (COVERING )?INDEX " + index + "( .*)?"))
+                .noneMatch(step -> step.equals("SCAN t1_0"));
+    }
+    
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.yamaha.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * {@link TaskSchemaMigration} on databases created before Flyway, by
+ * ddl-auto=update, with and without the change tracking columns.
+ */
+class TaskSchemaMigrationTest {
+    
+    // tasks as ddl-auto=update created it before change tracking
+    private static final String TASKS_DDL = "CREATE TABLE tasks (id integer, actual_hours integer, category varchar(255),"
+            + " completion_percentage integer, created_at timestamp, department varchar(255), end_date date,"
+            + " estimated_hours integer, is_critical boolean, priority varchar(255), remarks varchar(255),"
+            + " responsible varchar(255) not null, start_date date, status varchar(255) not null,"
+            + " task_name varchar(255) not null, updated_at timestamp, primary key (id))";
+    
+    @TempDir
+    Path dir;
+    
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void database() {
+        dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + dir.resolve("tasks.db"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(TASKS_DDL);
+    }
+    
+    @Test
+    void schemaWithChangeTrackingIsBaselinedPastIt() {
+        // Added by ddl-auto=update once delta sync existed
+        jdbcTemplate.execute("ALTER TABLE tasks ADD COLUMN change_seq bigint");
+        jdbcTemplate.execute("CREATE TABLE task_tombstones (change_seq bigint not null, task_id bigint not null,"
+                + " deleted_at timestamp, primary key (change_seq))");
+        jdbcTemplate.update("INSERT INTO tasks (id, responsible, status, task_name, change_seq)"
+                + " VALUES (7, 'Operator A', 'IN_PROGRESS', 'Existing', 12)");
+        
+        new TaskSchemaMigration().migrate(flyway());
+        
+        assertThat(flyway().info().current().getVersion().getVersion()).isEqualTo("9");
+        assertThat(jdbcTemplate.queryForObject("SELECT change_seq FROM tasks WHERE id = 7", Long.class)).isEqualTo(12L);
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'",
+                String.class)).isEqualTo(TaskSchemaMigration.CHANGE_TRACKING_VERSION);
+    }
+    
+    @Test
+    void schemaWithoutChangeTrackingGetsIt() {
+        jdbcTemplate.update("INSERT INTO tasks (id, responsible, status, task_name)"
+                + " VALUES (7, 'Operator A', 'IN_PROGRESS', 'Existing')");
+        
+        new TaskSchemaMigration().migrate(flyway());
+        
+        assertThat(flyway().info().current().getVersion().getVersion()).isEqualTo("9");
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM pragma_table_info('tasks')", String.class))
+                .contains("change_seq", "version");
+        // Backfilled, so keyset pages by updated_at can step past it
+        assertThat(jdbcTemplate.queryForObject("SELECT updated_at FROM tasks WHERE id = 7", Long.class)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'",
+                String.class)).isEqualTo("0");
+    }
+    
+    private Flyway flyway() {
+        // The settings from application.properties
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+}
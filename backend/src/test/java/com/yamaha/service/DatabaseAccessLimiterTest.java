@@ -0,0 +1,23 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link DatabaseAccessLimiter} refuses to start where virtual threads do not exist.
+ */
+class DatabaseAccessLimiterTest {
+    
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void startupFailsBeforeJava21() {
+        assertThatThrownBy(() -> new DatabaseAccessLimiter(8, 10, 5000, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("-Pvirtual-threads");
+    }
+}
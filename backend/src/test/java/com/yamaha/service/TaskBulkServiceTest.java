@@ -0,0 +1,177 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.yamaha.dto.BulkItemResultDTO;
+import com.yamaha.dto.BulkResultDTO;
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskArchiveRepository;
+import com.yamaha.repository.TaskBatchRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-item outcomes of {@link TaskBulkService}: generated ids, version
+ * conflicts and archived tasks; and timing of the JDBC batch paths.
+ */
+@SpringBootTest(properties = {
+        "tasks.bulk.chunk-size=3",
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskBulkServiceTest {
+    
+    @Autowired
+    private TaskBulkService bulkService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private TaskBatchRepository batchRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-bulk");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @Test
+    void createdIdsBelongToTheirTasks() {
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tasks.add(task("Created " + i));
+        }
+        
+        BulkResultDTO result = bulkService.createTasks(tasks);
+        
+        assertThat(result.getSucceeded()).isEqualTo(7);
+        for (BulkItemResultDTO item : result.getResults()) {
+            assertThat(taskService.getTaskById(item.getId()).getTaskName()).isEqualTo("Created " + item.getIndex());
+        }
+    }
+    
+    @Test
+    void batchRepositoryCallsAreTimed() {
+        long before = batchTimerCount("exists");
+        
+        batchRepository.exists(Long.MAX_VALUE);
+        
+        assertThat(batchTimerCount("exists")).isEqualTo(before + 1);
+        assertThat(meterRegistry.get("tasks.batch.invocations").tag("method", "insertAll").timer()).isNotNull();
+    }
+    
+    @Test
+    void staleVersionIsAConflictAndTheRestOfTheChunkIsWritten() {
+        List<Long> ids = create("Stale", "Current", "Unversioned");
+        
+        TaskDTO stale = update(ids.get(0), "Stale edit");
+        stale.setVersion(5L);
+        TaskDTO current = update(ids.get(1), "Current edit");
+        current.setVersion(0L);
+        TaskDTO unversioned = update(ids.get(2), "Unversioned edit");
+        BulkResultDTO result = bulkService.updateTasks(List.of(stale, current, unversioned));
+        
+        assertThat(result.getResults().get(0).isSuccess()).isFalse();
+        assertThat(result.getResults().get(0).getError()).startsWith("Version conflict");
+        assertThat(result.getResults().get(1).isSuccess()).isTrue();
+        assertThat(result.getResults().get(2).isSuccess()).isTrue();
+        assertThat(taskService.getTaskById(ids.get(0)).getTaskName()).isEqualTo("Stale");
+        assertThat(taskService.getTaskById(ids.get(1)).getTaskName()).isEqualTo("Current edit");
+        assertThat(taskService.getTaskById(ids.get(1)).getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    void repeatedIdIsCheckedAgainstTheEarlierItem() {
+        Long id = create("Repeated").get(0);
+        
+        TaskDTO first = update(id, "First");
+        first.setVersion(0L);
+        TaskDTO second = update(id, "Second");
+        second.setVersion(1L);
+        TaskDTO stale = update(id, "Stale");
+        stale.setVersion(0L);
+        BulkResultDTO result = bulkService.updateTasks(List.of(first, second, stale));
+        
+        assertThat(result.getResults()).extracting(BulkItemResultDTO::isSuccess).containsExactly(true, true, false);
+        assertThat(taskService.getTaskById(id).getTaskName()).isEqualTo("Second");
+        assertThat(taskService.getTaskById(id).getVersion()).isEqualTo(2L);
+    }
+    
+    @Test
+    void archivedTaskIsReportedAsArchived() {
+        List<Long> ids = create("To archive");
+        writeQueue.execute(() -> archiveRepository.moveToArchive(ids, LocalDateTime.now()));
+        
+        BulkResultDTO result = bulkService.updateTasks(List.of(update(ids.get(0), "Archived edit"),
+                update(987654L, "Missing edit")));
+        
+        assertThat(result.getResults()).extracting(BulkItemResultDTO::getError)
+                .containsExactly("Task is archived", "Task not found");
+    }
+    
+    @Test
+    void archivedTaskIsDeletedFromTheArchive() {
+        List<Long> ids = create("Archived delete");
+        writeQueue.execute(() -> archiveRepository.moveToArchive(ids, LocalDateTime.now()));
+        // Cached from the archive, so the delete has to evict it
+        assertThat(taskService.getTaskById(ids.get(0)).getTaskName()).isEqualTo("Archived delete");
+        
+        BulkResultDTO result = bulkService.deleteTasks(List.of(ids.get(0), 987654L));
+        
+        assertThat(result.getResults()).extracting(BulkItemResultDTO::getError)
+                .containsExactly(null, "Task not found");
+        assertThatThrownBy(() -> taskService.getTaskById(ids.get(0))).isInstanceOf(TaskNotFoundException.class);
+    }
+    
+    private List<Long> create(String... names) {
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (String name : names) {
+            tasks.add(task(name));
+        }
+        return bulkService.createTasks(tasks).getResults().stream().map(BulkItemResultDTO::getId).toList();
+    }
+    
+    private TaskDTO update(Long id, String name) {
+        TaskDTO task = task(name);
+        task.setId(id);
+        return task;
+    }
+    
+    private TaskDTO task(String name) {
+        TaskDTO task = new TaskDTO();
+        task.setTaskName(name);
+        task.setResponsible("Operator A");
+        task.setStatus(TaskStatus.COMPLETED);
+        return task;
+    }
+    
+    private long batchTimerCount(String method) {
+        return meterRegistry.get("tasks.batch.invocations").tag("method", method).timer().count();
+    }
+}
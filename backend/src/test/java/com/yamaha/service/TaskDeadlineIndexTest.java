@@ -0,0 +1,88 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * The {@code overdue} flag on task DTOs, and {@link TaskOverdueEvent}
+ * clearing DTOs cached before the flag changed.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskDeadlineIndexTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-deadlines");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @Test
+    void openTaskPastItsEndDateIsOverdue() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        TaskDTO late = create("Late", TaskStatus.IN_PROGRESS, yesterday);
+        TaskDTO done = create("Done late", TaskStatus.COMPLETED, yesterday);
+        TaskDTO today = create("Due today", TaskStatus.IN_PROGRESS, LocalDate.now());
+        
+        assertThat(late.isOverdue()).isTrue();
+        assertThat(taskService.getTaskById(late.getId()).isOverdue()).isTrue();
+        assertThat(taskService.getTaskById(done.getId()).isOverdue()).isFalse();
+        assertThat(taskService.getTaskById(today.getId()).isOverdue()).isFalse();
+        assertThat(taskService.getOverdueTasks(1000)).filteredOn(task -> task.getId().equals(late.getId()))
+                .singleElement().extracting(TaskDTO::isOverdue).isEqualTo(true);
+        
+        TaskDTO completed = taskService.getTaskById(late.getId());
+        completed.setStatus(TaskStatus.COMPLETED);
+        assertThat(taskService.updateTask(late.getId(), completed).isOverdue()).isFalse();
+    }
+    
+    @Test
+    void overdueEventEvictsCachedTasks() {
+        TaskDTO task = create("Cached", TaskStatus.NOT_STARTED, LocalDate.now());
+        taskService.getTaskById(task.getId());
+        assertThat(cacheManager.getCache(TaskService.TASK_CACHE).get(task.getId())).isNotNull();
+        
+        // What the midnight check publishes once the end date has passed
+        eventPublisher.publishEvent(new TaskOverdueEvent(LocalDate.now().plusDays(1), List.of(task.getId())));
+        
+        assertThat(cacheManager.getCache(TaskService.TASK_CACHE).get(task.getId())).isNull();
+    }
+    
+    private TaskDTO create(String name, TaskStatus status, LocalDate endDate) {
+        TaskDTO task = new TaskDTO();
+        task.setTaskName(name);
+        task.setResponsible("Operator A");
+        task.setStatus(status);
+        task.setStartDate(endDate.minusDays(3));
+        task.setEndDate(endDate);
+        return taskService.createTask(task);
+    }
+}
@@ -0,0 +1,171 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.dto.TaskSummaryDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link TaskEventBroadcaster} with a subscriber that stops reading: the
+ * writer's hand-off returns at once, the other subscribers keep receiving
+ * events, and the stuck one is dropped.
+ */
+class TaskEventBroadcasterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskEventBroadcaster broadcaster;
+    
+    @BeforeEach
+    void broadcaster() {
+        TaskSummaryCounters summaryCounters = mock(TaskSummaryCounters.class);
+        when(summaryCounters.snapshot()).thenReturn(new TaskSummaryDTO(0L, 0L, 0L, 0L, 0L));
+        broadcaster = new TaskEventBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "summaryCounters", summaryCounters);
+        ReflectionTestUtils.setField(broadcaster, "changeSequence", mock(TaskChangeSequence.class));
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 256);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 10);
+        // One dispatcher thread, so a stuck send alone would starve everyone
+        ReflectionTestUtils.setField(broadcaster, "dispatchThreads", 1);
+        ReflectionTestUtils.setField(broadcaster, "fanoutQueueSize", 100);
+        ReflectionTestUtils.setField(broadcaster, "sendTimeoutMs", 100L);
+        ReflectionTestUtils.setField(broadcaster, "maxBlockedSends", 4);
+        broadcaster.start();
+    }
+    
+    @AfterEach
+    void stop() {
+        broadcaster.stop();
+    }
+    
+    @Test
+    void stuckSubscriberIsDroppedWithoutStallingOthers() throws Exception {
+        StuckEmitter stuck = new StuckEmitter();
+        broadcaster.subscribe(stuck);
+        assertThat(stuck.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.subscribe(healthy);
+        
+        long start = System.nanoTime();
+        for (long seq = 1; seq <= 50; seq++) {
+            broadcaster.onTaskChange(TaskChangeEvent.deleted(seq, seq));
+        }
+        // The writer only enqueued
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        
+        Thread.sleep(150);
+        broadcaster.dropStuckSubscribers();
+        assertThat(meterRegistry.get("tasks.events.stuck").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tasks.events.subscribers").gauge().value()).isEqualTo(1);
+        
+        // The healthy subscriber is served by the thread lent in place of the blocked one
+        assertThat(healthy.poll()).contains("event:summary");
+        String last;
+        do {
+            last = healthy.poll();
+            assertThat(last).isNotNull();
+        } while (!last.contains("id:50"));
+        
+        // Once the blocked write returns, the stuck stream is closed
+        stuck.release.countDown();
+        assertThat(stuck.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+    
+    @Test
+    void changesReachSubscribersAsUpserts() throws Exception {
+        RecordingEmitter subscriber = new RecordingEmitter();
+        broadcaster.subscribe(subscriber);
+        TaskDTO task = new TaskDTO();
+        task.setId(7L);
+        broadcaster.onTaskChange(TaskChangeEvent.created(task, 41));
+        
+        String received = "";
+        while (!received.contains("task-created")) {
+            String next = subscriber.poll();
+            assertThat(next).isNotNull();
+            received += next;
+        }
+        assertThat(received).contains("id:41");
+    }
+    
+    @Test
+    void fanOutOverflowAsksForResync() throws Exception {
+        RecordingEmitter subscriber = new RecordingEmitter();
+        broadcaster.subscribe(subscriber);
+        
+        // Far more than the fan-out queue holds, faster than it drains
+        for (long seq = 1; seq <= 10_000; seq++) {
+            broadcaster.onTaskChange(TaskChangeEvent.deleted(seq, seq));
+        }
+        
+        String next;
+        do {
+            next = subscriber.poll();
+            assertThat(next).isNotNull();
+        } while (!next.contains("event:resync"));
+    }
+    
+    /**
+     * Records what it is asked to send, without a servlet response behind it.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+        
+        String poll() throws InterruptedException {
+            return sent.poll(5, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * A client that stopped reading: every send blocks until released.
+     */
+    private static class StuckEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+        
+        @Override
+        public synchronized void completeWithError(Throwable error) {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.TaskStatus;
+
+/**
+ * The task cache only changes once a write has committed: updates evict
+ * after commit, and a rolled-back update leaves the cached DTO as it was.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskServiceCacheTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-cache");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @Test
+    void committedUpdateEvictsTheCachedTask() {
+        TaskDTO task = taskService.createTask(task("Before"));
+        assertThat(cached(task.getId()).getTaskName()).isEqualTo("Before");
+        
+        taskService.updateTask(task.getId(), task("After"));
+        
+        assertThat(cache().get(task.getId())).isNull();
+        assertThat(taskService.getTaskById(task.getId()).getVersion()).isEqualTo(1L);
+    }
+    
+    @Test
+    void rolledBackUpdateLeavesTheCachedTask() {
+        TaskDTO task = taskService.createTask(task("Kept"));
+        taskService.getTaskById(task.getId());
+        
+        assertThatThrownBy(() -> writeQueue.execute(() -> {
+            taskService.updateTask(task.getId(), task("Rolled back"));
+            throw new IllegalStateException("abort");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(cached(task.getId()).getTaskName()).isEqualTo("Kept");
+        assertThat(taskService.getTaskById(task.getId()).getVersion()).isEqualTo(0L);
+    }
+    
+    private TaskDTO cached(Long id) {
+        return cache().get(id, TaskDTO.class);
+    }
+    
+    private Cache cache() {
+        return cacheManager.getCache(TaskService.TASK_CACHE);
+    }
+    
+    private static TaskDTO task(String name) {
+        TaskDTO task = new TaskDTO();
+        task.setTaskName(name);
+        task.setResponsible("Operator A");
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        return task;
+    }
+}
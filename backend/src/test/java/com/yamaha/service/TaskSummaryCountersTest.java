@@ -0,0 +1,112 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskStore;
+
+/**
+ * {@link TaskSummaryCounters#reconcile()} against writes whose increments
+ * have not been applied yet when the store is counted.
+ */
+class TaskSummaryCountersTest {
+    
+    private final TransactionTemplate tx = new TransactionTemplate(new NoDatabaseTransactionManager());
+    private final Map<TaskStatus, Long> stored = new EnumMap<>(TaskStatus.class);
+    private TaskSummaryCounters counters;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void counters() {
+        TaskStore taskStore = mock(TaskStore.class);
+        when(taskStore.countByStatus()).thenAnswer(invocation -> new EnumMap<>(stored));
+        // Like the writer queue: each mutation joins the group transaction
+        TaskWriteQueue writeQueue = mock(TaskWriteQueue.class);
+        when(writeQueue.execute(any())).thenAnswer(invocation ->
+                tx.execute(status -> ((Supplier<Object>) invocation.getArgument(0)).get()));
+        
+        counters = new TaskSummaryCounters();
+        ReflectionTestUtils.setField(counters, "taskStore", taskStore);
+        ReflectionTestUtils.setField(counters, "writeQueue", writeQueue);
+        stored.put(TaskStatus.IN_PROGRESS, 3L);
+        counters.rebuild();
+    }
+    
+    @Test
+    void writeEarlierInTheGroupIsNotCountedTwice() {
+        tx.executeWithoutResult(status -> {
+            create(TaskStatus.IN_PROGRESS);
+            counters.reconcile();
+        });
+        
+        assertThat(counters.snapshot().getInProgressTasks()).isEqualTo(4);
+    }
+    
+    @Test
+    void writeLaterInTheGroupIsNotCountedTwice() {
+        tx.executeWithoutResult(status -> {
+            counters.reconcile();
+            create(TaskStatus.IN_PROGRESS);
+        });
+        
+        assertThat(counters.snapshot().getInProgressTasks()).isEqualTo(4);
+    }
+    
+    @Test
+    void driftIsCorrected() {
+        stored.put(TaskStatus.HOLD, 2L);
+        
+        counters.reconcile();
+        
+        assertThat(counters.snapshot().getOnHoldTasks()).isEqualTo(2);
+        assertThat(counters.snapshot().getTotalTasks()).isEqualTo(5);
+    }
+    
+    // What TaskService does for a create: the row now, the increment after commit
+    private void create(TaskStatus status) {
+        stored.merge(status, 1L, Long::sum);
+        AfterCommit.run(() -> counters.created(status));
+    }
+    
+    private static final class NoDatabaseTransactionManager extends AbstractPlatformTransactionManager {
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        // Nested executions join the open transaction, as with a real manager
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isSynchronizationActive();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.yamaha.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.yamaha.dto.TaskDTO;
+import com.yamaha.entity.Task;
+import com.yamaha.entity.TaskStatus;
+import com.yamaha.repository.TaskStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link TaskWriteQueue} group commits: a failing mutation rolls back to its
+ * savepoint while the rest of its group commits, and a stopped queue refuses
+ * new work.
+ */
+@SpringBootTest(properties = {
+        "tasks.admission.client.write-rate=0",
+        "logging.level.com.yamaha=WARN"
+})
+class TaskWriteQueueTest {
+    
+    @Autowired
+    private TaskWriteQueue writeQueue;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskStore taskStore;
+    
+    @Autowired
+    private TaskSummaryCounters summaryCounters;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("task-writer");
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("tasks.db"));
+        registry.add("tasks.store.memory.dir", () -> dir.resolve("task-store").toString());
+    }
+    
+    @Test
+    void failingMutationRollsBackAloneAndTheGroupCommits() throws Exception {
+        long total = summaryCounters.snapshot().getTotalTasks();
+        double groupFailures = meterRegistry.get("tasks.writer.group.failures").counter().count();
+        
+        // Hold the writer so the next three are drained as one group
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> blocker = writeQueue.submit(() -> await(release));
+        CompletableFuture<TaskDTO> first = writeQueue.submit(() -> taskService.createTask(task("Savepoint first")));
+        AtomicReference<Long> rolledBack = new AtomicReference<>();
+        CompletableFuture<TaskDTO> failing = writeQueue.submit(() -> {
+            rolledBack.set(taskService.createTask(task("Savepoint failing")).getId());
+            throw new TaskNotFoundException(42L);
+        });
+        CompletableFuture<TaskDTO> third = writeQueue.submit(() -> taskService.createTask(task("Savepoint third")));
+        release.countDown();
+        blocker.join();
+        
+        assertThatThrownBy(failing::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TaskNotFoundException.class);
+        assertThat(taskService.getTaskById(first.join().getId()).getTaskName()).isEqualTo("Savepoint first");
+        assertThat(taskService.getTaskById(third.join().getId()).getTaskName()).isEqualTo("Savepoint third");
+        // SQLite may hand the rolled-back id on to the third task
+        assertThat(taskStore.findById(rolledBack.get()).map(Task::getTaskName).orElse(null))
+                .isNotEqualTo("Savepoint failing");
+        // The failing mutation's after-commit actions were dropped with it
+        assertThat(summaryCounters.snapshot().getTotalTasks()).isEqualTo(total + 2);
+        assertThat(meterRegistry.get("tasks.writer.group.failures").counter().count()).isEqualTo(groupFailures);
+    }
+    
+    @Test
+    void stoppedQueueRejectsWrites() throws Exception {
+        TaskWriteQueue stopped = new TaskWriteQueue();
+        ReflectionTestUtils.setField(stopped, "transactionTemplate",
+                ReflectionTestUtils.getField(writeQueue, "transactionTemplate"));
+        ReflectionTestUtils.setField(stopped, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(stopped, "queueCapacity", 10);
+        ReflectionTestUtils.setField(stopped, "maxBatch", 10);
+        ReflectionTestUtils.setField(stopped, "enqueueTimeoutMs", 100L);
+        stopped.start();
+        stopped.stop();
+        
+        assertThatThrownBy(() -> stopped.submit(() -> 1)).isInstanceOf(RejectedExecutionException.class);
+    }
+    
+    private static Object await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+    
+    private static TaskDTO task(String name) {
+        TaskDTO task = new TaskDTO();
+        task.setTaskName(name);
+        task.setResponsible("Operator A");
+        task.setStatus(TaskStatus.NOT_STARTED);
+        return task;
+    }
+}
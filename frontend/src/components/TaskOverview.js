@@ -7,6 +7,7 @@ import NewTaskModal from './NewTaskModal';
 
 const TaskOverview = () => {
   const [tasks, setTasks] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [summary, setSummary] = useState({
     total: 0,
     completed: 0,
@@ -25,7 +26,9 @@ const TaskOverview = () => {
   });
 
   const [filter, setFilter] = useState('all');
+  const [includeArchived, setIncludeArchived] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
+  const [searchResults, setSearchResults] = useState(null);
 
   /* ---------------- Notification ---------------- */
   const showNotification = (message, type) => {
@@ -36,17 +39,23 @@ const TaskOverview = () => {
   };
 
   /* ---------------- API Calls ---------------- */
-  const loadTasks = useCallback(async () => {
+  // Filters are applied server-side; pages are appended as the user loads more
+  const loadTasks = useCallback(async (cursor = null) => {
     setLoading(true);
     try {
-      const res = await taskService.getAllTasks();
-      setTasks(res.data);
+      const params = {};
+      if (filter !== 'all') params.status = filter;
+      if (includeArchived) params.includeArchived = true;
+      if (cursor) params.cursor = cursor;
+      const res = await taskService.getAllTasks(params);
+      setTasks((prev) => (cursor ? [...prev, ...res.data] : res.data));
+      setNextCursor(res.headers['x-next-cursor'] || null);
     } catch (err) {
       showNotification('Failed to load tasks', 'error');
     } finally {
       setLoading(false);
     }
-  }, []);
+  }, [filter, includeArchived]);
 
   const loadSummary = useCallback(async () => {
     try {
@@ -62,6 +71,31 @@ const TaskOverview = () => {
     loadSummary();
   }, [loadTasks, loadSummary]);
 
+  // Summary updates are pushed by the server instead of polled
+  useEffect(() => {
+    const events = taskService.subscribeToEvents();
+    events.addEventListener('summary', (e) => setSummary(JSON.parse(e.data)));
+    return () => events.close();
+  }, []);
+
+  // Full-text search runs on the server across all tasks, debounced while typing
+  useEffect(() => {
+    const term = searchTerm.trim();
+    if (!term) {
+      setSearchResults(null);
+      return undefined;
+    }
+    const timer = setTimeout(async () => {
+      try {
+        const res = await taskService.searchTasks(term);
+        setSearchResults(res.data.map((hit) => hit.task));
+      } catch (err) {
+        showNotification('Search failed', 'error');
+      }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   /* ---------------- CRUD ---------------- */
   const handleCreateTask = async (task) => {
     try {
@@ -75,16 +109,29 @@ const TaskOverview = () => {
     }
   };
 
+  // Sends only the edited fields, guarded by the version the table was showing
   const handleTaskUpdate = async (id, updatedTask) => {
+    const current = tasks.find((t) => t.id === id);
+    const changes = { version: current ? current.version : undefined };
+    Object.keys(updatedTask).forEach((key) => {
+      if (key !== 'id' && key !== 'version' && (!current || updatedTask[key] !== current[key])) {
+        changes[key] = updatedTask[key];
+      }
+    });
     try {
-      await taskService.updateTask(id, updatedTask);
+      const res = await taskService.patchTask(id, changes);
       setTasks((prev) =>
-        prev.map((t) => (t.id === id ? updatedTask : t))
+        prev.map((t) => (t.id === id ? res.data : t))
       );
       loadSummary();
       showNotification('Task updated', 'success');
-    } catch {
-      showNotification('Update failed', 'error');
+    } catch (err) {
+      if (err.response && err.response.status === 409) {
+        showNotification('Task was changed by someone else; reloaded', 'error');
+        loadTasks();
+      } else {
+        showNotification('Update failed', 'error');
+      }
     }
   };
 
@@ -101,13 +148,9 @@ const TaskOverview = () => {
   };
 
   /* ---------------- Filters ---------------- */
-  const filteredTasks = tasks.filter((task) => {
-    const statusMatch = filter === 'all' || task.status === filter;
-    const searchMatch =
-      task.taskName.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      task.responsible.toLowerCase().includes(searchTerm.toLowerCase());
-    return statusMatch && searchMatch;
-  });
+  const filteredTasks = searchResults
+    ? searchResults.filter((task) => filter === 'all' || task.status === filter)
+    : tasks;
 
   /* ---------------- UI ---------------- */
   return (
@@ -129,9 +172,18 @@ const TaskOverview = () => {
           <option value="NOT_STARTED">Not Started</option>
         </select>
 
+        <label>
+          <input
+            type="checkbox"
+            checked={includeArchived}
+            onChange={(e) => setIncludeArchived(e.target.checked)}
+          />{' '}
+          Include archived
+        </label>
+
         <input
           type="text"
-          placeholder="Search task / owner"
+          placeholder="Search task / owner / remarks"
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
         />
@@ -144,10 +196,16 @@ const TaskOverview = () => {
       {/* Task Table */}
       <TaskTable
         tasks={filteredTasks}
-        onUpdate={handleTaskUpdate}
+        onTaskUpdate={handleTaskUpdate}
         onDelete={(id) => setShowDeleteId(id)}
       />
 
+      {nextCursor && !searchResults && (
+        <button disabled={loading} onClick={() => loadTasks(nextCursor)}>
+          Load more
+        </button>
+      )}
+
       {/* Delete Confirmation */}
       {showDeleteId && (
         <ConfirmationModal
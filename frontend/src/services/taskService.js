@@ -3,16 +3,69 @@ import axios from 'axios';
 
 const API_BASE_URL = process.env.REACT_APP_API_BASE_URL;
 
+const COLUMNAR = 'application/vnd.yamaha.tasks.columnar+json';
+const DAY_MS = 24 * 60 * 60 * 1000;
+
+// Rebuilds task objects from the column-wise list representation
+const fromColumns = ({ count, enums, dictionaries, columns }) => {
+    const lookup = (values, code) => (code < 0 ? null : values[code]);
+    const date = (days) => (days === null ? null : new Date(days * DAY_MS).toISOString().slice(0, 10));
+    const tasks = new Array(count);
+    for (let i = 0; i < count; i++) {
+        tasks[i] = {
+            id: columns.id[i],
+            taskName: columns.taskName[i],
+            startDate: date(columns.startDate[i]),
+            endDate: date(columns.endDate[i]),
+            responsible: lookup(dictionaries.responsible, columns.responsible[i]),
+            status: lookup(enums.status, columns.status[i]),
+            remarks: columns.remarks[i],
+            priority: lookup(enums.priority, columns.priority[i]),
+            category: lookup(dictionaries.category, columns.category[i]),
+            estimatedHours: columns.estimatedHours[i],
+            actualHours: columns.actualHours[i],
+            completionPercentage: columns.completionPercentage[i],
+            department: lookup(dictionaries.department, columns.department[i]),
+            isCritical: columns.isCritical[i],
+            version: columns.version[i],
+            overdue: columns.overdue[i],
+        };
+    }
+    return tasks;
+};
+
+// Runs after axios's own JSON parsing; only a columnar list is decoded, so
+// error bodies (4xx, 429, 503, ...) reach callers unchanged
+const decodeColumnar = (data, headers) => {
+    const contentType = String((headers && headers.getContentType()) || '');
+    if (contentType.startsWith(COLUMNAR) && data && typeof data.count === 'number') {
+        return fromColumns(data);
+    }
+    return data;
+};
+
 
 
 const taskService = {
-    getAllTasks: () => axios.get(API_BASE_URL),
+    // params: status, priority, department, category, isCritical, from, to, cursor, limit, sort
+    getAllTasks: (params = {}) => axios.get(API_BASE_URL, {
+        params,
+        headers: { Accept: COLUMNAR },
+        transformResponse: [].concat(axios.defaults.transformResponse, decodeColumnar),
+    }),
     getTaskById: (id) => axios.get(`${API_BASE_URL}/${id}`),
     createTask: (task) => axios.post(API_BASE_URL, task), // This should be the main endpoint
     updateTask: (id, task) => axios.put(`${API_BASE_URL}/${id}`, task),
+    // Only the fields present are written; include version to detect concurrent edits (409)
+    patchTask: (id, fields) => axios.patch(`${API_BASE_URL}/${id}`, fields),
     deleteTask: (id) => axios.delete(`${API_BASE_URL}/${id}`),
     getTaskSummary: () => axios.get(`${API_BASE_URL}/summary`),
-    initializeData: () => axios.post(`${API_BASE_URL}/initialize`)
+    searchTasks: (q, limit) => axios.get(`${API_BASE_URL}/search`, { params: { q, limit } }),
+    getChanges: (since) => axios.get(`${API_BASE_URL}/changes`, { params: { since } }),
+    getOverdueTasks: (limit) => axios.get(`${API_BASE_URL}/overdue`, { params: { limit } }),
+    getTasksDueSoon: (days, limit) => axios.get(`${API_BASE_URL}/due-soon`, { params: { days, limit } }),
+    initializeData: () => axios.post(`${API_BASE_URL}/initialize`),
+    subscribeToEvents: () => new EventSource(`${API_BASE_URL}/events`)
 };
 
 export default taskService;
\ No newline at end of file